@@ -54,7 +54,17 @@ dependencies {
     implementation(libs.cardview)
     implementation(libs.play.services.location)
 
+    // Local mirror
+    implementation(libs.room.runtime)
+    annotationProcessor(libs.room.compiler)
+
+    // Transactions list paging
+    implementation(libs.paging.runtime)
+    implementation(libs.paging.guava)
+    implementation(libs.guava)
+
     testImplementation(libs.junit)
+    testImplementation(libs.robolectric)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package edu.northeastern.numad25su_group9;
 
 import android.app.Application;
+import android.content.BroadcastReceiver;
+import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
 import android.os.Process;
 import android.util.Log;
 import android.widget.Toast;
@@ -9,15 +12,55 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 
 import edu.northeastern.numad25su_group9.activities.MainActivity;
+import edu.northeastern.numad25su_group9.repositories.TransactionRepository;
+import edu.northeastern.numad25su_group9.repositories.local.LocalDatabase;
+import edu.northeastern.numad25su_group9.repositories.storage.FirebasePersistence;
+import edu.northeastern.numad25su_group9.repositories.storage.PersistencePolicy;
+import edu.northeastern.numad25su_group9.services.ServiceRegistry;
+import edu.northeastern.numad25su_group9.utils.DeviceZone;
 
 public class App extends Application {
 
     private static final String TAG = "MyApplication";
+    // Transactions live in the Room mirror, so the Firebase cache only holds the smaller nodes.
+    private static final long PERSISTENCE_CACHE_SIZE_BYTES = 20L * 1024 * 1024;
+
+    private static ServiceRegistry services;
 
     @Override
     public void onCreate() {
         super.onCreate();
         setupGlobalExceptionHandler();
+        // Must run before anything else uses FirebaseDatabase.
+        FirebasePersistence.init(new PersistencePolicy.Builder()
+                .setCacheSizeBytes(PERSISTENCE_CACHE_SIZE_BYTES)
+                .build());
+        LocalDatabase.init(this);
+        TransactionRepository.setDefaultLayout(TransactionRepository.Layout.MONTHLY);
+        services = new ServiceRegistry();
+        // Date fields cached by the models are recomputed once the device zone changes.
+        registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                DeviceZone.refresh();
+            }
+        }, new IntentFilter(Intent.ACTION_TIMEZONE_CHANGED));
+        // The kept-synced spending months follow the calendar.
+        IntentFilter dateChanged = new IntentFilter(Intent.ACTION_DATE_CHANGED);
+        dateChanged.addAction(Intent.ACTION_TIME_CHANGED);
+        registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                FirebasePersistence.refresh();
+            }
+        }, dateChanged);
+    }
+
+    /**
+     * @return The services of the signed-in user, shared across screens
+     */
+    public static ServiceRegistry getServices() {
+        return services;
     }
 
     private void setupGlobalExceptionHandler() {
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.stream.Collectors;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.R;
 import edu.northeastern.numad25su_group9.databinding.ActivityAddTransactionBinding;
 import edu.northeastern.numad25su_group9.models.Category;
@@ -216,7 +217,7 @@ public class AddTransactionActivity extends AppCompatActivity {
 
         savedInputFieldsToTransaction();
 
-        TransactionService transactionService = new TransactionService();
+        TransactionService transactionService = App.getServices().getTransactionService();
 
         // New transaction
         if (transaction.getTransactionId() == null || transaction.getTransactionId().isBlank()) {
@@ -259,7 +260,7 @@ public class AddTransactionActivity extends AppCompatActivity {
     }
 
     private void getCategories(@Nullable String savedCategory) {
-        new CategoryService().getAllCategories(new CategoryService.CategoriesCallback() {
+        App.getServices().getCategoryService().getAllCategories(new CategoryService.CategoriesCallback() {
 
             @Override
             public void onSuccess(List<Category> categoryList) {
@@ -301,7 +302,7 @@ public class AddTransactionActivity extends AppCompatActivity {
     private void addDeleteButton() {
         binding.addTransactionDeleteButton.setVisibility(View.VISIBLE);
         binding.addTransactionDeleteButton.setOnClickListener((view -> {
-            new TransactionService().deleteTransaction(transaction.getTransactionId(), new TransactionService.OperationCallback() {
+            App.getServices().getTransactionService().deleteTransaction(transaction.getTransactionId(), new TransactionService.OperationCallback() {
                 @Override
                 public void onSuccess() {
                     Log.d(TAG, "Transaction deleted");
@@ -19,6 +19,7 @@ import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.fragment.app.Fragment;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.R;
 import edu.northeastern.numad25su_group9.fragments.budget.BudgetFragment;
 import edu.northeastern.numad25su_group9.fragments.profile.ProfileFragment;
@@ -26,14 +27,16 @@ import edu.northeastern.numad25su_group9.fragments.spending.SpendingFragment;
 import edu.northeastern.numad25su_group9.fragments.transactions.TransactionsFragment;
 import edu.northeastern.numad25su_group9.databinding.ActivityHomeBinding;
 import edu.northeastern.numad25su_group9.models.User;
+import edu.northeastern.numad25su_group9.repositories.storage.FirebasePersistence;
 import edu.northeastern.numad25su_group9.services.LocationService;
+import edu.northeastern.numad25su_group9.services.MigrationService;
 import edu.northeastern.numad25su_group9.services.UserService;
 
 public class HomeActivity extends AppCompatActivity {
     private ActivityHomeBinding binding;
     private static final int REQUEST_LOCATION_PERMISSION = 1;
     private static final int REQUEST_NOTIFICATION_PERMISSION = 2;
-    private final UserService userService = new UserService();
+    private final UserService userService = App.getServices().getUserService();
     /**
      * Instantiate inside constructor or will lead to NullPointerException due to dependency on this.
      */
@@ -59,6 +62,9 @@ public class HomeActivity extends AppCompatActivity {
             binding.bottomNavigation.setSelectedItemId(R.id.navigation_spending);
         }
 
+        // Bring the user's data up to the current layout in the background.
+        new MigrationService().runPendingMigrations();
+
         // Set location service
         locationService = LocationService.getInstance(this);
 
@@ -66,6 +72,13 @@ public class HomeActivity extends AppCompatActivity {
         checkAndRequestPermissions();
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // Follow the current spending months if the session crossed a month boundary.
+        FirebasePersistence.refresh();
+    }
+
     private void bindMenuItemSelectedListener() {
         /*
          TODO:
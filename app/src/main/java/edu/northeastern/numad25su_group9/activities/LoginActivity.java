@@ -9,6 +9,7 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.R;
 import edu.northeastern.numad25su_group9.services.AuthService;
 
@@ -25,7 +26,7 @@ public class LoginActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_login);
 
-        authService = new AuthService();
+        authService = App.getServices().getAuthService();
 
         emailInput = findViewById(R.id.email_input);
         passwordInput = findViewById(R.id.password_input);
@@ -5,6 +5,7 @@ import android.os.Bundle;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.services.AuthService;
 
 public class MainActivity extends AppCompatActivity {
@@ -14,7 +15,7 @@ public class MainActivity extends AppCompatActivity {
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        authService = new AuthService();
+        authService = App.getServices().getAuthService();
 
         if (authService.getCurrentUser() != null) {
             startActivity(new Intent(this, HomeActivity.class));
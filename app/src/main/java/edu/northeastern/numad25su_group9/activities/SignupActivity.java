@@ -11,6 +11,7 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import com.google.firebase.auth.FirebaseUser;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.R;
 import edu.northeastern.numad25su_group9.services.AuthService;
 
@@ -29,7 +30,7 @@ public class SignupActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_signup);
 
-        authService = new AuthService();
+        authService = App.getServices().getAuthService();
 
         emailInput = findViewById(R.id.email_input);
         displayNameInput = findViewById(R.id.displayName_input);
@@ -23,19 +23,20 @@ import com.github.AAChartModel.AAChartCore.AAOptionsModel.AAOptions;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Locale;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.databinding.FragmentBudgetBinding;
 import edu.northeastern.numad25su_group9.models.Budget;
-import edu.northeastern.numad25su_group9.models.MonthlySpendingSummary;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
 import edu.northeastern.numad25su_group9.services.BudgetService;
-import edu.northeastern.numad25su_group9.services.SpendingService;
+import edu.northeastern.numad25su_group9.services.DashboardService;
 
 public class BudgetFragment extends Fragment {
     private static final String TAG = "BudgetFragment";
 
     private FragmentBudgetBinding binding;
+    @Nullable private StorageEngine.Registration yearChartRegistration;
 
     public static BudgetFragment newInstance() {
         return new BudgetFragment();
@@ -81,7 +82,7 @@ public class BudgetFragment extends Fragment {
                     return;
                 }
 
-                BudgetService budgetService = new BudgetService();
+                BudgetService budgetService = App.getServices().getBudgetService();
                 Budget newBudget = new Budget.Builder()
                         .setAmount(budget)
                         .setMonthDateLocal(LocalDateTime.now())
@@ -112,7 +113,7 @@ public class BudgetFragment extends Fragment {
     }
 
     private void getBudgetForText() {
-        BudgetService budgetService = new BudgetService();
+        BudgetService budgetService = App.getServices().getBudgetService();
         budgetService.getLatestBudget(new BudgetService.BudgetCallback() {
             @Override
             public void onSuccess(Budget b) {
@@ -182,74 +183,40 @@ public class BudgetFragment extends Fragment {
 
         LocalDate date = LocalDate.now();
 
-        BudgetService budgetService = new BudgetService();
-        budgetService.getAllBudgetsForYear(date.getYear(), new BudgetService.BudgetsCallback() {
+        // Redrawn whenever a budget or a month's spending changes.
+        yearChartRegistration = App.getServices().getDashboardService().observeYearSummary(date.getYear(), new DashboardService.YearSummaryCallback() {
             @Override
-            public void onSuccess(List<Budget> list) {
+            public void onSuccess(DashboardService.YearSummary summary) {
                 if (binding == null) {
                     return;
                 }
 
-                Double[] budgets = new Double[12];
-                Arrays.fill(budgets, 0.0);
-                for (Budget b : list) {
-                    budgets[b.getMonthDateLocal().getMonthValue() - 1] = b.getAmount();
-                }
-
-                new SpendingService().getSpendingByMonth(date.getYear(), new SpendingService.MonthlySpendingsCallback() {
-
-                    @Override
-                    public void onSuccess(List<MonthlySpendingSummary> list) {
-                        Log.d(TAG, String.format("Successfully got %d spendings", list.size()));
-                        if (binding == null) {
-                            return;
-                        }
-
-//                        if (list.isEmpty()) {
-//                            binding.budgetChartCard.setVisibility(View.GONE);
-//                            return;
-//                        }
-
-                        Double[] spending = new Double[12];
-                        Arrays.fill(spending, 0.0);
-                        for (MonthlySpendingSummary s : list) {
-                            spending[s.getMonth() - 1] = s.getAmount();
-                        }
-
-                        AAChartModel yearlyBudgetChartModel = new AAChartModel()
-                                .chartType(AAChartType.Column) // Bar chart style
-                                .title("Yearly Budget")
-                                .categories(new String[]{"Jan", "Feb", "Mar", "Apr", "May", "Jun",
-                                        "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"})
-                                .dataLabelsEnabled(false)
-                                .yAxisGridLineWidth(0f)
-                                .series(new AASeriesElement[]{
-                                        new AASeriesElement()
-                                                .name("Budget")
-                                                .data(budgets),
-                                        new AASeriesElement()
-                                                .name("Spending")
-                                                .data(spending)
-                                });
-
-                        AAOptions options = AAOptionsConstructor.configureChartOptions(yearlyBudgetChartModel);
-                        binding.budgetChart.aa_drawChartWithChartOptions(options);
-                    }
-
-                    @Override
-                    public void onError(Exception e) {
-                        Log.e(TAG, "Error getting spending", e);
-                        if (binding != null && isAdded()) {
-                            binding.budgetChartCard.setVisibility(View.GONE);
-                        }
-                    }
-                });
-
+                Double[] budgets = Arrays.stream(summary.getBudgets()).boxed().toArray(Double[]::new);
+                Double[] spending = Arrays.stream(summary.getSpendings()).boxed().toArray(Double[]::new);
+
+                AAChartModel yearlyBudgetChartModel = new AAChartModel()
+                        .chartType(AAChartType.Column) // Bar chart style
+                        .title("Yearly Budget")
+                        .categories(new String[]{"Jan", "Feb", "Mar", "Apr", "May", "Jun",
+                                "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"})
+                        .dataLabelsEnabled(false)
+                        .yAxisGridLineWidth(0f)
+                        .series(new AASeriesElement[]{
+                                new AASeriesElement()
+                                        .name("Budget")
+                                        .data(budgets),
+                                new AASeriesElement()
+                                        .name("Spending")
+                                        .data(spending)
+                        });
+
+                AAOptions options = AAOptionsConstructor.configureChartOptions(yearlyBudgetChartModel);
+                binding.budgetChart.aa_drawChartWithChartOptions(options);
             }
 
             @Override
             public void onError(Exception e) {
-                Log.e(TAG, "Error getting budgets", e);
+                Log.e(TAG, "Error getting budgets or spending", e);
                 if (binding != null && isAdded()) {
                     binding.budgetChartCard.setVisibility(View.GONE);
                 }
@@ -260,6 +227,10 @@ public class BudgetFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        if (yearChartRegistration != null) {
+            yearChartRegistration.remove();
+            yearChartRegistration = null;
+        }
         binding = null;
     }
 }
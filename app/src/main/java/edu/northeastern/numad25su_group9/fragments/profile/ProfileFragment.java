@@ -23,6 +23,7 @@ import com.google.android.material.textfield.TextInputEditText;
 
 import java.util.List;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.activities.HomeActivity;
 import edu.northeastern.numad25su_group9.activities.LoginActivity;
 import edu.northeastern.numad25su_group9.databinding.FragmentProfileBinding;
@@ -38,9 +39,9 @@ public class ProfileFragment extends Fragment {
     // View objects
     private FragmentProfileBinding binding;
     // Services
-    private final UserService profileService = new UserService();
-    private final CategoryService categoryService = new CategoryService();
-    private final AuthService authService = new AuthService();
+    private final UserService profileService = App.getServices().getUserService();
+    private final CategoryService categoryService = App.getServices().getCategoryService();
+    private final AuthService authService = App.getServices().getAuthService();
     /**
      * Instantiate inside constructor or will lead to NullPointerException due to dependency on this.
      */
@@ -23,24 +23,25 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.databinding.FragmentSpendingBinding;
-import edu.northeastern.numad25su_group9.models.Budget;
 import edu.northeastern.numad25su_group9.models.MonthlySpendingSummary;
 import edu.northeastern.numad25su_group9.models.Spending;
-import edu.northeastern.numad25su_group9.models.Transaction;
-import edu.northeastern.numad25su_group9.services.BudgetService;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.services.DashboardService;
 import edu.northeastern.numad25su_group9.services.SpendingService;
-import edu.northeastern.numad25su_group9.services.TransactionService;
 
 public class SpendingFragment extends Fragment {
 
     public static final String TAG = "SpendingFragment";
 
     private FragmentSpendingBinding binding;
+    @Nullable private StorageEngine.Registration lineChartRegistration;
+    @Nullable private StorageEngine.Registration pieChartRegistration;
 
     public SpendingFragment() {
         // Required empty public constructor
-        new SpendingService().getSpendingByMonth(2025, new SpendingService.MonthlySpendingsCallback() {
+        App.getServices().getSpendingService().getSpendingByMonth(2025, new SpendingService.MonthlySpendingsCallback() {
             @Override
             public void onSuccess(List<MonthlySpendingSummary> list) {
 
@@ -80,8 +81,9 @@ public class SpendingFragment extends Fragment {
 
     private void makePieChart(LocalDate monthYear) {
         Log.d(TAG, "Making pie chart");
-        SpendingService spendingService = new SpendingService();
-        spendingService.getSpendingsForMonthByCategory(monthYear.getYear(), monthYear.getMonthValue(), new SpendingService.SpendingsCallback() {
+        SpendingService spendingService = App.getServices().getSpendingService();
+        // Redrawn whenever a spending of the month changes.
+        pieChartRegistration = spendingService.observeSpendingsForMonthByCategory(monthYear.getYear(), monthYear.getMonthValue(), new SpendingService.SpendingsCallback() {
             @Override
             public void onSuccess(List<Spending> list) {
                 if (!isAdded() || binding == null) {
@@ -89,9 +91,7 @@ public class SpendingFragment extends Fragment {
                     return;
                 }
 
-                if (list.isEmpty()) {
-                    binding.spendingPieCard.setVisibility(View.INVISIBLE);
-                }
+                binding.spendingPieCard.setVisibility(list.isEmpty() ? View.INVISIBLE : View.VISIBLE);
 
                 Log.d(TAG, String.format("Success getting %d spendings", list.size()));
 
@@ -114,7 +114,9 @@ public class SpendingFragment extends Fragment {
             @Override
             public void onError(Exception e) {
                 Log.e(TAG, "Error getting spendings", e);
-                Toast.makeText(getActivity(), "Error getting spendings", Toast.LENGTH_SHORT).show();
+                if (isAdded()) {
+                    Toast.makeText(getActivity(), "Error getting spendings", Toast.LENGTH_SHORT).show();
+                }
             }
         });
     }
@@ -140,89 +142,81 @@ public class SpendingFragment extends Fragment {
         }
         spendingLineChartModel.categories(categories);
 
-        BudgetService budgetService = new BudgetService();
-        budgetService.getBudgetForMonth(monthYear.getYear(), monthYear.getMonthValue(), new BudgetService.BudgetCallback() {
+        // The budget and the daily spending are observed together; the chart is redrawn when either changes.
+        lineChartRegistration = App.getServices().getDashboardService().observeMonthSummary(monthYear.getYear(), monthYear.getMonthValue(), new DashboardService.MonthSummaryCallback() {
 
             @Override
-            public void onSuccess(Budget budget) {
-                Double[] budgetArray = new Double[monthYear.getMonth().length(monthYear.isLeapYear())];
-                Arrays.fill(budgetArray, budget.getAmount());
-                AASeriesElement budgetElement = new AASeriesElement()
-                        .name("Budget")
-                        .allowPointSelect(false)
-                        .color("#808080")
-                        .fillOpacity(0.1)
-                        .dashStyle(AAChartLineDashStyleType.Dash)
-                        .data(budgetArray);
-                importLineChartTransactionData(monthYear, spendingLineChartModel, budgetElement);
+            public void onSuccess(DashboardService.MonthSummary summary) {
+                AASeriesElement budgetElement = null;
+                if (summary.hasBudget()) {
+                    Double[] budgetArray = new Double[daysInMonth];
+                    Arrays.fill(budgetArray, summary.getBudget());
+                    budgetElement = new AASeriesElement()
+                            .name("Budget")
+                            .allowPointSelect(false)
+                            .color("#808080")
+                            .fillOpacity(0.1)
+                            .dashStyle(AAChartLineDashStyleType.Dash)
+                            .data(budgetArray);
+                }
+                drawLineChart(monthYear, spendingLineChartModel, summary.getDailySpendings(), budgetElement);
             }
 
             @Override
             public void onError(Exception e) {
-                Log.e(TAG, "Error getting budget", e);
-                Toast.makeText(getActivity(), "Error getting budget", Toast.LENGTH_SHORT).show();
-                importLineChartTransactionData(monthYear, spendingLineChartModel, null);
+                Log.e(TAG, "Error getting daily spending", e);
+                if (isAdded()) {
+                    Toast.makeText(getActivity(), "Error getting daily spending", Toast.LENGTH_SHORT).show();
+                }
             }
         });
     }
 
-    private void importLineChartTransactionData(LocalDate date, AAChartModel spendingLineChartModel, AASeriesElement budgetSeries) {
-        TransactionService transactionService = new TransactionService();
-        transactionService.getTransactionsByMonth(date.getYear(), date.getMonthValue(), new TransactionService.TransactionsCallback() {
-
-            @Override
-            public void onSuccess(List<Transaction> transactions) {
-
-                int daysInMonth = date.getMonth().length(date.isLeapYear());
-
-                Double[] spendingArray = new Double[daysInMonth];
-                Arrays.fill(spendingArray, 0.0); // Initialize with 0.0
-                for (Transaction transaction : transactions) {
-                    // Round to 2 decimal places
-                    double roundedAmount = Math.round(transaction.getAmount() * 100.0) / 100.0;
-                    spendingArray[transaction.getTransactionDateLocal().getDayOfMonth() - 1] += roundedAmount;
-                }
-                for (int i = 1; i < spendingArray.length; i++) {
-                    // Round to 2 decimal places
-                    spendingArray[i] = Math.round((spendingArray[i] + spendingArray[i-1]) * 100.0) / 100.0;
-                }
-
-                if (LocalDate.now().getMonth() == date.getMonth() && LocalDate.now().getYear() == date.getYear()) {
-                    spendingArray = Arrays.copyOfRange(spendingArray, 0, LocalDate.now().getDayOfMonth());
-                }
+    private void drawLineChart(LocalDate date, AAChartModel spendingLineChartModel, double[] dailyTotals, @Nullable AASeriesElement budgetSeries) {
+        Double[] spendingArray = new Double[dailyTotals.length];
+        double runningTotal = 0;
+        for (int i = 0; i < dailyTotals.length; i++) {
+            // Round to 2 decimal places
+            runningTotal = Math.round((runningTotal + dailyTotals[i]) * 100.0) / 100.0;
+            spendingArray[i] = runningTotal;
+        }
 
-                AASeriesElement thisMonthSpending = new AASeriesElement()
-                        .name("This Month")
-                        .data(spendingArray);
-
-                if (budgetSeries == null) {
-                    spendingLineChartModel.series(new AASeriesElement[]{
-                            thisMonthSpending
-                    });
-                } else {
-                    spendingLineChartModel.series(new AASeriesElement[]{
-                            thisMonthSpending,
-                            budgetSeries
-                    });
-                }
+        if (LocalDate.now().getMonth() == date.getMonth() && LocalDate.now().getYear() == date.getYear()) {
+            spendingArray = Arrays.copyOfRange(spendingArray, 0, LocalDate.now().getDayOfMonth());
+        }
 
-                if (binding != null) {
-                    binding.spendingLineSpendThisMonth.setText(String.format(Locale.US, "$%.2f", spendingArray[spendingArray.length - 1]));
-                    binding.spendingChart.aa_drawChartWithChartModel(spendingLineChartModel);
-                }
-            }
+        AASeriesElement thisMonthSpending = new AASeriesElement()
+                .name("This Month")
+                .data(spendingArray);
+
+        if (budgetSeries == null) {
+            spendingLineChartModel.series(new AASeriesElement[]{
+                    thisMonthSpending
+            });
+        } else {
+            spendingLineChartModel.series(new AASeriesElement[]{
+                    thisMonthSpending,
+                    budgetSeries
+            });
+        }
 
-            @Override
-            public void onError(Exception e) {
-                Log.e(TAG, "Error getting transactions", e);
-                Toast.makeText(getActivity(), "Error getting transactions", Toast.LENGTH_SHORT).show();
-            }
-        });
+        if (binding != null) {
+            binding.spendingLineSpendThisMonth.setText(String.format(Locale.US, "$%.2f", spendingArray[spendingArray.length - 1]));
+            binding.spendingChart.aa_drawChartWithChartModel(spendingLineChartModel);
+        }
     }
 
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        if (lineChartRegistration != null) {
+            lineChartRegistration.remove();
+            lineChartRegistration = null;
+        }
+        if (pieChartRegistration != null) {
+            pieChartRegistration.remove();
+            pieChartRegistration = null;
+        }
         binding = null;
     }
 
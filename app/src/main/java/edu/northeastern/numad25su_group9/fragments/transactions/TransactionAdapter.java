@@ -1,26 +1,69 @@
 package edu.northeastern.numad25su_group9.fragments.transactions;
 
 import android.content.Context;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.ViewGroup;
 
 import androidx.annotation.NonNull;
-import androidx.recyclerview.widget.RecyclerView;
+import androidx.lifecycle.Lifecycle;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataAdapter;
+import androidx.paging.PagingDataTransforms;
+import androidx.recyclerview.widget.DiffUtil;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import edu.northeastern.numad25su_group9.R;
 import edu.northeastern.numad25su_group9.models.Transaction;
 
-public class TransactionAdapter extends RecyclerView.Adapter<TransactionViewHolder> {
+/**
+ * Newest-first, paged list of transactions.
+ * <p>
+ * Pages come from {@link edu.northeastern.numad25su_group9.services.TransactionPagingSource}
+ * and are projected into {@link TransactionRow}s on a background thread. Paging diffs each
+ * new generation against the shown rows, also off the main thread, and rebinds only the rows
+ * that changed. Positions not loaded yet are bound as placeholders.
+ * </p>
+ */
+public class TransactionAdapter extends PagingDataAdapter<TransactionRow, TransactionViewHolder> {
+
+    private static final ExecutorService PROJECTION_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "TransactionAdapter-rows");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final DiffUtil.ItemCallback<TransactionRow> DIFF_CALLBACK = new DiffUtil.ItemCallback<>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull TransactionRow oldItem, @NonNull TransactionRow newItem) {
+            return oldItem.getTransactionId().equals(newItem.getTransactionId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull TransactionRow oldItem, @NonNull TransactionRow newItem) {
+            // The row opens its transaction when clicked, so every field counts, not only the shown ones.
+            Transaction first = oldItem.getTransaction();
+            Transaction second = newItem.getTransaction();
+            return first == second
+                    || (Objects.equals(first.getCategoryName(), second.getCategoryName())
+                    && Objects.equals(first.getDescription(), second.getDescription())
+                    && Double.compare(first.getAmount(), second.getAmount()) == 0
+                    && first.getTransactionDate() == second.getTransactionDate()
+                    && first.isIgnore() == second.isIgnore()
+                    && Objects.equals(first.getVendorId(), second.getVendorId())
+                    && Objects.equals(first.getVendorName(), second.getVendorName())
+                    && Objects.equals(first.getLocationId(), second.getLocationId())
+                    && Objects.equals(first.getLatitude(), second.getLatitude())
+                    && Objects.equals(first.getLongitude(), second.getLongitude()));
+        }
+    };
 
-    private final List<Transaction> transactionList;
     private final Context context;
 
-    public TransactionAdapter(List<Transaction> transactionList, Context context) {
-        this.transactionList = transactionList.stream().sorted((first, second) -> second.getTransactionDateLocal().compareTo(first.getTransactionDateLocal())).collect(Collectors.toList());
+    public TransactionAdapter(Context context) {
+        super(DIFF_CALLBACK);
         this.context = context;
     }
 
@@ -32,22 +75,18 @@ public class TransactionAdapter extends RecyclerView.Adapter<TransactionViewHold
 
     @Override
     public void onBindViewHolder(@NonNull TransactionViewHolder holder, int position) {
-        holder.bind(transactionList.get(position));
-    }
-
-    @Override
-    public int getItemCount() {
-        return transactionList.size();
+        TransactionRow row = getItem(position);
+        if (row == null) {
+            holder.bindPlaceholder();
+        } else {
+            holder.bind(row);
+        }
     }
 
-    public void updateTransactions(List<Transaction> transactions) {
-        if (transactions == null) {
-            Log.e("TransactionAdapter", "Transactions list is null");
-            return;
-        }
-        List<Transaction> sortedTransactions = transactions.stream().sorted((first, second) -> second.getTransactionDateLocal().compareTo(first.getTransactionDateLocal())).collect(Collectors.toList());
-        transactionList.clear();
-        transactionList.addAll(sortedTransactions);
-        notifyDataSetChanged();
+    /**
+     * Shows a new generation of transactions, replacing the previous one.
+     */
+    public void submitTransactions(Lifecycle lifecycle, PagingData<Transaction> transactions) {
+        submitData(lifecycle, PagingDataTransforms.map(transactions, PROJECTION_EXECUTOR, TransactionRow::from));
     }
 }
@@ -0,0 +1,102 @@
+package edu.northeastern.numad25su_group9.fragments.transactions;
+
+import androidx.annotation.DrawableRes;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import edu.northeastern.numad25su_group9.R;
+import edu.northeastern.numad25su_group9.models.Transaction;
+
+/**
+ * What a row of the transactions list shows, formatted ahead of binding.
+ * <p>
+ * Built by {@link TransactionAdapter} off the main thread. Formatters and category icons are
+ * cached, so building a row allocates little more than its strings.
+ * </p>
+ */
+public final class TransactionRow {
+
+    // Category name -> icon, resolved once per name.
+    private static final Map<String, Integer> CATEGORY_IMAGES = new ConcurrentHashMap<>();
+
+    // Same output as String.format(Locale.US, "$%,.2f", amount), given a BigDecimal so halves
+    // round up the same way. DecimalFormat is not thread-safe.
+    private static final ThreadLocal<DecimalFormat> AMOUNT_FORMAT = ThreadLocal.withInitial(() -> {
+        DecimalFormat format = new DecimalFormat("$#,##0.00;$-#,##0.00", DecimalFormatSymbols.getInstance(Locale.US));
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        return format;
+    });
+
+    // Localized, so rebuilt when the default locale changes.
+    private static volatile DateTimeFormatter dateFormatter;
+    private static volatile Locale dateFormatterLocale;
+
+    private final Transaction transaction;
+    private final String description;
+    private final String date;
+    private final String amount;
+    @DrawableRes private final int categoryImage;
+
+    private TransactionRow(Transaction transaction) {
+        this.transaction = transaction;
+        this.description = transaction.getDescription();
+        this.date = transaction.getTransactionDateLocal().format(dateFormatter());
+        this.amount = AMOUNT_FORMAT.get().format(BigDecimal.valueOf(transaction.getAmount()));
+        this.categoryImage = getCategoryImage(transaction.getCategoryName());
+    }
+
+    public static TransactionRow from(Transaction transaction) {
+        return new TransactionRow(transaction);
+    }
+
+    public Transaction getTransaction() { return transaction; }
+    public String getTransactionId() { return transaction.getTransactionId(); }
+    public String getDescription() { return description; }
+    public String getDate() { return date; }
+    public String getAmount() { return amount; }
+    @DrawableRes public int getCategoryImage() { return categoryImage; }
+
+    private static DateTimeFormatter dateFormatter() {
+        Locale locale = Locale.getDefault();
+        DateTimeFormatter formatter = dateFormatter;
+        if (formatter == null || !locale.equals(dateFormatterLocale)) {
+            formatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM).withLocale(locale);
+            dateFormatterLocale = locale;
+            dateFormatter = formatter;
+        }
+        return formatter;
+    }
+
+    @DrawableRes
+    private static int getCategoryImage(String category) {
+        return CATEGORY_IMAGES.computeIfAbsent(category, TransactionRow::resolveCategoryImage);
+    }
+
+    private static int resolveCategoryImage(String category) {
+        String name = category.toLowerCase();
+        if (name.contains("entertainment")) {
+            return R.drawable.entertainment;
+        }
+        if (name.contains("food")) {
+            return R.drawable.food;
+        }
+        if (name.contains("shopping")) {
+            return R.drawable.shopping;
+        }
+        if (name.contains("transport")) {
+            return R.drawable.transport;
+        }
+        if (name.contains("utilities")) {
+            return R.drawable.utilities;
+        }
+        return R.drawable.question;
+    }
+}
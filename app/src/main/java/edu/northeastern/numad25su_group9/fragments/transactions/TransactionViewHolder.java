@@ -9,14 +9,8 @@ import androidx.annotation.NonNull;
 import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.FormatStyle;
-import java.util.Locale;
-
 import edu.northeastern.numad25su_group9.R;
 import edu.northeastern.numad25su_group9.activities.AddTransactionActivity;
-import edu.northeastern.numad25su_group9.models.Transaction;
 
 public class TransactionViewHolder extends RecyclerView.ViewHolder {
 
@@ -35,44 +29,29 @@ public class TransactionViewHolder extends RecyclerView.ViewHolder {
         cardView = itemView.findViewById(R.id.transaction_card_view);
     }
 
-    public void bind(Transaction transaction) {
-        categoryImageView.setImageResource(getCategoryImage(transaction.getCategoryName()));
-        descriptionTextView.setText(transaction.getDescription());
-        dateTextView.setText(formatDate(transaction.getTransactionDateLocal()));
-        amountTextView.setText(formatAmount(transaction.getAmount()));
+    /**
+     * Shows a row; everything is formatted already, see {@link TransactionRow}.
+     */
+    public void bind(TransactionRow row) {
+        categoryImageView.setImageResource(row.getCategoryImage());
+        descriptionTextView.setText(row.getDescription());
+        dateTextView.setText(row.getDate());
+        amountTextView.setText(row.getAmount());
         cardView.setOnClickListener(v -> {
             Intent intent = new Intent(itemView.getContext(), AddTransactionActivity.class);
-            intent.putExtra(AddTransactionActivity.TRANSACTION_EXTRA_KEY, transaction);
+            intent.putExtra(AddTransactionActivity.TRANSACTION_EXTRA_KEY, row.getTransaction());
             itemView.getContext().startActivity(intent);
         });
     }
 
-    private int getCategoryImage(String category) {
-        if (category.toLowerCase().contains("entertainment")) {
-            return R.drawable.entertainment;
-        }
-        if (category.toLowerCase().contains("food")) {
-            return R.drawable.food;
-        }
-        if (category.toLowerCase().contains("shopping")) {
-            return R.drawable.shopping;
-        }
-        if (category.toLowerCase().contains("transport")) {
-            return R.drawable.transport;
-        }
-        if (category.toLowerCase().contains("utilities")) {
-            return R.drawable.utilities;
-        }
-        return R.drawable.question;
-    }
-
-    private String formatDate(LocalDateTime dateTime) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM);
-        return dateTime.format(formatter);
-    }
-
-    private String formatAmount(double amount) {
-        // TODO: FORMAT AMOUNT
-        return String.format(Locale.US, "$%,.2f", amount);
+    /**
+     * Shows a position whose page is not loaded yet.
+     */
+    public void bindPlaceholder() {
+        categoryImageView.setImageDrawable(null);
+        descriptionTextView.setText(null);
+        dateTextView.setText(null);
+        amountTextView.setText(null);
+        cardView.setOnClickListener(null);
     }
 }
@@ -11,24 +11,39 @@ import android.widget.Toast;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
+import androidx.paging.LoadState;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
-import java.util.ArrayList;
-import java.util.List;
+import kotlin.Unit;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.activities.AddTransactionActivity;
 import edu.northeastern.numad25su_group9.databinding.FragmentTransactionsBinding;
 import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
 import edu.northeastern.numad25su_group9.services.TransactionService;
 
 public class TransactionsFragment extends Fragment {
 
     // For logging
     private static final String TAG = "TransactionsFragment";
+    private static final int PAGE_SIZE = 30;
+    // Start loading the next page when this many rows are left beyond the viewport.
+    private static final int PREFETCH_DISTANCE = 10;
+    // Rows kept in memory; pages further away are dropped and reloaded when scrolled back to.
+    private static final int MAX_LOADED_ROWS = PAGE_SIZE * 5;
     private FragmentTransactionsBinding binding;
     private TransactionService transactionService;
     private TransactionAdapter transactionAdapter;
+    @Nullable private StorageEngine.Registration changesRegistration;
+    // Load states are dispatched repeatedly; each failure is reported once.
+    @Nullable private Throwable reportedError;
 
     public TransactionsFragment() {}
 
@@ -39,7 +54,7 @@ public class TransactionsFragment extends Fragment {
     @Override
     public void onCreate(@Nullable Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
-        transactionService = new TransactionService();
+        transactionService = App.getServices().getTransactionService();
     }
 
     @Nullable
@@ -60,64 +75,65 @@ public class TransactionsFragment extends Fragment {
             Intent intent = new Intent(requireActivity(), AddTransactionActivity.class);
             startActivity(intent);
         });
-    }
 
-    @Override
-    public void onResume() {
-        super.onResume();
+        // Pages load as the list scrolls; later changes arrive through the change log.
         updateTransactions();
+        observeTransactionChanges();
     }
 
     private void buildRecyclerView() {
         RecyclerView recyclerView = binding.transactionsRecyclerView;
         recyclerView.setHasFixedSize(true);
         recyclerView.setLayoutManager(new LinearLayoutManager(requireContext()));
-        transactionAdapter = new TransactionAdapter(new ArrayList<>(), requireContext());
+        transactionAdapter = new TransactionAdapter(requireContext());
         recyclerView.setAdapter(transactionAdapter);
+
+        transactionAdapter.addLoadStateListener(states -> {
+            if (binding == null) return Unit.INSTANCE;
+            LoadState refresh = states.getRefresh();
+            binding.transactionsProgressBar.setVisibility(refresh instanceof LoadState.Loading ? View.VISIBLE : View.INVISIBLE);
+            if (refresh instanceof LoadState.NotLoading && transactionAdapter.getItemCount() == 0) {
+                Log.d(TAG, "No transactions found");
+            }
+            LoadState.Error error = states.getRefresh() instanceof LoadState.Error ? (LoadState.Error) states.getRefresh()
+                    : states.getAppend() instanceof LoadState.Error ? (LoadState.Error) states.getAppend()
+                    : states.getPrepend() instanceof LoadState.Error ? (LoadState.Error) states.getPrepend()
+                    : null;
+            if (error != null && error.getError() != reportedError) {
+                reportedError = error.getError();
+                Log.e(TAG, "Error fetching transactions", error.getError());
+                if (isAdded()) {
+                    Toast.makeText(requireContext(), "Failed to load transactions", Toast.LENGTH_SHORT).show();
+                }
+            }
+            return Unit.INSTANCE;
+        });
     }
 
     private void updateTransactions() {
-        binding.transactionsProgressBar.setVisibility(View.VISIBLE);
+        PagingConfig config = new PagingConfig(PAGE_SIZE, PREFETCH_DISTANCE, true, PAGE_SIZE * 2, MAX_LOADED_ROWS);
+        Pager<Integer, Transaction> pager = new Pager<>(config, () -> transactionService.newPagingSource());
+        LiveData<PagingData<Transaction>> pages = PagingLiveData.cachedIn(PagingLiveData.getLiveData(pager), getViewLifecycleOwner().getLifecycle());
+        pages.observe(getViewLifecycleOwner(), data ->
+                transactionAdapter.submitTransactions(getViewLifecycleOwner().getLifecycle(), data));
+    }
 
-        // Fetch transactions from the service
-        transactionService.getAllTransactions(new TransactionService.TransactionsCallback() {
+    private void observeTransactionChanges() {
+        changesRegistration = transactionService.observeTransactionChanges(new TransactionService.TransactionChangesCallback() {
             @Override
-            public void onSuccess(List<Transaction> fetchedTransactions) {
-                if (binding == null) {
-                    return;
-                }
-                binding.transactionsProgressBar.setVisibility(View.INVISIBLE);
-
-                if (fetchedTransactions.isEmpty()) {
-                    Log.d(TAG, "No transactions found");
-                }
+            public void onTransactionChanged(Transaction transaction) {
+                // Reloads the loaded pages around the visible rows; only changed rows rebind.
+                if (binding != null) transactionAdapter.refresh();
+            }
 
-                if (isAdded()) {
-                    transactionAdapter.updateTransactions(fetchedTransactions);
-
-//                    // Show toast on screen if empty
-//                    if (fetchedTransactions.isEmpty()) {
-//                        // Ensure the fragment is still attached to its activity before updating the UI.
-//                        // Callbacks may be triggered after the user navigates away from this screen.
-//                        requireActivity().runOnUiThread(() ->
-//                            Toast.makeText(requireContext(), "No transactions found", Toast.LENGTH_SHORT).show()
-//                        );
-//                    }
-                }
+            @Override
+            public void onTransactionRemoved(String transactionId) {
+                if (binding != null) transactionAdapter.refresh();
             }
 
             @Override
             public void onError(Exception e) {
-                Log.e(TAG, "Error fetching transactions", e);
-                if (binding != null) {
-                    binding.transactionsProgressBar.setVisibility(View.INVISIBLE);
-                }
-                // Ensure the fragment is still attached to its activity before updating the UI.
-                // Callbacks may be triggered after the user navigates away from this screen.
-                if (!isAdded()) return;
-                requireActivity().runOnUiThread(() ->
-                    Toast.makeText(requireContext(), "Failed to load transactions", Toast.LENGTH_SHORT).show()
-                );
+                Log.e(TAG, "Error observing transactions", e);
             }
         });
     }
@@ -125,6 +141,10 @@ public class TransactionsFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        if (changesRegistration != null) {
+            changesRegistration.remove();
+            changesRegistration = null;
+        }
         binding.transactionsRecyclerView.setAdapter(null);
         binding = null;
     }
@@ -4,18 +4,24 @@ import android.os.Parcel;
 import android.os.Parcelable;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import edu.northeastern.numad25su_group9.utils.DeviceZone;
+
 public class Budget implements Parcelable {
     private double amount;
     // Stored as UNIX-based epoch time. Will format it when displaying on UI based on local time-zone.
     private long monthUtcTs;
+    // Calendar fields of monthUtcTs, recomputed only once it or the device zone changes.
+    @Nullable private transient volatile DateFields utcFields;
+    @Nullable private transient volatile DateFields localFields;
 
     // For firebase
     public Budget() {}
@@ -50,6 +56,16 @@ public class Budget implements Parcelable {
         return result;
     }
 
+    /**
+     * Deserialize from map. Reads the keys written by {@link #toMap()}.
+     */
+    public static Budget fromMap(Map<String, Object> map) {
+        Budget budget = new Budget();
+        budget.amount = ModelCodecs.getDouble(map, "amount");
+        budget.monthUtcTs = ModelCodecs.getLong(map, "monthUtcTs");
+        return budget;
+    }
+
     // Getters and setters
     public double getAmount() {
         return amount;
@@ -63,7 +79,7 @@ public class Budget implements Parcelable {
      * Returns the month as a {@link LocalDateTime} in the device's default time zone.
      */
     public LocalDateTime getMonthDateLocal() {
-        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(monthUtcTs), ZoneId.systemDefault())
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(monthUtcTs), DeviceZone.get())
                 .toLocalDateTime();
     }
 
@@ -72,7 +88,7 @@ public class Budget implements Parcelable {
      * Converts it internally to epoch milliseconds for Firebase storage.
      */
     public void setMonthDateLocal(LocalDateTime localDateTime) {
-        ZonedDateTime zoned = localDateTime.atZone(ZoneId.systemDefault());
+        ZonedDateTime zoned = localDateTime.atZone(DeviceZone.get());
         this.monthUtcTs = zoned.toInstant().toEpochMilli();
     }
 
@@ -80,7 +96,7 @@ public class Budget implements Parcelable {
      * Returns the month as a {@link LocalDateTime} in UTC.
      */
     public LocalDateTime getMonthDateUtc() {
-        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(monthUtcTs), ZoneId.of("UTC"))
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(monthUtcTs), ZoneOffset.UTC)
                 .toLocalDateTime();
     }
 
@@ -89,7 +105,7 @@ public class Budget implements Parcelable {
      * The value is converted to epoch milliseconds for Firebase storage.
      */
     public void setMonthDateUtc(LocalDateTime utcDateTime) {
-        this.monthUtcTs = utcDateTime.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+        this.monthUtcTs = utcDateTime.atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
     }
 
     /**
@@ -99,6 +115,27 @@ public class Budget implements Parcelable {
         return this.monthUtcTs;
     }
 
+    // Allocation-free calendar fields of the month, for bucketing loops.
+
+    public int getMonthYearLocal() { return localFields().year; }
+    /** Month in the device's time zone, 1-12. */
+    public int getMonthValueLocal() { return localFields().month; }
+    public int getMonthYearUtc() { return utcFields().year; }
+    /** Month in UTC, 1-12. */
+    public int getMonthValueUtc() { return utcFields().month; }
+
+    private DateFields localFields() {
+        DateFields fields = DateFields.local(localFields, monthUtcTs);
+        localFields = fields;
+        return fields;
+    }
+
+    private DateFields utcFields() {
+        DateFields fields = DateFields.utc(utcFields, monthUtcTs);
+        utcFields = fields;
+        return fields;
+    }
+
     /**
      * For firebase deserialization.
      */
@@ -117,12 +154,12 @@ public class Budget implements Parcelable {
 
         /** month from LocalDateTime in device zone. */
         public Builder setMonthDateLocal(LocalDateTime local) {
-            this.monthUtcTs = local.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.monthUtcTs = local.atZone(DeviceZone.get()).toInstant().toEpochMilli();
             return this;
         }
         /** month from LocalDateTime in UTC. */
         public Builder setMonthDateUtc(LocalDateTime utc) {
-            this.monthUtcTs = utc.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+            this.monthUtcTs = utc.atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
             return this;
         }
         /** month from ZonedDateTime. */
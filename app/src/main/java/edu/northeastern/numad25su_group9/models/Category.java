@@ -35,6 +35,15 @@ public class Category implements Parcelable {
         return result;
     }
 
+    /**
+     * Deserialize from map. Reads the keys written by {@link #toMap()}.
+     */
+    public static Category fromMap(Map<String, Object> map) {
+        Category category = new Category();
+        category.name = ModelCodecs.getString(map, "name");
+        return category;
+    }
+
     @NonNull
     @Override
     public String toString() {
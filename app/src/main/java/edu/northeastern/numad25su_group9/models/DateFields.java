@@ -0,0 +1,64 @@
+package edu.northeastern.numad25su_group9.models;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import edu.northeastern.numad25su_group9.utils.DeviceZone;
+
+/**
+ * Calendar fields of an epoch-millis timestamp, computed once.
+ * <p>
+ * Models keep one per zone in a volatile field and recompute it only when the timestamp, or
+ * for the device zone {@link DeviceZone#version()}, no longer matches. Reading a field is
+ * then allocation-free. Instances are immutable, so they can be shared between threads.
+ * </p>
+ */
+final class DateFields {
+    private static final long MILLIS_PER_DAY = TimeUnit.DAYS.toMillis(1);
+    // Marks fields that do not depend on the device zone.
+    private static final int UTC = -1;
+
+    final long epochMillis;
+    private final int zoneVersion;
+    final long epochDay;
+    final int year;
+    final int month;
+    final int dayOfMonth;
+
+    private DateFields(long epochMillis, int zoneVersion, int offsetSeconds) {
+        this.epochMillis = epochMillis;
+        this.zoneVersion = zoneVersion;
+        this.epochDay = Math.floorDiv(epochMillis + offsetSeconds * 1000L, MILLIS_PER_DAY);
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        this.year = date.getYear();
+        this.month = date.getMonthValue();
+        this.dayOfMonth = date.getDayOfMonth();
+    }
+
+    /**
+     * @return {@code cached} if it holds the UTC fields of {@code epochMillis}, else new ones
+     */
+    static DateFields utc(DateFields cached, long epochMillis) {
+        if (cached != null && cached.epochMillis == epochMillis) return cached;
+        return new DateFields(epochMillis, UTC, 0);
+    }
+
+    /**
+     * @return {@code cached} if it holds the device-zone fields of {@code epochMillis}, else new ones
+     */
+    static DateFields local(DateFields cached, long epochMillis) {
+        int version = DeviceZone.version();
+        if (cached != null && cached.epochMillis == epochMillis && cached.zoneVersion == version) return cached;
+        ZoneOffset offset = DeviceZone.get().getRules().getOffset(Instant.ofEpochMilli(epochMillis));
+        return new DateFields(epochMillis, version, offset.getTotalSeconds());
+    }
+
+    /**
+     * @return The epoch day of the first day of the month
+     */
+    long monthStartEpochDay() {
+        return epochDay - dayOfMonth + 1;
+    }
+}
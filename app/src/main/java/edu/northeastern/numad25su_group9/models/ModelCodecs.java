@@ -0,0 +1,80 @@
+package edu.northeastern.numad25su_group9.models;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registry of hand-written decoders for the models, keyed by class.
+ * <p>
+ * Each model pairs {@code toMap()} with a static {@code fromMap(Map)} that reads the same keys
+ * back. Snapshots use these instead of Firebase's reflection-based bean mapper, which looks
+ * up setters and coerces types per field and per child.
+ * </p>
+ */
+public final class ModelCodecs {
+
+    /**
+     * Builds a model from the raw map of a database node.
+     */
+    public interface Decoder<T> {
+        @NonNull
+        T decode(@NonNull Map<String, Object> map);
+    }
+
+    private static final Map<Class<?>, Decoder<?>> DECODERS = new HashMap<>();
+
+    static {
+        DECODERS.put(Transaction.class, Transaction::fromMap);
+        DECODERS.put(Spending.class, Spending::fromMap);
+        DECODERS.put(Budget.class, Budget::fromMap);
+        DECODERS.put(Category.class, Category::fromMap);
+        DECODERS.put(User.class, User::fromMap);
+        DECODERS.put(Vendor.class, Vendor::fromMap);
+        DECODERS.put(VendorLocation.class, VendorLocation::fromMap);
+    }
+
+    private ModelCodecs() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @return The decoder for {@code type}, or {@code null} if it has none
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static <T> Decoder<T> decoderFor(@NonNull Class<T> type) {
+        return (Decoder<T>) DECODERS.get(type);
+    }
+
+    // Field readers. Missing or mistyped values fall back to the Java default, like Firebase does.
+
+    @Nullable
+    static String getString(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value == null ? null : value.toString();
+    }
+
+    static double getDouble(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0.0;
+    }
+
+    @Nullable
+    static Double getNullableDouble(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : null;
+    }
+
+    static long getLong(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    static boolean getBoolean(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Boolean && (Boolean) value;
+    }
+}
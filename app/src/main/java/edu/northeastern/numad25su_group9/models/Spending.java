@@ -4,19 +4,25 @@ import android.os.Parcel;
 import android.os.Parcelable;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import edu.northeastern.numad25su_group9.utils.DeviceZone;
+
 public class Spending implements Parcelable {
     private double amount;
     private String categoryName;
     // Stored as UNIX-based epoch time. Will format it when displaying on UI based on local time-zone.
     private long monthUtcTs;
+    // Calendar fields of monthUtcTs, recomputed only once it or the device zone changes.
+    @Nullable private transient volatile DateFields utcFields;
+    @Nullable private transient volatile DateFields localFields;
 
     // For firebase
     public Spending() {}
@@ -55,6 +61,20 @@ public class Spending implements Parcelable {
         return result;
     }
 
+    /**
+     * Deserialize from map. Reads the keys written by {@link #toMap()}.
+     */
+    public static Spending fromMap(Map<String, Object> map) {
+        Spending spending = new Spending();
+        spending.categoryName = ModelCodecs.getString(map, "categoryName");
+        spending.amount = ModelCodecs.getDouble(map, "amount");
+        // Nodes created through toMap() store the month under its old name.
+        spending.monthUtcTs = map.containsKey("monthUtcTs")
+                ? ModelCodecs.getLong(map, "monthUtcTs")
+                : ModelCodecs.getLong(map, "effectiveFromDate");
+        return spending;
+    }
+
     // Getters and setters
     public double getAmount() {
         return amount;
@@ -76,7 +96,7 @@ public class Spending implements Parcelable {
      * Returns the month as a {@link LocalDateTime} in the device's default time zone.
      */
     public LocalDateTime getMonthDateLocal() {
-        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(monthUtcTs), ZoneId.systemDefault())
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(monthUtcTs), DeviceZone.get())
                 .toLocalDateTime();
     }
 
@@ -85,7 +105,7 @@ public class Spending implements Parcelable {
      * Converts it internally to epoch milliseconds for Firebase storage.
      */
     public void setMonthDateLocal(LocalDateTime localDateTime) {
-        ZonedDateTime zoned = localDateTime.atZone(ZoneId.systemDefault());
+        ZonedDateTime zoned = localDateTime.atZone(DeviceZone.get());
         this.monthUtcTs = zoned.toInstant().toEpochMilli();
     }
 
@@ -93,7 +113,7 @@ public class Spending implements Parcelable {
      * Returns the month as a {@link LocalDateTime} in UTC.
      */
     public LocalDateTime getMonthDateUtc() {
-        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(monthUtcTs), ZoneId.of("UTC"))
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(monthUtcTs), ZoneOffset.UTC)
                 .toLocalDateTime();
     }
 
@@ -102,7 +122,7 @@ public class Spending implements Parcelable {
      * The value is converted to epoch milliseconds for Firebase storage.
      */
     public void setMonthDateUtc(LocalDateTime utcDateTime) {
-        this.monthUtcTs = utcDateTime.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+        this.monthUtcTs = utcDateTime.atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
     }
 
     /**
@@ -112,6 +132,27 @@ public class Spending implements Parcelable {
         return this.monthUtcTs;
     }
 
+    // Allocation-free calendar fields of the month, for bucketing loops.
+
+    public int getMonthYearLocal() { return localFields().year; }
+    /** Month in the device's time zone, 1-12. */
+    public int getMonthValueLocal() { return localFields().month; }
+    public int getMonthYearUtc() { return utcFields().year; }
+    /** Month in UTC, 1-12. */
+    public int getMonthValueUtc() { return utcFields().month; }
+
+    private DateFields localFields() {
+        DateFields fields = DateFields.local(localFields, monthUtcTs);
+        localFields = fields;
+        return fields;
+    }
+
+    private DateFields utcFields() {
+        DateFields fields = DateFields.utc(utcFields, monthUtcTs);
+        utcFields = fields;
+        return fields;
+    }
+
     /**
      * Sets the month for Firebase deserialization.
      */
@@ -132,12 +173,12 @@ public class Spending implements Parcelable {
 
         /** month from LocalDateTime in device zone. */
         public Builder setMonthDateLocal(LocalDateTime local) {
-            this.monthUtcTs = local.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.monthUtcTs = local.atZone(DeviceZone.get()).toInstant().toEpochMilli();
             return this;
         }
         /** month from LocalDateTime in UTC. */
         public Builder setMonthDateUtc(LocalDateTime utc) {
-            this.monthUtcTs = utc.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+            this.monthUtcTs = utc.atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
             return this;
         }
         /** month from epoch millis (UTC). */
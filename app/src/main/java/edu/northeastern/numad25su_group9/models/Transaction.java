@@ -11,11 +11,13 @@ import com.google.firebase.database.IgnoreExtraProperties;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.Map;
 
+import edu.northeastern.numad25su_group9.utils.DeviceZone;
+
 /**
  * Represents a transaction in the system.
  */
@@ -34,6 +36,9 @@ public class Transaction implements Parcelable {
     @Nullable private Double longitude;
     // Stored as UNIX-based epoch time. Will format it when displaying on UI based on local time-zone.
     private long transactionDate;
+    // Calendar fields of transactionDate, recomputed only once it or the device zone changes.
+    @Nullable private transient volatile DateFields utcFields;
+    @Nullable private transient volatile DateFields localFields;
 
     /** Required by Firebase */
     public Transaction() {}
@@ -122,6 +127,24 @@ public class Transaction implements Parcelable {
         return result;
     }
 
+    /**
+     * Deserialize from map. Reads the keys written by {@link #toMap()}.
+     */
+    public static Transaction fromMap(Map<String, Object> map) {
+        Transaction txn = new Transaction();
+        txn.categoryName = ModelCodecs.getString(map, "categoryName");
+        txn.description = ModelCodecs.getString(map, "description");
+        txn.amount = ModelCodecs.getDouble(map, "amount");
+        txn.ignore = ModelCodecs.getBoolean(map, "ignore");
+        txn.vendorId = ModelCodecs.getString(map, "vendorId");
+        txn.vendorName = ModelCodecs.getString(map, "vendorName");
+        txn.locationId = ModelCodecs.getString(map, "locationId");
+        txn.latitude = ModelCodecs.getNullableDouble(map, "latitude");
+        txn.longitude = ModelCodecs.getNullableDouble(map, "longitude");
+        txn.transactionDate = ModelCodecs.getLong(map, "transactionDate");
+        return txn;
+    }
+
     // Getters and Setters
     public String getTransactionId() {
         return transactionId;
@@ -162,7 +185,7 @@ public class Transaction implements Parcelable {
      * Returns the transaction date as a {@link LocalDateTime} in the device's default time zone.
      */
     public LocalDateTime getTransactionDateLocal() {
-        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(transactionDate), ZoneId.systemDefault())
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(transactionDate), DeviceZone.get())
                 .toLocalDateTime();
     }
 
@@ -171,7 +194,7 @@ public class Transaction implements Parcelable {
      * Converts it internally to epoch milliseconds for Firebase storage.
      */
     public void setTransactionDateLocal(LocalDateTime localDateTime) {
-        ZonedDateTime zoned = localDateTime.atZone(ZoneId.systemDefault());
+        ZonedDateTime zoned = localDateTime.atZone(DeviceZone.get());
         this.transactionDate = zoned.toInstant().toEpochMilli();
     }
 
@@ -179,7 +202,7 @@ public class Transaction implements Parcelable {
      * Returns the transaction date as a {@link LocalDateTime} in UTC.
      */
     public LocalDateTime getTransactionDateUtc() {
-        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(transactionDate), ZoneId.of("UTC"))
+        return ZonedDateTime.ofInstant(Instant.ofEpochMilli(transactionDate), ZoneOffset.UTC)
                 .toLocalDateTime();
     }
 
@@ -188,7 +211,7 @@ public class Transaction implements Parcelable {
      * The value is converted to epoch milliseconds for Firebase storage.
      */
     public void setTransactionDateUtc(LocalDateTime utcDateTime) {
-        this.transactionDate = utcDateTime.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+        this.transactionDate = utcDateTime.atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
     }
 
     /**
@@ -205,6 +228,36 @@ public class Transaction implements Parcelable {
         return transactionDate;
     }
 
+    // Allocation-free calendar fields of the transaction date, for sorting and bucketing loops.
+
+    /** Days since 1970-01-01 of the transaction date, in the device's time zone. */
+    @Exclude public long getTransactionEpochDayLocal() { return localFields().epochDay; }
+    @Exclude public int getTransactionYearLocal() { return localFields().year; }
+    /** Month of the transaction date in the device's time zone, 1-12. */
+    @Exclude public int getTransactionMonthLocal() { return localFields().month; }
+    @Exclude public int getTransactionDayOfMonthLocal() { return localFields().dayOfMonth; }
+
+    /** Days since 1970-01-01 of the transaction date, in UTC. */
+    @Exclude public long getTransactionEpochDayUtc() { return utcFields().epochDay; }
+    @Exclude public int getTransactionYearUtc() { return utcFields().year; }
+    /** Month of the transaction date in UTC, 1-12. */
+    @Exclude public int getTransactionMonthUtc() { return utcFields().month; }
+    @Exclude public int getTransactionDayOfMonthUtc() { return utcFields().dayOfMonth; }
+    /** Days since 1970-01-01 of the first day of the transaction's UTC month. */
+    @Exclude public long getTransactionMonthStartEpochDayUtc() { return utcFields().monthStartEpochDay(); }
+
+    private DateFields localFields() {
+        DateFields fields = DateFields.local(localFields, transactionDate);
+        localFields = fields;
+        return fields;
+    }
+
+    private DateFields utcFields() {
+        DateFields fields = DateFields.utc(utcFields, transactionDate);
+        utcFields = fields;
+        return fields;
+    }
+
     @NonNull
     @Override
     public String toString() {
@@ -252,11 +305,11 @@ public class Transaction implements Parcelable {
             return this;
         }
         public Builder setTransactionDateUtc(LocalDateTime utcDateTime) {
-            this.transactionDate = utcDateTime.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+            this.transactionDate = utcDateTime.atZone(ZoneOffset.UTC).toInstant().toEpochMilli();
             return this;
         }
         public Builder setTransactionDateLocal(LocalDateTime localDateTime) {
-            this.transactionDate = localDateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.transactionDate = localDateTime.atZone(DeviceZone.get()).toInstant().toEpochMilli();
             return this;
         }
 
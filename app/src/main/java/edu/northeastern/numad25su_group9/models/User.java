@@ -61,6 +61,19 @@ public class User implements Parcelable {
         return result;
     }
 
+    /**
+     * Deserialize from map. Reads the keys written by {@link #toMap()}.
+     */
+    public static User fromMap(Map<String, Object> map) {
+        User user = new User();
+        user.email = ModelCodecs.getString(map, "email");
+        user.displayName = ModelCodecs.getString(map, "displayName");
+        user.theme = Theme.fromString(ModelCodecs.getString(map, "theme"));
+        user.isAnonymous = ModelCodecs.getBoolean(map, "isAnonymous");
+        user.locationAlerts = ModelCodecs.getBoolean(map, "locationAlerts");
+        return user;
+    }
+
     // Getters and setters
     public String getEmail() {
         return email;
@@ -43,6 +43,17 @@ public class Vendor implements Parcelable {
         return result;
     }
 
+    /**
+     * Deserialize from map. Reads the keys written by {@link #toMap()}.
+     */
+    public static Vendor fromMap(Map<String, Object> map) {
+        Vendor vendor = new Vendor();
+        vendor.name = ModelCodecs.getString(map, "name");
+        vendor.categoryId = ModelCodecs.getString(map, "categoryId");
+        vendor.categoryName = ModelCodecs.getString(map, "categoryName");
+        return vendor;
+    }
+
     // Getters and Setters
     public String getName() {
         return name;
@@ -39,6 +39,16 @@ public class VendorLocation implements Parcelable {
         return result;
     }
 
+    /**
+     * Deserialize from map. Reads the keys written by {@link #toMap()}.
+     */
+    public static VendorLocation fromMap(Map<String, Object> map) {
+        VendorLocation location = new VendorLocation();
+        location.latitude = ModelCodecs.getDouble(map, "latitude");
+        location.longitude = ModelCodecs.getDouble(map, "longitude");
+        return location;
+    }
+
     // Getters and Setters
     public double getLatitude() {
         return latitude;
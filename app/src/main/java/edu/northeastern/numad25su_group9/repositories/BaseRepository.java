@@ -1,39 +1,161 @@
 package edu.northeastern.numad25su_group9.repositories;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseReference;
+import com.google.android.gms.tasks.Tasks;
 
 import java.util.Map;
+import java.util.function.Supplier;
+
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageProvider;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageQuery;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
 /**
  * Provides base functionality for all repositories.
+ * <p>
+ * All reads and writes go through a {@link StorageEngine}, rooted at {@code basePath}.
+ * Repositories constructed with a positive {@code cacheTtlMillis} serve repeated reads from
+ * the shared {@link RepositoryCache}; every write through this class invalidates it.
+ * Concurrent identical reads that miss the cache share one download. Observers drop the
+ * cached reads of what they observe on every event, so later reads agree with them.
+ * </p>
  */
 public abstract class BaseRepository {
     // TODO: Migrate to Firebase Firestore Database to enable advanced query capabilities.
-    protected final DatabaseReference ref;
+    protected final StorageEngine engine;
+    protected final String basePath;
+    private final long cacheTtlMillis;
+    private final RepositoryCache cache = RepositoryCache.getInstance();
+    // Shared by all instances, since services create their own repositories.
+    private static final SingleFlight<StorageSnapshot> READS = new SingleFlight<>();
+
+    public BaseRepository(String basePath) {
+        this(basePath, 0);
+    }
 
-    public BaseRepository(DatabaseReference ref) {
-        this.ref = ref;
+    public BaseRepository(String basePath, long cacheTtlMillis) {
+        this(StorageProvider.getEngine(), basePath, cacheTtlMillis);
+    }
+
+    public BaseRepository(StorageEngine engine, String basePath, long cacheTtlMillis) {
+        this.engine = engine;
+        this.basePath = basePath;
+        this.cacheTtlMillis = cacheTtlMillis;
     }
 
     protected Task<Void> set(String key, Map<String, Object> value) {
-        return ref.child(key).setValue(value);
+        String path = path(key);
+        return invalidating(path, engine.set(path, value));
     }
 
     protected Task<Void> update(String key, Map<String, Object> updates) {
-        return ref.child(key).updateChildren(updates);
+        String path = path(key);
+        return invalidating(path, engine.update(path, updates));
     }
 
     protected Task<Void> delete(String key) {
-        return ref.child(key).removeValue();
+        String path = path(key);
+        return invalidating(path, engine.delete(path));
     }
 
-    protected Task<DataSnapshot> get(String key) {
-        return ref.child(key).get();
+    protected Task<StorageSnapshot> get(String key) {
+        String path = path(key);
+        return cached(path, null, () -> engine.get(path));
     }
 
-    protected Task<DataSnapshot> getAll() {
-        return ref.get();
+    protected Task<StorageSnapshot> getAll() {
+        return cached(basePath, null, () -> engine.get(basePath));
+    }
+
+    protected Task<StorageSnapshot> query(StorageQuery query) {
+        return cached(basePath, query, () -> engine.query(basePath, query));
+    }
+
+    protected Task<StorageSnapshot> query(String key, StorageQuery query) {
+        String path = path(key);
+        return cached(path, query, () -> engine.query(path, query));
+    }
+
+    protected StorageEngine.Registration observeChildren(String key, @Nullable StorageQuery query,
+                                                         StorageEngine.ChildListener listener) {
+        String path = path(key);
+        return engine.observeChildren(path, query, new StorageEngine.ChildListener() {
+            @Override
+            public void onChildAdded(@NonNull StorageSnapshot child) {
+                cache.invalidate(path);
+                listener.onChildAdded(child);
+            }
+
+            @Override
+            public void onChildChanged(@NonNull StorageSnapshot child) {
+                cache.invalidate(path);
+                listener.onChildChanged(child);
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull StorageSnapshot child) {
+                cache.invalidate(path);
+                listener.onChildRemoved(child);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    protected StorageEngine.Registration observeValue(String key, @Nullable StorageQuery query,
+                                                      StorageEngine.ValueListener listener) {
+        String path = path(key);
+        return engine.observeValue(path, query, new StorageEngine.ValueListener() {
+            @Override
+            public void onValue(@NonNull StorageSnapshot snapshot) {
+                cache.invalidate(path);
+                listener.onValue(snapshot);
+            }
+
+            @Override
+            public void onError(@NonNull Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Resolves a key relative to this repository into a full storage path.
+     */
+    protected String path(String key) {
+        return key == null || key.isEmpty() ? basePath : basePath + "/" + key;
+    }
+
+    /**
+     * Drops cached reads touching {@code path} now and again once {@code write} completes.
+     * Use for writes that bypass {@link #set}, {@link #update} and {@link #delete}.
+     */
+    protected Task<Void> invalidating(String path, Task<Void> write) {
+        cache.invalidate(path);
+        return write.addOnCompleteListener(t -> cache.invalidate(path));
+    }
+
+    private Task<StorageSnapshot> cached(String path, @Nullable StorageQuery query,
+                                         Supplier<Task<StorageSnapshot>> loader) {
+        String cacheKey = RepositoryCache.key(path, query == null ? null : query.toString());
+        if (cacheTtlMillis > 0) {
+            StorageSnapshot hit = cache.get(cacheKey);
+            if (hit != null) return Tasks.forResult(hit);
+        }
+
+        // Keyed by generation so reads never join a download that started before a write.
+        long generation = cache.generation();
+        return READS.run(cacheKey + "#" + generation, () -> {
+            Task<StorageSnapshot> read = loader.get();
+            if (cacheTtlMillis <= 0) return read;
+            return read.addOnSuccessListener(snapshot -> cache.put(cacheKey, path, snapshot, cacheTtlMillis, generation));
+        });
     }
 }
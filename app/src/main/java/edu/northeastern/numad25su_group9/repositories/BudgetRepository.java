@@ -1,21 +1,25 @@
 package edu.northeastern.numad25su_group9.repositories;
 
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ServerValue;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import edu.northeastern.numad25su_group9.models.Budget;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageQuery;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 import edu.northeastern.numad25su_group9.utils.DateUtil;
 
 /**
  * Maintain the budgetId constraint here.
  */
 public class BudgetRepository extends BaseRepository {
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
     public BudgetRepository(String userId) {
-        super(FirebaseDatabase.getInstance().getReference("budgets").child(userId));
+        super("budgets/" + userId, CACHE_TTL_MS);
     }
 
     public Task<Void> addBudget(Budget budget) {
@@ -39,23 +43,32 @@ public class BudgetRepository extends BaseRepository {
         String budgetId = DateUtil.toDateKey(year, month);
         return delete(budgetId);
     }
-    public Task<DataSnapshot> getBudgetForMonth(int year, int month) {
+    public Task<StorageSnapshot> getBudgetForMonth(int year, int month) {
         String budgetId = DateUtil.toDateKey(year, month);
         return get(budgetId);
     }
-    public Task<DataSnapshot> getAllBudgets() { return getAll(); }
+    public Task<StorageSnapshot> getAllBudgets() { return getAll(); }
+
+    public Task<StorageSnapshot> getBudgetsByDateRange(long startMillis, long endMillis) {
+        return query(StorageQuery.orderByChild("monthUtcTs")
+                .startAt(startMillis)
+                .endAt(endMillis));
+    }
+
+    public StorageEngine.Registration observeBudgetForMonth(int year, int month, StorageEngine.ValueListener listener) {
+        return observeValue(DateUtil.toDateKey(year, month), null, listener);
+    }
 
-    public Task<DataSnapshot> getBudgetsByDateRange(long startMillis, long endMillis) {
-        return ref.orderByChild("monthUtcTs")
+    public StorageEngine.Registration observeBudgetsByDateRange(long startMillis, long endMillis,
+                                                                StorageEngine.ValueListener listener) {
+        return observeValue(null, StorageQuery.orderByChild("monthUtcTs")
                 .startAt(startMillis)
-                .endAt(endMillis)
-                .get();
+                .endAt(endMillis), listener);
     }
 
-    public Task<DataSnapshot> getLatestBudget() {
-        return ref.orderByChild("monthUtcTs")
-                .limitToLast(1)
-                .get();
+    public Task<StorageSnapshot> getLatestBudget() {
+        return query(StorageQuery.orderByChild("monthUtcTs")
+                .limitToLast(1));
     }
 
     /**
@@ -1,17 +1,19 @@
 package edu.northeastern.numad25su_group9.repositories;
 
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ServerValue;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import edu.northeastern.numad25su_group9.models.Category;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
 public class CategoryRepository extends BaseRepository {
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
     public CategoryRepository(String userId) {
-        super(FirebaseDatabase.getInstance().getReference("userCategories").child(userId));
+        super("userCategories/" + userId, CACHE_TTL_MS);
     }
 
     public Task<Void> addCategory(Category category) {
@@ -27,5 +29,5 @@ public class CategoryRepository extends BaseRepository {
         return delete(categoryId);
     }
 
-    public Task<DataSnapshot> getAllCategories() { return getAll(); }
+    public Task<StorageSnapshot> getAllCategories() { return getAll(); }
 }
@@ -0,0 +1,75 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+import edu.northeastern.numad25su_group9.utils.DateUtil;
+
+/**
+ * Per-day spending totals, at {@code dailySpendings/{uid}/{yyyyMM}/{dd}}.
+ * <p>
+ * Days are UTC, like the months of {@link SpendingRepository}, so a month's daily totals add
+ * up to its spendings. Day keys are zero-padded so Firebase never turns a month into an array.
+ * </p>
+ */
+public class DailySpendingRepository extends BaseRepository {
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    public DailySpendingRepository(String userId) {
+        super("dailySpendings/" + userId, CACHE_TTL_MS);
+    }
+
+    /**
+     * Stages adding {@code delta} to the total of a UTC day, given as days since 1970-01-01,
+     * e.g. {@link edu.northeastern.numad25su_group9.models.Transaction#getTransactionEpochDayUtc()}.
+     */
+    public void incrementDailyAmount(long epochDayUtc, double delta, WriteBatch batch) {
+        LocalDate date = LocalDate.ofEpochDay(epochDayUtc);
+        String dateKey = String.valueOf(date.getYear() * 100 + date.getMonthValue());
+        incrementDailyAmount(dateKey, date.getDayOfMonth(), delta, batch);
+    }
+
+    /**
+     * Stages adding {@code delta} to the total of {@code day} in the month {@code dateKey}.
+     */
+    public void incrementDailyAmount(String dateKey, int day, double delta, WriteBatch batch) {
+        batch.increment(path(dateKey + "/" + toDayKey(day)), delta);
+    }
+
+    /**
+     * @return {@link Task} containing the month's daily totals, keyed by {@link #toDayKey(int)}
+     */
+    public Task<StorageSnapshot> getDailySpendingsForMonth(int year, int month) {
+        String dateKey = DateUtil.toDateKey(year, month);
+
+        if (dateKey == null) {
+            TaskCompletionSource<StorageSnapshot> tcs = new TaskCompletionSource<>();
+            tcs.setException(new IllegalArgumentException("Invalid date"));
+            return tcs.getTask();
+        }
+        return get(dateKey);
+    }
+
+    public StorageEngine.Registration observeDailySpendingsForMonth(int year, int month, StorageEngine.ValueListener listener) {
+        return observeValue(DateUtil.toDateKey(year, month), null, listener);
+    }
+
+    /**
+     * Reads a month of daily totals straight from storage, bypassing the read cache.
+     *
+     * @param dateKey The yyyyMM key of the month
+     */
+    public Task<StorageSnapshot> fetchDailySpendingsForMonth(String dateKey) {
+        return engine.get(path(dateKey));
+    }
+
+    public static String toDayKey(int day) {
+        return String.format(Locale.US, "%02d", day);
+    }
+}
@@ -0,0 +1,28 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.database.ServerValue;
+
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+/**
+ * Records which data migrations have completed for a user, at {@code migrations/{uid}/{name}}.
+ */
+public class MigrationRepository extends BaseRepository {
+
+    public MigrationRepository(String userId) {
+        super("migrations/" + userId);
+    }
+
+    /**
+     * @return {@link Task} containing the completion timestamps keyed by migration name
+     */
+    public Task<StorageSnapshot> getCompleted() {
+        return getAll();
+    }
+
+    public Task<Void> markCompleted(String name) {
+        String migrationPath = path(name);
+        return invalidating(migrationPath, engine.set(migrationPath, ServerValue.TIMESTAMP));
+    }
+}
@@ -0,0 +1,169 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+/**
+ * Process-wide, size-bounded LRU cache of repository reads.
+ * <p>
+ * Entries are keyed by storage path plus query and weighted by their number of direct
+ * children, so one large listing counts for as much as many small nodes. Each entry expires
+ * after the TTL of the repository that loaded it. Any write to a path drops every entry on
+ * that path, above it or below it.
+ * </p>
+ * <p>
+ * A read that races with a write must not repopulate the cache with pre-write data, so
+ * {@link #put} is rejected if any invalidation happened after the read began
+ * (see {@link #generation()}).
+ * </p>
+ */
+public final class RepositoryCache {
+    /** Upper bound on the summed weight of all entries. */
+    private static final long MAX_WEIGHT = 20_000;
+
+    private static final RepositoryCache INSTANCE = new RepositoryCache(MAX_WEIGHT);
+
+    private static final class Entry {
+        final String path;
+        final StorageSnapshot snapshot;
+        final long weight;
+        final long expiresAtNanos;
+
+        Entry(String path, StorageSnapshot snapshot, long weight, long expiresAtNanos) {
+            this.path = path;
+            this.snapshot = snapshot;
+            this.weight = weight;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final long maxWeight;
+    // Access-ordered, so iteration starts at the least recently used entry.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long weight;
+    private long generation;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    RepositoryCache(long maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public static RepositoryCache getInstance() {
+        return INSTANCE;
+    }
+
+    static String key(String path, @Nullable String query) {
+        return query == null ? path : path + "?" + query;
+    }
+
+    /**
+     * @return The cached snapshot, or {@code null} if absent or expired
+     */
+    @Nullable
+    synchronized StorageSnapshot get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAtNanos > 0) {
+            remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.snapshot;
+    }
+
+    /**
+     * Caches a snapshot read at {@code readGeneration}, unless a write happened since.
+     */
+    synchronized void put(String key, String path, StorageSnapshot snapshot, long ttlMillis, long readGeneration) {
+        if (readGeneration != generation) return;
+
+        remove(key);
+        Entry entry = new Entry(path, snapshot, 1 + snapshot.getChildrenCount(),
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+        if (entry.weight > maxWeight) return;
+
+        entries.put(key, entry);
+        weight += entry.weight;
+
+        Iterator<Entry> it = entries.values().iterator();
+        while (weight > maxWeight && it.hasNext()) {
+            weight -= it.next().weight;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Drops every entry whose path is {@code path}, one of its ancestors or descendants.
+     */
+    public synchronized void invalidate(@NonNull String path) {
+        generation++;
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (isRelated(entry.path, path)) {
+                weight -= entry.weight;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops everything, e.g. when the user signs out.
+     */
+    public synchronized void clear() {
+        generation++;
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * Write counter. Capture it before starting a read and pass it to {@link #put}.
+     */
+    synchronized long generation() {
+        return generation;
+    }
+
+    public synchronized long getHitCount() { return hits; }
+    public synchronized long getMissCount() { return misses; }
+    public synchronized long getEvictionCount() { return evictions; }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        long lookups = hits + misses;
+        return String.format(Locale.US, "RepositoryCache{entries=%d, weight=%d/%d, hits=%d, misses=%d, hitRate=%.2f, evictions=%d}",
+                entries.size(), weight, maxWeight, hits, misses,
+                lookups == 0 ? 0.0 : (double) hits / lookups, evictions);
+    }
+
+    private void remove(String key) {
+        Entry old = entries.remove(key);
+        if (old != null) weight -= old.weight;
+    }
+
+    private static boolean isRelated(String a, String b) {
+        return a.equals(b) || isAncestor(a, b) || isAncestor(b, a);
+    }
+
+    private static boolean isAncestor(String ancestor, String path) {
+        return ancestor.isEmpty()
+                || (path.startsWith(ancestor) && path.length() > ancestor.length()
+                && path.charAt(ancestor.length()) == '/');
+    }
+}
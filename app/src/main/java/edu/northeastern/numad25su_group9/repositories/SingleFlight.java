@@ -0,0 +1,56 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent loads.
+ * <p>
+ * While a load for a key is in flight, every further request for that key gets the same
+ * {@link Task} instead of starting another one. The key is forgotten as soon as the load
+ * completes, so this never serves old results; callers that must not join a load started
+ * before one of their writes should fold a write counter into the key.
+ * </p>
+ *
+ * @param <T> Result type of the load
+ */
+public final class SingleFlight<T> {
+    private final Map<String, Task<T>> inFlight = new HashMap<>();
+    private long joined;
+
+    /**
+     * @return The in-flight load for {@code key}, or a new one started with {@code loader}
+     */
+    public synchronized Task<T> run(@NonNull String key, @NonNull Supplier<Task<T>> loader) {
+        Task<T> task = inFlight.get(key);
+        if (task != null) {
+            joined++;
+            return task;
+        }
+
+        task = loader.get();
+        if (task.isComplete()) return task;
+
+        inFlight.put(key, task);
+        Task<T> started = task;
+        // Run inline so the key is released before anyone else can observe the result.
+        task.addOnCompleteListener(Runnable::run, t -> {
+            synchronized (this) {
+                if (inFlight.get(key) == started) inFlight.remove(key);
+            }
+        });
+        return task;
+    }
+
+    /**
+     * @return How many requests were served by joining a load already in flight
+     */
+    public synchronized long getJoinedCount() {
+        return joined;
+    }
+}
@@ -1,30 +1,42 @@
 package edu.northeastern.numad25su_group9.repositories;
 
-import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.TaskCompletionSource;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.DatabaseError;
-import com.google.firebase.database.DatabaseReference;
-import com.google.firebase.database.FirebaseDatabase;
-import com.google.firebase.database.MutableData;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.database.ServerValue;
-import com.google.firebase.database.Transaction;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import edu.northeastern.numad25su_group9.models.Spending;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageQuery;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 import edu.northeastern.numad25su_group9.services.CategoryService;
 import edu.northeastern.numad25su_group9.utils.DateUtil;
 
 /**
  * Maintain the spendingId constraint here.
+ * <p>
+ * Increments also keep the month totals in {@link YearlySpendingRepository} up to date.
+ * {@link #addSpending}, {@link #updateSpending} and {@link #deleteSpending} write amounts
+ * directly and leave them to the spending repair job.
+ * </p>
  */
 public class SpendingRepository extends BaseRepository {
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+    // Firebase has no keys-only read, so month listings download this many months per round trip.
+    private static final int MONTHS_PER_KEY_READ = 12;
+
+    private final YearlySpendingRepository yearly;
+
     public SpendingRepository(String userId) {
-        super(FirebaseDatabase.getInstance().getReference("spendings").child(userId));
+        super("spendings/" + userId, CACHE_TTL_MS);
+        this.yearly = new YearlySpendingRepository(userId);
     }
 
     public Task<Void> addSpending(Spending spending) {
@@ -40,7 +52,7 @@ public class SpendingRepository extends BaseRepository {
             return tcs.getTask();
         }
 
-        return ref.child(dateKey).child(categoryId).setValue(map);
+        return set(dateKey + "/" + categoryId, map);
     }
 
     public Task<Void> updateSpending(Spending spending) {
@@ -55,7 +67,7 @@ public class SpendingRepository extends BaseRepository {
             return tcs.getTask();
         }
 
-        return ref.child(dateKey).child(categoryId).updateChildren(map);
+        return update(dateKey + "/" + categoryId, map);
     }
 
     public Task<Void> deleteSpending(int year, int month, String categoryId) {
@@ -66,26 +78,68 @@ public class SpendingRepository extends BaseRepository {
             tcs.setException(new IllegalArgumentException("Invalid category or date"));
             return tcs.getTask();
         }
-        return ref.child(dateKey).child(categoryId).removeValue();
+        return delete(dateKey + "/" + categoryId);
     }
 
-    public Task<DataSnapshot> getSpendingsForMonth(int year, int month) {
+    public Task<StorageSnapshot> getSpendingsForMonth(int year, int month) {
         String dateKey = DateUtil.toDateKey(year, month);
 
         if (dateKey == null) {
-            TaskCompletionSource<DataSnapshot> tcs = new TaskCompletionSource<>();
+            TaskCompletionSource<StorageSnapshot> tcs = new TaskCompletionSource<>();
             tcs.setException(new IllegalArgumentException("Invalid date"));
             return tcs.getTask();
         }
         return get(dateKey);
     }
 
-    public Task<DataSnapshot> getSpendingsForYear(int year) {
+    public StorageEngine.Registration observeSpendingsForMonth(int year, int month, StorageEngine.ValueListener listener) {
+        return observeValue(DateUtil.toDateKey(year, month), null, listener);
+    }
+
+    public Task<StorageSnapshot> getSpendingsForYear(int year) {
         String startKey = DateUtil.toDateKey(year, 1);
         // Use a string that is one character past the last valid key for the year
         String endKey = DateUtil.toDateKey(year, 12);
 
-        return ref.orderByKey().startAt(startKey).endAt(endKey).get();
+        return query(StorageQuery.orderByKey().startAt(startKey).endAt(endKey));
+    }
+
+    /**
+     * Lists the months that have spendings, straight from storage. Months are read in key order
+     * {@link #MONTHS_PER_KEY_READ} at a time, so at most that many are held at once.
+     *
+     * @return {@link Task} containing the yyyyMM keys in ascending order
+     */
+    public Task<List<String>> fetchMonthKeys() {
+        return fetchMonthKeys(null, new ArrayList<>());
+    }
+
+    private Task<List<String>> fetchMonthKeys(@Nullable String after, List<String> monthKeys) {
+        StorageQuery query = StorageQuery.orderByKey();
+        if (after != null) {
+            query.startAfter(after);
+        }
+        return engine.query(basePath, query.limitToFirst(MONTHS_PER_KEY_READ)).onSuccessTask(months -> {
+            String last = null;
+            int count = 0;
+            for (StorageSnapshot month : months.getChildren()) {
+                last = month.getKey();
+                monthKeys.add(last);
+                count++;
+            }
+            if (count < MONTHS_PER_KEY_READ) return Tasks.forResult(monthKeys);
+            return fetchMonthKeys(last, monthKeys);
+        });
+    }
+
+    /**
+     * Reads a month of spendings straight from storage, bypassing the read cache, for checks
+     * that must see the current value.
+     *
+     * @param dateKey The yyyyMM key of the month
+     */
+    public Task<StorageSnapshot> fetchSpendingsForMonth(String dateKey) {
+        return engine.get(path(dateKey));
     }
 
     /**
@@ -93,64 +147,31 @@ public class SpendingRepository extends BaseRepository {
      * creating the node if it doesn't exist.
      */
     public Task<Void> incrementSpendingAmount(Spending spending, double delta) {
-        @NonNull final String dateKey = getDateKey(spending);    
-        @NonNull final String categoryName = spending.getCategoryName();
-        final long monthUtcTs = spending.getMonthUtcTs();
+        WriteBatch batch = new WriteBatch(engine);
+        incrementSpendingAmount(spending, delta, batch);
+        return batch.commit();
+    }
 
-        String categoryId = CategoryService.getCategoryIdFromName(categoryName);
+    /**
+     * Stages an increment of the spending amount for a given month/category, and of the
+     * month's total in {@code spendingYearly}, in {@code batch}.
+     * Uses a server-side increment, so no read is needed and concurrent writers never conflict.
+     */
+    public void incrementSpendingAmount(Spending spending, double delta, WriteBatch batch) {
+        String dateKey = getDateKey(spending);
+        String categoryId = CategoryService.getCategoryIdFromName(spending.getCategoryName());
         if (dateKey == null || categoryId == null) {
-            TaskCompletionSource<Void> tcs = new TaskCompletionSource<>();
-            tcs.setException(new IllegalArgumentException("Category name or date is null"));
-            return tcs.getTask();
+            batch.fail(new IllegalArgumentException("Category name or date is null"));
+            return;
         }
 
-        final DatabaseReference categoryRef = ref.child(dateKey).child(categoryId);
-        final TaskCompletionSource<Void> tcs = new TaskCompletionSource<>();
-
-        categoryRef.runTransaction(new Transaction.Handler() {
-            @NonNull
-            @Override
-            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
-                Object raw = currentData.getValue();
-                Map<String, Object> cur;
-
-                // Spending does not exist. Create new entry.
-                if (raw == null) {
-                    cur = new HashMap<>();
-                    cur.put("categoryName", categoryName);
-                    cur.put("monthUtcTs", monthUtcTs);
-                    cur.put("amount", delta);
-                    cur.put("createdAt", ServerValue.TIMESTAMP);
-                    cur.put("updatedAt", ServerValue.TIMESTAMP);
-                } else {
-                    //noinspection unchecked
-                    cur = (Map<String, Object>) raw;
-                    Object updatedAmountObj = cur.get("amount");
-                    double updatedAmount = (updatedAmountObj instanceof Number) ?
-                            ((Number) updatedAmountObj).doubleValue() : 0.0;
-                    updatedAmount += delta;
-
-                    cur.put("amount", updatedAmount);
-                    cur.put("updatedAt", ServerValue.TIMESTAMP);
-                }
-
-                currentData.setValue(cur);
-                return Transaction.success(currentData);
-            }
-
-            @Override
-            public void onComplete(DatabaseError error, boolean committed, DataSnapshot snapshot) {
-                if (error != null) {
-                    tcs.setException(error.toException());
-                } else if (!committed) {
-                    tcs.setException(new IllegalStateException("Increment not committed"));
-                } else {
-                    tcs.setResult(null);
-                }
-            }
-        });
-
-        return tcs.getTask();
+        String spendingPath = path(dateKey + "/" + categoryId);
+        batch.increment(spendingPath + "/amount", delta);
+        // Idempotent, so these also create the node on first use.
+        batch.set(spendingPath + "/categoryName", spending.getCategoryName());
+        batch.set(spendingPath + "/monthUtcTs", spending.getMonthUtcTs());
+        batch.set(spendingPath + "/updatedAt", ServerValue.TIMESTAMP);
+        yearly.incrementMonthlyAmount(dateKey, delta, batch);
     }
 
     private String getDateKey(Spending Spending) {
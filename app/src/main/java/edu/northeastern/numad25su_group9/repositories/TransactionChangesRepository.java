@@ -0,0 +1,84 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.ServerValue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageQuery;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+/**
+ * Change log of transactions, stored at {@code transactionChanges/{uid}/{transactionId}}.
+ * <p>
+ * Every write records {@code updatedAt} and whether the transaction was deleted, in the same
+ * {@link WriteBatch} as the write itself. Sync clients read the log with one indexed query
+ * regardless of how transactions are laid out, and see deletes as tombstones.
+ * </p>
+ * <p>
+ * The queries order by {@code updatedAt}, so the database rules need
+ * {@code "transactionChanges": {"$uid": {".indexOn": "updatedAt"}}}. Without the index the
+ * whole log is downloaded and filtered on the client. Entries are only needed by clients
+ * that synced recently, so old ones are dropped with {@link #pruneBefore(long)}.
+ * </p>
+ */
+public class TransactionChangesRepository extends BaseRepository {
+
+    public TransactionChangesRepository(String userId) {
+        super("transactionChanges/" + userId);
+    }
+
+    /**
+     * Stages a log entry for {@code transactionId} in {@code batch}.
+     */
+    public void record(String transactionId, boolean deleted, WriteBatch batch) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("updatedAt", ServerValue.TIMESTAMP);
+        entry.put("deleted", deleted);
+        batch.set(path(transactionId), entry);
+    }
+
+    /**
+     * Retrieves log entries written at or after the given server timestamp.
+     * Inclusive so that entries sharing the cursor timestamp are not skipped.
+     *
+     * @param updatedAtMillis The {@code updatedAt} cursor from the previous sync
+     * @return {@link Task} containing a {@link StorageSnapshot} keyed by transactionId
+     */
+    public Task<StorageSnapshot> getChangesSince(long updatedAtMillis) {
+        return query(StorageQuery.orderByChild("updatedAt")
+                .startAt(updatedAtMillis));
+    }
+
+    /**
+     * Deletes log entries written before the given server timestamp.
+     *
+     * @param updatedAtMillis Entries with an older {@code updatedAt} are deleted
+     * @return {@link Task} containing the number of entries deleted
+     */
+    public Task<Integer> pruneBefore(long updatedAtMillis) {
+        return query(StorageQuery.orderByChild("updatedAt")
+                .endBefore(updatedAtMillis)).onSuccessTask(old -> {
+            WriteBatch batch = new WriteBatch(engine);
+            int count = 0;
+            for (StorageSnapshot entry : old.getChildren()) {
+                batch.delete(path(entry.getKey()));
+                count++;
+            }
+            int pruned = count;
+            return batch.commit().onSuccessTask(unused -> Tasks.forResult(pruned));
+        });
+    }
+
+    /**
+     * Observes log entries written at or after the given server timestamp. Entries written
+     * later arrive as added, or as changed when they were already in range.
+     */
+    public StorageEngine.Registration observeChangesSince(long updatedAtMillis, StorageEngine.ChildListener listener) {
+        return observeChildren(null, StorageQuery.orderByChild("updatedAt")
+                .startAt(updatedAtMillis), listener);
+    }
+}
@@ -0,0 +1,41 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import com.google.android.gms.tasks.Task;
+
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+/**
+ * Manifest of the month buckets that hold transactions,
+ * stored at {@code transactionMonths/{uid}/{yyyyMM}}.
+ * <p>
+ * Only used by the {@link TransactionRepository.Layout#MONTHLY} layout, so listings can visit
+ * exactly the buckets that exist. Months are added, never removed, so a listed bucket may be
+ * empty but an unlisted one never holds data.
+ * </p>
+ * <p>
+ * Not cached here: range and page reads trust the manifest, so a month added from another
+ * device must show up right away. The node is kept synced by
+ * {@link edu.northeastern.numad25su_group9.repositories.storage.FirebasePersistence} instead,
+ * which answers reads locally while staying current.
+ * </p>
+ */
+public class TransactionMonthsRepository extends BaseRepository {
+
+    public TransactionMonthsRepository(String userId) {
+        super("transactionMonths/" + userId);
+    }
+
+    /**
+     * Stages the registration of {@code monthKey} in {@code batch}. Idempotent.
+     */
+    public void add(String monthKey, WriteBatch batch) {
+        batch.set(path(monthKey), true);
+    }
+
+    /**
+     * @return {@link Task} containing a {@link StorageSnapshot} whose child keys are the months
+     */
+    public Task<StorageSnapshot> getMonths() {
+        return getAll();
+    }
+}
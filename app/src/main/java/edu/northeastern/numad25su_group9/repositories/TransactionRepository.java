@@ -1,14 +1,30 @@
 package edu.northeastern.numad25su_group9.repositories;
 
+import androidx.annotation.Nullable;
+
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.TaskCompletionSource;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.FirebaseDatabase;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.database.ServerValue;
 
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 
 import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.storage.CompositeSnapshot;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageQuery;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+import edu.northeastern.numad25su_group9.utils.DateUtil;
+import edu.northeastern.numad25su_group9.utils.PushIdUtil;
 
 /**
  * Repository for accessing transactions.
@@ -16,107 +32,542 @@ import edu.northeastern.numad25su_group9.models.Transaction;
  * This class is responsible only for interacting with the database and
  * returning raw {@link Task} objects.
  * </p>
+ * <p>
+ * Transactions are stored either flat or in month buckets (see {@link Layout}). In the
+ * bucketed layout, reads also pick up transactions still stored flat, so the app keeps
+ * working while {@link #migrateToMonthBuckets()} moves them.
+ * </p>
  */
 public class TransactionRepository extends BaseRepository {
 
+    /**
+     * How transactions are laid out under {@code transactions/{uid}}.
+     */
+    public enum Layout {
+        /** {@code transactions/{uid}/{transactionId}} */
+        FLAT,
+        /** {@code transactions/{uid}/{yyyyMM}/{transactionId}}, bucketed by transaction date in UTC */
+        MONTHLY
+    }
+
+    private static volatile Layout defaultLayout = Layout.FLAT;
+    // Month buckets read in parallel per round trip when filling a page.
+    private static final int PAGE_MONTH_READS = 4;
+
+    private final Layout layout;
+    private final TransactionsByCategoryRepository categoryIndex;
+    private final TransactionChangesRepository changes;
+    private final TransactionMonthsRepository months;
+
     /**
      * Constructs a TransactionRepository for a specific user.
      *
      * @param userId The fireBase UUID of the user.
      */
     public TransactionRepository(String userId) {
-        super(FirebaseDatabase.getInstance().getReference("transactions").child(userId));
+        super("transactions/" + userId);
+        this.layout = defaultLayout;
+        this.categoryIndex = new TransactionsByCategoryRepository(userId);
+        this.changes = new TransactionChangesRepository(userId);
+        this.months = new TransactionMonthsRepository(userId);
     }
 
     /**
-     * Adds a new transaction to Firebase.
+     * Sets the layout used by repositories created afterwards.
+     */
+    public static void setDefaultLayout(Layout layout) {
+        defaultLayout = layout;
+    }
+
+    public static Layout getDefaultLayout() {
+        return defaultLayout;
+    }
+
+    /**
+     * Adds a new transaction to Firebase and assigns its key to {@code txn}.
      *
      * @param txn           The {@link Transaction} object to be stored
      * @return {@link Task} representing the asynchronous write operation
      */
     public Task<Void> addTransaction(Transaction txn) {
-        Map<String, Object> map = txn.toMap();
-        map.put("createdAt", ServerValue.TIMESTAMP);
-        map.put("updatedAt", ServerValue.TIMESTAMP);
-
-        String transactionId = String.valueOf(txn.getTransactionDate());
-        if (transactionId == null) {
-            TaskCompletionSource<Void> tcs = new TaskCompletionSource<>();
-            tcs.setException(new IllegalArgumentException("Transaction date is null"));
-            return tcs.getTask();
-        }
-        return set(transactionId, map);
+        WriteBatch batch = new WriteBatch(engine);
+        addTransaction(txn, batch);
+        return batch.commit();
     }
 
     /**
      * Updates an existing transaction in Firebase.
      *
-     * @param txn           The updated {@link Transaction} object
+     * @param txn           The updated {@link Transaction} object, with its transactionId set
+     * @param stored        The stored node before the update, as read by {@link #getTransactionById(String)}
      * @return {@link Task} representing the asynchronous update operation
      */
-    public Task<Void> updateTransaction(Transaction txn) {
+    public Task<Void> updateTransaction(Transaction txn, @Nullable StorageSnapshot stored) {
+        WriteBatch batch = new WriteBatch(engine);
+        updateTransaction(txn, stored, batch);
+        return batch.commit();
+    }
+
+    /**
+     * Deletes a transaction from Firebase.
+     *
+     * @param transactionId The ID of the transaction to delete
+     * @param existing      The stored copy, used to remove its category index entry
+     * @return {@link Task} representing the asynchronous delete operation
+     */
+    public Task<Void> deleteTransaction(String transactionId, @Nullable Transaction existing) {
+        WriteBatch batch = new WriteBatch(engine);
+        deleteTransaction(transactionId, existing, batch);
+        return batch.commit();
+    }
+
+    /**
+     * Stages a new transaction and its category index entry in {@code batch}
+     * and assigns its key to {@code txn}.
+     *
+     * @param txn           The {@link Transaction} object to be stored
+     * @param batch         The {@link WriteBatch} to add the write to
+     */
+    public void addTransaction(Transaction txn, WriteBatch batch) {
         Map<String, Object> map = txn.toMap();
+        map.put("createdAt", ServerValue.TIMESTAMP);
         map.put("updatedAt", ServerValue.TIMESTAMP);
 
-        String transactionId = String.valueOf(txn.getTransactionDate());
+        String transactionId = PushIdUtil.generate(txn.getTransactionDate());
+        txn.setTransactionId(transactionId);
+        batch.set(path(locate(transactionId)), map);
+        categoryIndex.put(txn, null, batch);
+        changes.record(transactionId, false, batch);
+        if (layout == Layout.MONTHLY) {
+            months.add(monthKeyOf(transactionId), batch);
+        }
+    }
+
+    /**
+     * Stages an update of an existing transaction and its category index entry in {@code batch}.
+     * Fields are written individually so that {@code createdAt} is preserved.
+     * <p>
+     * In the bucketed layout the stored node is instead rewritten whole, with the updated
+     * fields merged in, so a transaction still stored flat moves to its bucket with its
+     * {@code createdAt}. Keys are ordered by transaction date, so if the date changed the
+     * transaction is moved to a new key, which is assigned to {@code txn}; {@code createdAt}
+     * restarts in that case.
+     * </p>
+     *
+     * @param txn           The updated {@link Transaction} object, with its transactionId set
+     * @param stored        The stored node before the update, as read by {@link #getTransactionById(String)};
+     *                      its value is used to move the category index entry
+     * @param batch         The {@link WriteBatch} to add the write to
+     */
+    public void updateTransaction(Transaction txn, @Nullable StorageSnapshot stored, WriteBatch batch) {
+        String transactionId = txn.getTransactionId();
         if (transactionId == null) {
-            TaskCompletionSource<Void> tcs = new TaskCompletionSource<>();
-            tcs.setException(new IllegalArgumentException("Transaction date is null"));
-            return tcs.getTask();
+            batch.fail(new IllegalArgumentException("Transaction Id is null"));
+            return;
+        }
+
+        Transaction previous = stored == null ? null : stored.getValue(Transaction.class);
+        if (previous != null && previous.getTransactionDate() != txn.getTransactionDate()) {
+            deleteTransaction(transactionId, previous, batch);
+            addTransaction(txn, batch);
+            return;
         }
 
-        return set(transactionId, map);
+        String location = locate(transactionId);
+        Map<String, Object> map = txn.toMap();
+        map.put("updatedAt", ServerValue.TIMESTAMP);
+        Object raw = stored == null ? null : stored.getValue();
+        if (!location.equals(transactionId) && raw instanceof Map) {
+            // The node may not be migrated yet: write it whole to the bucket, drop the flat copy.
+            //noinspection unchecked
+            Map<String, Object> node = new HashMap<>((Map<String, Object>) raw);
+            node.putAll(map);
+            batch.set(path(location), node);
+            batch.delete(path(transactionId));
+            months.add(monthKeyOf(transactionId), batch);
+        } else {
+            for (Map.Entry<String, Object> field : map.entrySet()) {
+                batch.set(path(location + "/" + field.getKey()), field.getValue());
+            }
+        }
+        categoryIndex.put(txn, previous, batch);
+        changes.record(transactionId, false, batch);
     }
 
     /**
-     * Deletes a transaction from Firebase.
+     * Stages the deletion of a transaction and its category index entry in {@code batch}.
      *
      * @param transactionId The ID of the transaction to delete
-     * @return {@link Task} representing the asynchronous delete operation
+     * @param existing      The stored copy, used to remove its category index entry
+     * @param batch         The {@link WriteBatch} to add the write to
      */
-    public Task<Void> deleteTransaction(String transactionId) {
+    public void deleteTransaction(String transactionId, @Nullable Transaction existing, WriteBatch batch) {
         if (transactionId == null) {
-            TaskCompletionSource<Void> tcs = new TaskCompletionSource<>();
-            tcs.setException(new IllegalArgumentException("Transaction Id is null"));
-            return tcs.getTask();
+            batch.fail(new IllegalArgumentException("Transaction Id is null"));
+            return;
         }
-        return delete(transactionId);
+        String location = locate(transactionId);
+        batch.delete(path(location));
+        if (!location.equals(transactionId)) {
+            batch.delete(path(transactionId));
+        }
+        categoryIndex.remove(transactionId, existing, batch);
+        changes.record(transactionId, true, batch);
     }
 
     /**
      * Retrieves a single transaction by its ID from Firebase.
      *
      * @param transactionId The ID of the transaction to retrieve
-     * @return {@link Task} containing a {@link DataSnapshot} of the transaction
+     * @return {@link Task} containing a {@link StorageSnapshot} of the transaction
      */
-    public Task<DataSnapshot> getTransactionById(String transactionId) {
+    public Task<StorageSnapshot> getTransactionById(String transactionId) {
         if (transactionId == null) {
-            TaskCompletionSource<DataSnapshot> tcs = new TaskCompletionSource<>();
+            TaskCompletionSource<StorageSnapshot> tcs = new TaskCompletionSource<>();
             tcs.setException(new IllegalArgumentException("Transaction date is null"));
             return tcs.getTask();
         }
-        return get(transactionId);
+
+        String location = locate(transactionId);
+        if (location.equals(transactionId)) return get(transactionId);
+        // Fall back to the flat copy of a transaction that was not migrated yet.
+        return get(location).continueWithTask(task ->
+                task.isSuccessful() && task.getResult().exists() ? task : get(transactionId));
     }
 
     /**
      * Retrieves all transactions for the current user from Firebase.
      *
-     * @return {@link Task} containing a {@link DataSnapshot} of all transactions
+     * @return {@link Task} containing a {@link StorageSnapshot} of all transactions
+     */
+    public Task<StorageSnapshot> getAllTransactions() {
+        if (layout == Layout.FLAT) return getAll();
+        return getAll().onSuccessTask(root -> Tasks.forResult(flatten(root)));
+    }
+
+    /**
+     * Retrieves all transactions in a category from the category index.
+     *
+     * @param categoryId    The category ID, i.e. the lower-cased category name
+     * @return {@link Task} containing a {@link StorageSnapshot} keyed by transactionId
+     */
+    public Task<StorageSnapshot> getTransactionsByCategory(String categoryId) {
+        return categoryIndex.getByCategory(categoryId);
+    }
+
+    /**
+     * Adds the category index entries missing for the stored transactions.
+     * Only needed for transactions written before the index was maintained.
+     */
+    public Task<Void> rebuildCategoryIndex() {
+        return getAllTransactions().onSuccessTask(categoryIndex::rebuild);
+    }
+
+    /**
+     * Retrieves transactions dated within {@code [startMillis, endMillis]} with key range scans,
+     * touching only the month buckets that overlap the range.
+     */
+    public Task<StorageSnapshot> getTransactionsByDateRange(long startMillis, long endMillis) {
+        StorageQuery range = StorageQuery.orderByKey()
+                .startAt(PushIdUtil.lowerBound(startMillis))
+                .endAt(PushIdUtil.upperBound(endMillis));
+        if (layout == Layout.FLAT) return query(range);
+
+        String firstMonth = DateUtil.toDateKey(startMillis);
+        String lastMonth = DateUtil.toDateKey(endMillis);
+        return months.getMonths().onSuccessTask(manifest -> {
+            // Bucket keys parse as integers, so the flat range never includes them.
+            List<Task<StorageSnapshot>> reads = new ArrayList<>();
+            reads.add(query(range));
+            for (StorageSnapshot month : manifest.getChildren()) {
+                String monthKey = month.getKey();
+                if (monthKey.compareTo(firstMonth) >= 0 && monthKey.compareTo(lastMonth) <= 0) {
+                    reads.add(query(monthKey, range));
+                }
+            }
+            return merge(reads, Integer.MAX_VALUE);
+        });
+    }
+
+    /**
+     * Retrieves one page of transactions in key order, i.e. by transaction date, newest last.
+     * Pass the oldest transaction of the previous page as the cursor to get the page before it.
+     *
+     * @param beforeId      The transactionId of the cursor, or {@code null} for the newest page
+     * @param pageSize      Maximum number of transactions to return
+     * @return {@link Task} containing a {@link StorageSnapshot} of the page
+     */
+    public Task<StorageSnapshot> getTransactionsPage(@Nullable String beforeId, int pageSize) {
+        StorageQuery page = StorageQuery.orderByKey();
+        if (beforeId != null) {
+            page.endBefore(beforeId);
+        }
+        page.limitToLast(pageSize);
+        if (layout == Layout.FLAT) return query(page);
+
+        // Skip the bucket nodes, whose integer keys sort before every push ID.
+        page.startAt(PushIdUtil.lowerBound(0));
+        String cursorMonth = beforeId == null ? null : monthKeyOf(beforeId);
+        Task<StorageSnapshot> flat = query(page);
+        return months.getMonths().onSuccessTask(manifest -> {
+            List<String> monthKeys = new ArrayList<>();
+            for (StorageSnapshot month : manifest.getChildren()) {
+                String monthKey = month.getKey();
+                if (cursorMonth == null || monthKey.compareTo(cursorMonth) <= 0) {
+                    monthKeys.add(monthKey);
+                }
+            }
+            Collections.sort(monthKeys, Collections.reverseOrder());
+
+            return pageFromMonths(monthKeys, 0, beforeId, pageSize, new ArrayList<>())
+                    .onSuccessTask(fromBuckets -> merge(Arrays.asList(Tasks.forResult(fromBuckets), flat), pageSize));
+        });
+    }
+
+    /**
+     * Walks month buckets newest first until {@code pageSize} transactions are collected,
+     * reading {@link #PAGE_MONTH_READS} months at a time.
+     */
+    private Task<StorageSnapshot> pageFromMonths(List<String> monthKeys, int index, @Nullable String beforeId,
+                                                 int pageSize, List<StorageSnapshot> collected) {
+        int remaining = pageSize - collected.size();
+        if (remaining <= 0 || index >= monthKeys.size()) {
+            return Tasks.forResult(new CompositeSnapshot(null, collected));
+        }
+
+        // The cursor only constrains its own month; older months are read from their end.
+        int end = Math.min(index + PAGE_MONTH_READS, monthKeys.size());
+        List<Task<StorageSnapshot>> reads = new ArrayList<>();
+        for (String monthKey : monthKeys.subList(index, end)) {
+            StorageQuery query = StorageQuery.orderByKey();
+            if (beforeId != null && monthKey.equals(monthKeyOf(beforeId))) {
+                query.endBefore(beforeId);
+            }
+            reads.add(query(monthKey, query.limitToLast(remaining)));
+        }
+        return Tasks.<StorageSnapshot>whenAllSuccess(reads).onSuccessTask(buckets -> {
+            // Extra transactions from older months are dropped by the merge.
+            for (StorageSnapshot bucket : buckets) {
+                for (StorageSnapshot child : bucket.getChildren()) collected.add(child);
+            }
+            return pageFromMonths(monthKeys, end, beforeId, pageSize, collected);
+        });
+    }
+
+    /**
+     * Moves every transaction still stored under a legacy key (its transactionDate) to a
+     * {@link PushIdUtil} key, together with its category index entry, in one atomic write.
+     *
+     * @return {@link Task} containing the number of transactions moved
+     */
+    public Task<Integer> migrateLegacyIds() {
+        return getAllTransactions().onSuccessTask(snapshot -> {
+            WriteBatch batch = new WriteBatch(engine);
+            int moved = 0;
+            for (StorageSnapshot child : snapshot.getChildren()) {
+                String legacyId = child.getKey();
+                if (PushIdUtil.isPushId(legacyId)) continue;
+
+                Transaction txn = child.getValue(Transaction.class);
+                Object raw = child.getValue();
+                if (txn == null || !(raw instanceof Map)) continue;
+
+                //noinspection unchecked
+                Map<String, Object> map = (Map<String, Object>) raw;
+                map.put("updatedAt", ServerValue.TIMESTAMP);
+                String transactionId = PushIdUtil.generate(txn.getTransactionDate());
+
+                batch.delete(path(legacyId));
+                categoryIndex.remove(legacyId, txn, batch);
+                changes.record(legacyId, true, batch);
+                batch.set(path(locate(transactionId)), map);
+                txn.setTransactionId(transactionId);
+                categoryIndex.put(txn, null, batch);
+                changes.record(transactionId, false, batch);
+                if (layout == Layout.MONTHLY) {
+                    months.add(monthKeyOf(transactionId), batch);
+                }
+                moved++;
+            }
+
+            int count = moved;
+            return batch.commit().onSuccessTask(unused -> Tasks.forResult(count));
+        });
+    }
+
+    /**
+     * Moves every transaction still stored flat into its month bucket, one atomic write per
+     * month, oldest month first. Reads keep seeing each transaction in exactly one place
+     * throughout, so this can run while the app is in use. Each month is re-read right before
+     * its write, so edits and deletes made earlier in the run are carried over; only one that
+     * lands during that month's own read and write can be undone. Legacy keys must have been
+     * migrated to push IDs first.
+     *
+     * @return {@link Task} containing the number of transactions moved
+     */
+    public Task<Integer> migrateToMonthBuckets() {
+        return moveFlatMonths(PushIdUtil.lowerBound(0), 0);
+    }
+
+    /**
+     * Moves the flat transactions of the oldest month at or after {@code fromId}, then the next.
+     */
+    private Task<Integer> moveFlatMonths(String fromId, int moved) {
+        // Bucket keys parse as integers and sort before every push ID, so only flat entries match.
+        return query(StorageQuery.orderByKey().startAt(fromId).limitToFirst(1)).onSuccessTask(first -> {
+            String oldestId = null;
+            for (StorageSnapshot child : first.getChildren()) oldestId = child.getKey();
+            if (!PushIdUtil.isPushId(oldestId)) return Tasks.forResult(moved);
+
+            String monthKey = monthKeyOf(oldestId);
+            long monthStart = DateUtil.fromDateKey(monthKey);
+            long nextMonthStart = YearMonth.from(Instant.ofEpochMilli(monthStart).atZone(ZoneOffset.UTC))
+                    .plusMonths(1).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+            StorageQuery month = StorageQuery.orderByKey()
+                    .startAt(PushIdUtil.lowerBound(monthStart))
+                    .endAt(PushIdUtil.upperBound(nextMonthStart - 1));
+            return query(month).onSuccessTask(flat -> {
+                WriteBatch batch = new WriteBatch(engine);
+                int count = 0;
+                for (StorageSnapshot child : flat.getChildren()) {
+                    String transactionId = child.getKey();
+                    batch.delete(path(transactionId));
+                    batch.set(path(monthKey + "/" + transactionId), child.getValue());
+                    count++;
+                }
+                if (count > 0) months.add(monthKey, batch);
+
+                int total = moved + count;
+                return batch.commit().onSuccessTask(unused ->
+                        moveFlatMonths(PushIdUtil.lowerBound(nextMonthStart), total));
+            });
+        });
+    }
+
+    /**
+     * Lists every month that may hold transactions: the month manifest, plus each month from
+     * the oldest to the newest transaction stored flat. Legacy keys must have been migrated to
+     * push IDs first, since they do not sort by date.
+     *
+     * @return {@link Task} containing yyyyMM keys in ascending order
+     */
+    public Task<List<String>> getTransactionMonths() {
+        // Bucket keys parse as integers and sort before this bound, so only flat entries match.
+        Task<StorageSnapshot> oldest = query(StorageQuery.orderByKey()
+                .startAt(PushIdUtil.lowerBound(0)).limitToFirst(1));
+        Task<StorageSnapshot> newest = query(StorageQuery.orderByKey()
+                .startAt(PushIdUtil.lowerBound(0)).limitToLast(1));
+        Task<StorageSnapshot> manifest = layout == Layout.MONTHLY
+                ? months.getMonths()
+                : Tasks.forResult(new CompositeSnapshot(null, Collections.emptyList()));
+
+        return Tasks.whenAllSuccess(oldest, newest, manifest).onSuccessTask(unused -> {
+            TreeSet<String> monthKeys = new TreeSet<>();
+            for (StorageSnapshot month : manifest.getResult().getChildren()) {
+                monthKeys.add(month.getKey());
+            }
+
+            long first = dateOfOnlyChild(oldest.getResult());
+            long last = dateOfOnlyChild(newest.getResult());
+            if (first >= 0 && last >= first) {
+                YearMonth end = YearMonth.from(Instant.ofEpochMilli(last).atZone(ZoneOffset.UTC));
+                for (YearMonth month = YearMonth.from(Instant.ofEpochMilli(first).atZone(ZoneOffset.UTC));
+                     !month.isAfter(end); month = month.plusMonths(1)) {
+                    monthKeys.add(DateUtil.toDateKey(month.getYear(), month.getMonthValue()));
+                }
+            }
+            return Tasks.forResult(new ArrayList<>(monthKeys));
+        });
+    }
+
+    /**
+     * Retrieves change log entries written at or after the given server timestamp.
+     *
+     * @param updatedAtMillis The {@code updatedAt} cursor from the previous sync
+     * @return {@link Task} containing a {@link StorageSnapshot} of {@code updatedAt} and
+     *         {@code deleted} keyed by transactionId
+     */
+    public Task<StorageSnapshot> getChangesSince(long updatedAtMillis) {
+        return changes.getChangesSince(updatedAtMillis);
+    }
+
+    /**
+     * Deletes change log entries written before the given server timestamp.
+     *
+     * @see TransactionChangesRepository#pruneBefore(long)
+     */
+    public Task<Integer> pruneChangesBefore(long updatedAtMillis) {
+        return changes.pruneBefore(updatedAtMillis);
+    }
+
+    /**
+     * Observes the change log from the given server timestamp on.
+     *
+     * @see TransactionChangesRepository#observeChangesSince(long, StorageEngine.ChildListener)
      */
-    public Task<DataSnapshot> getAllTransactions() {
-        return getAll();
+    public StorageEngine.Registration observeChangesSince(long updatedAtMillis, StorageEngine.ChildListener listener) {
+        return changes.observeChangesSince(updatedAtMillis, listener);
+    }
+
+    private static long dateOfOnlyChild(StorageSnapshot snapshot) {
+        for (StorageSnapshot child : snapshot.getChildren()) {
+            Object date = child.child("transactionDate").getValue();
+            if (date instanceof Number) return ((Number) date).longValue();
+        }
+        return -1;
+    }
+
+    /**
+     * Resolves a transactionId to its key relative to {@code transactions/{uid}}.
+     * Legacy, non push ID keys are always flat.
+     */
+    private String locate(String transactionId) {
+        if (layout == Layout.FLAT || !PushIdUtil.isPushId(transactionId)) return transactionId;
+        return monthKeyOf(transactionId) + "/" + transactionId;
+    }
+
+    private static String monthKeyOf(String transactionId) {
+        return DateUtil.toDateKey(PushIdUtil.timestampOf(transactionId));
     }
 
-    public Task<DataSnapshot> getTransactionsByCategory(String categoryId) {
-        return ref.orderByChild("categoryId")
-                .equalTo(categoryId)
-                .get();
+    private static boolean isMonthKey(String key) {
+        if (key == null || key.length() != 6) return false;
+        for (int i = 0; i < key.length(); i++) {
+            if (!Character.isDigit(key.charAt(i))) return false;
+        }
+        return true;
     }
 
-    public Task<DataSnapshot> getTransactionsByDateRange(long startMillis, long endMillis) {
-        return ref.orderByChild("transactionDate")
-                .startAt(startMillis)
-                .endAt(endMillis)
-                .get();
+    /**
+     * Lists the transactions of a bucketed root: the children of every month bucket plus
+     * any transaction still stored flat.
+     */
+    private static StorageSnapshot flatten(StorageSnapshot root) {
+        List<StorageSnapshot> transactions = new ArrayList<>();
+        for (StorageSnapshot child : root.getChildren()) {
+            if (isMonthKey(child.getKey())) {
+                for (StorageSnapshot txn : child.getChildren()) transactions.add(txn);
+            } else {
+                transactions.add(child);
+            }
+        }
+        return new CompositeSnapshot(root.getKey(), transactions);
+    }
+
+    /**
+     * Combines the transactions of several reads in key order, keeping the last {@code limit}.
+     */
+    private static Task<StorageSnapshot> merge(List<Task<StorageSnapshot>> reads, int limit) {
+        return Tasks.<StorageSnapshot>whenAllSuccess(reads).onSuccessTask(results -> {
+            List<StorageSnapshot> transactions = new ArrayList<>();
+            for (StorageSnapshot result : results) {
+                for (StorageSnapshot txn : result.getChildren()) transactions.add(txn);
+            }
+            transactions.sort((a, b) -> a.getKey().compareTo(b.getKey()));
+            if (transactions.size() > limit) {
+                transactions = transactions.subList(transactions.size() - limit, transactions.size());
+            }
+            return Tasks.forResult(new CompositeSnapshot(null, transactions));
+        });
     }
 }
@@ -0,0 +1,109 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.database.ServerValue;
+
+import java.util.Map;
+
+import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+import edu.northeastern.numad25su_group9.services.CategoryService;
+
+/**
+ * Secondary index of transactions grouped by category,
+ * stored at {@code transactionsByCategory/{uid}/{categoryId}/{transactionId}}.
+ * <p>
+ * Each entry is a full copy of the transaction, so a category lists with one read of its
+ * own node instead of a filtered scan over every transaction. Entries are only written
+ * through {@link WriteBatch}, together with the transaction they mirror.
+ * </p>
+ */
+public class TransactionsByCategoryRepository extends BaseRepository {
+
+    public TransactionsByCategoryRepository(String userId) {
+        super("transactionsByCategory/" + userId);
+    }
+
+    /**
+     * Stages the index entry for {@code txn}, moving it out of {@code previous}'s category
+     * when the category changed.
+     *
+     * @param txn           The transaction as it will be stored, with its transactionId set
+     * @param previous      The stored copy before this write, or {@code null} for a new transaction
+     * @param batch         The {@link WriteBatch} to add the writes to
+     */
+    public void put(Transaction txn, @Nullable Transaction previous, WriteBatch batch) {
+        String categoryId = categoryIdOf(txn);
+        if (categoryId == null) {
+            batch.fail(new IllegalArgumentException("Category name is null"));
+            return;
+        }
+
+        String previousCategoryId = previous == null ? null : categoryIdOf(previous);
+        if (previousCategoryId != null && !previousCategoryId.equals(categoryId)) {
+            batch.delete(path(previousCategoryId + "/" + txn.getTransactionId()));
+        }
+        batch.set(path(categoryId + "/" + txn.getTransactionId()), entry(txn));
+    }
+
+    /**
+     * Stages the removal of the index entry for {@code existing}.
+     */
+    public void remove(String transactionId, @Nullable Transaction existing, WriteBatch batch) {
+        String categoryId = existing == null ? null : categoryIdOf(existing);
+        if (categoryId == null) return;
+        batch.delete(path(categoryId + "/" + transactionId));
+    }
+
+    /**
+     * Retrieves every indexed transaction in a category, keyed by transactionId.
+     */
+    public Task<StorageSnapshot> getByCategory(String categoryId) {
+        if (categoryId == null) {
+            TaskCompletionSource<StorageSnapshot> tcs = new TaskCompletionSource<>();
+            tcs.setException(new IllegalArgumentException("Category Id is null"));
+            return tcs.getTask();
+        }
+        return get(categoryId);
+    }
+
+    /**
+     * Adds the index entries missing for {@code transactions}, a snapshot of
+     * {@code transactions/{uid}}. Used to backfill accounts created before the index existed.
+     * <p>
+     * Entries already in the index were written with their transaction and are left alone, so
+     * adds and edits made since {@code transactions} was read survive. The missing ones are
+     * written in one multi-path update that touches nothing else.
+     * </p>
+     */
+    public Task<Void> rebuild(StorageSnapshot transactions) {
+        return getAll().onSuccessTask(index -> {
+            WriteBatch batch = new WriteBatch(engine);
+            for (StorageSnapshot child : transactions.getChildren()) {
+                Transaction txn = child.getValue(Transaction.class);
+                if (txn == null) continue;
+                txn.setTransactionId(child.getKey());
+
+                String categoryId = categoryIdOf(txn);
+                if (categoryId == null || index.child(categoryId).child(txn.getTransactionId()).exists()) continue;
+                batch.set(path(categoryId + "/" + txn.getTransactionId()), entry(txn));
+            }
+            return batch.commit();
+        });
+    }
+
+    private static Map<String, Object> entry(Transaction txn) {
+        Map<String, Object> map = txn.toMap();
+        map.put("updatedAt", ServerValue.TIMESTAMP);
+        return map;
+    }
+
+    @Nullable
+    private static String categoryIdOf(Transaction txn) {
+        String categoryName = txn.getCategoryName();
+        return categoryName == null ? null : CategoryService.getCategoryIdFromName(categoryName);
+    }
+}
@@ -1,17 +1,19 @@
 package edu.northeastern.numad25su_group9.repositories;
 
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ServerValue;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import edu.northeastern.numad25su_group9.models.User;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
 public class UserRepository extends BaseRepository {
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(5);
+
     public UserRepository(String userId) {
-        super(FirebaseDatabase.getInstance().getReference("users").child(userId));
+        super("users/" + userId, CACHE_TTL_MS);
     }
 
     public Task<Void> upsertUser(User user) {
@@ -20,5 +22,5 @@ public class UserRepository extends BaseRepository {
         return set("", map);
     }
 
-    public Task<DataSnapshot> getUser() { return get(""); }
+    public Task<StorageSnapshot> getUser() { return get(""); }
 }
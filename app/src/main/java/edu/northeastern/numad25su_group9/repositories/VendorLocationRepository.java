@@ -1,20 +1,19 @@
 package edu.northeastern.numad25su_group9.repositories;
 
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ServerValue;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import edu.northeastern.numad25su_group9.models.VendorLocation;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
 public class VendorLocationRepository extends BaseRepository {
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
     public VendorLocationRepository(String userId, String vendorId) {
-        super(FirebaseDatabase.getInstance()
-                .getReference("vendorLocations")
-                .child(userId)
-                .child(vendorId));
+        super("vendorLocations/" + userId + "/" + vendorId, CACHE_TTL_MS);
     }
 
     public Task<Void> addOrUpdateLocation(String locationId, VendorLocation location) {
@@ -24,6 +23,6 @@ public class VendorLocationRepository extends BaseRepository {
     }
 
     public Task<Void> deleteLocation(String locationId) { return delete(locationId); }
-    public Task<DataSnapshot> getLocationById(String locationId) { return get(locationId); }
-    public Task<DataSnapshot> getAllLocationsForVendor() { return getAll(); }
+    public Task<StorageSnapshot> getLocationById(String locationId) { return get(locationId); }
+    public Task<StorageSnapshot> getAllLocationsForVendor() { return getAll(); }
 }
@@ -1,17 +1,20 @@
 package edu.northeastern.numad25su_group9.repositories;
 
 import com.google.android.gms.tasks.Task;
-import com.google.firebase.database.DataSnapshot;
-import com.google.firebase.database.FirebaseDatabase;
 import com.google.firebase.database.ServerValue;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import edu.northeastern.numad25su_group9.models.Vendor;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageQuery;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
 public class VendorRepository extends BaseRepository {
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(10);
+
     public VendorRepository(String userId) {
-        super(FirebaseDatabase.getInstance().getReference("userVendors").child(userId));
+        super("userVendors/" + userId, CACHE_TTL_MS);
     }
 
     public Task<Void> addVendor(String vendorId, Vendor vendor) {
@@ -20,10 +23,10 @@ public class VendorRepository extends BaseRepository {
         return set(vendorId, map);
     }
     public Task<Void> deleteVendor(String vendorId) { return delete(vendorId); }
-    public Task<DataSnapshot> getVendorById(String vendorId) { return get(vendorId); }
-    public Task<DataSnapshot> getAllVendors() { return getAll(); }
+    public Task<StorageSnapshot> getVendorById(String vendorId) { return get(vendorId); }
+    public Task<StorageSnapshot> getAllVendors() { return getAll(); }
 
-    public Task<DataSnapshot> getVendorsByCategoryId(String categoryId) {
-        return ref.orderByChild("categoryId").equalTo(categoryId).get();
+    public Task<StorageSnapshot> getVendorsByCategoryId(String categoryId) {
+        return query(StorageQuery.orderByChild("categoryId").equalTo(categoryId));
     }
 }
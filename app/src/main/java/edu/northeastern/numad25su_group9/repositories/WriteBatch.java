@@ -0,0 +1,103 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.database.ServerValue;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageProvider;
+
+/**
+ * Collects writes across repositories and commits them as one atomic multi-path update.
+ * <p>
+ * Paths are absolute (see {@link BaseRepository#path(String)}). Increments on the same path
+ * are summed and sent as a single {@link ServerValue#increment(double)}. An increment of a
+ * path already set in the batch is added to the set value, and a later set replaces pending
+ * increments, as if the writes were applied in order. Repositories stage
+ * invalid input with {@link #fail(Exception)}, which makes {@link #commit()} fail without
+ * writing anything.
+ * </p>
+ * <p>
+ * NOTE: Firebase rejects updates where one path is an ancestor of another.
+ * </p>
+ */
+public class WriteBatch {
+    private final StorageEngine engine;
+    private final Map<String, Object> updates = new LinkedHashMap<>();
+    private final Map<String, Double> increments = new LinkedHashMap<>();
+    @Nullable private Exception error;
+
+    public WriteBatch() {
+        this(StorageProvider.getEngine());
+    }
+
+    public WriteBatch(StorageEngine engine) {
+        this.engine = engine;
+    }
+
+    public WriteBatch set(@NonNull String path, @Nullable Object value) {
+        increments.remove(path);
+        updates.put(path, value);
+        return this;
+    }
+
+    public WriteBatch delete(@NonNull String path) {
+        return set(path, null);
+    }
+
+    public WriteBatch increment(@NonNull String path, double delta) {
+        if (!updates.containsKey(path)) {
+            increments.merge(path, delta, Double::sum);
+            return this;
+        }
+
+        // One update cannot both set and increment a path, so fold the increment into the set.
+        Object value = updates.get(path);
+        if (value == null) {
+            updates.put(path, delta);
+        } else if (value instanceof Number) {
+            updates.put(path, ((Number) value).doubleValue() + delta);
+        } else {
+            fail(new IllegalArgumentException("Cannot increment non-numeric value at " + path));
+        }
+        return this;
+    }
+
+    /**
+     * Marks the batch as invalid. Only the first error is kept.
+     */
+    public WriteBatch fail(@NonNull Exception e) {
+        if (error == null) error = e;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return updates.isEmpty() && increments.isEmpty();
+    }
+
+    /**
+     * Sends all staged writes in one round trip.
+     */
+    public Task<Void> commit() {
+        if (error != null) return Tasks.forException(error);
+        if (isEmpty()) return Tasks.forResult(null);
+
+        Map<String, Object> all = new HashMap<>(updates);
+        for (Map.Entry<String, Double> entry : increments.entrySet()) {
+            all.put(entry.getKey(), ServerValue.increment(entry.getValue()));
+        }
+        RepositoryCache cache = RepositoryCache.getInstance();
+        for (String path : all.keySet()) cache.invalidate(path);
+        return engine.update("", all)
+                .addOnCompleteListener(t -> {
+                    for (String path : all.keySet()) cache.invalidate(path);
+                });
+    }
+}
@@ -0,0 +1,54 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.concurrent.TimeUnit;
+
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+/**
+ * Monthly spending totals of each year, at {@code spendingYearly/{uid}/{yyyy}/{MM}}.
+ * <p>
+ * Maintained by {@link SpendingRepository} alongside every spending increment. Month keys are
+ * zero-padded so Firebase never turns a year into an array.
+ * </p>
+ */
+public class YearlySpendingRepository extends BaseRepository {
+    private static final long CACHE_TTL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    public YearlySpendingRepository(String userId) {
+        super("spendingYearly/" + userId, CACHE_TTL_MS);
+    }
+
+    /**
+     * Stages adding {@code delta} to the total of the month {@code dateKey} (yyyyMM).
+     */
+    public void incrementMonthlyAmount(String dateKey, double delta, WriteBatch batch) {
+        batch.increment(path(toMonthKey(dateKey)), delta);
+    }
+
+    /**
+     * @return {@link Task} containing the year's monthly totals, keyed by MM
+     */
+    public Task<StorageSnapshot> getYear(int year) {
+        return get(String.valueOf(year));
+    }
+
+    public StorageEngine.Registration observeYear(int year, StorageEngine.ValueListener listener) {
+        return observeValue(String.valueOf(year), null, listener);
+    }
+
+    /**
+     * Reads the total of the month {@code dateKey} (yyyyMM) straight from storage, bypassing the
+     * read cache.
+     */
+    public Task<StorageSnapshot> fetchMonth(String dateKey) {
+        return engine.get(path(toMonthKey(dateKey)));
+    }
+
+    // yyyyMM -> yyyy/MM
+    private static String toMonthKey(String dateKey) {
+        return dateKey.substring(0, 4) + "/" + dateKey.substring(4);
+    }
+}
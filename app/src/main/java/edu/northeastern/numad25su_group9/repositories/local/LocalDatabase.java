@@ -0,0 +1,41 @@
+package edu.northeastern.numad25su_group9.repositories.local;
+
+import android.content.Context;
+
+import androidx.annotation.Nullable;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+
+/**
+ * On-device SQLite database holding mirrors of Firebase data.
+ * <p>
+ * The contents are a cache only, so schema changes simply drop and re-download.
+ * </p>
+ */
+@Database(entities = {TransactionEntity.class, SyncStateEntity.class}, version = 1, exportSchema = false)
+public abstract class LocalDatabase extends RoomDatabase {
+    private static final String DATABASE_NAME = "budget-manager.db";
+    private static volatile LocalDatabase instance;
+
+    public abstract TransactionDao transactionDao();
+
+    /**
+     * Opens the database. Called once from {@code App.onCreate}.
+     */
+    public static synchronized void init(Context context) {
+        if (instance == null) {
+            instance = Room.databaseBuilder(context.getApplicationContext(), LocalDatabase.class, DATABASE_NAME)
+                    .fallbackToDestructiveMigration()
+                    .build();
+        }
+    }
+
+    /**
+     * @return The database, or {@code null} when running outside the app (e.g. JVM benchmarks)
+     */
+    @Nullable
+    public static LocalDatabase getInstance() {
+        return instance;
+    }
+}
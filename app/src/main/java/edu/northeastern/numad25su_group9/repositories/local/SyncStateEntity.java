@@ -0,0 +1,18 @@
+package edu.northeastern.numad25su_group9.repositories.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Per-user progress of the transaction mirror.
+ */
+@Entity(tableName = "sync_state")
+public class SyncStateEntity {
+    @PrimaryKey
+    @NonNull public String userId = "";
+    // Highest updatedAt seen from the server.
+    public long lastUpdatedAt;
+    // Local time of the last full download, used to pick up deletes from other devices.
+    public long lastFullSyncAt;
+}
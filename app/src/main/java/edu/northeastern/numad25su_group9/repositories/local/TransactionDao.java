@@ -0,0 +1,84 @@
+package edu.northeastern.numad25su_group9.repositories.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import java.util.List;
+
+@Dao
+public interface TransactionDao {
+
+    @Query("SELECT * FROM transactions WHERE userId = :userId "
+            + "ORDER BY transactionDate DESC, transactionId DESC")
+    List<TransactionEntity> getAll(String userId);
+
+    /**
+     * Keyset page ordered newest first: rows strictly before the (date, id) cursor.
+     */
+    @Query("SELECT * FROM transactions WHERE userId = :userId "
+            + "AND (transactionDate < :beforeDate OR (transactionDate = :beforeDate AND transactionId < :beforeId)) "
+            + "ORDER BY transactionDate DESC, transactionId DESC LIMIT :limit")
+    List<TransactionEntity> getPage(String userId, long beforeDate, String beforeId, int limit);
+
+    /**
+     * Positional page in the order of {@link #getPage}: {@code limit} rows from {@code offset}.
+     */
+    @Query("SELECT * FROM transactions WHERE userId = :userId "
+            + "ORDER BY transactionDate DESC, transactionId DESC LIMIT :limit OFFSET :offset")
+    List<TransactionEntity> getRange(String userId, int offset, int limit);
+
+    @Query("SELECT COUNT(*) FROM transactions WHERE userId = :userId")
+    int count(String userId);
+
+    @Query("SELECT * FROM transactions WHERE userId = :userId "
+            + "AND transactionDate BETWEEN :startMillis AND :endMillis "
+            + "ORDER BY transactionDate DESC, transactionId DESC")
+    List<TransactionEntity> getByDateRange(String userId, long startMillis, long endMillis);
+
+    @Query("SELECT * FROM transactions WHERE userId = :userId AND categoryName = :categoryId "
+            + "ORDER BY transactionDate DESC, transactionId DESC")
+    List<TransactionEntity> getByCategory(String userId, String categoryId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(TransactionEntity transaction);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<TransactionEntity> transactions);
+
+    @Query("DELETE FROM transactions WHERE userId = :userId AND transactionId = :transactionId")
+    void delete(String userId, String transactionId);
+
+    @Query("DELETE FROM transactions WHERE userId = :userId")
+    void deleteAll(String userId);
+
+    @Query("SELECT * FROM sync_state WHERE userId = :userId")
+    SyncStateEntity getSyncState(String userId);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void putSyncState(SyncStateEntity state);
+
+    /**
+     * Applies a delta download, including deletes, and advances the sync cursor in one
+     * SQLite transaction.
+     */
+    @androidx.room.Transaction
+    default void applyDelta(List<TransactionEntity> transactions, List<String> deletedIds, SyncStateEntity state) {
+        for (String transactionId : deletedIds) {
+            delete(state.userId, transactionId);
+        }
+        upsertAll(transactions);
+        putSyncState(state);
+    }
+
+    /**
+     * Replaces the user's mirror with a full download in one SQLite transaction.
+     */
+    @androidx.room.Transaction
+    default void replaceAll(String userId, List<TransactionEntity> transactions, SyncStateEntity state) {
+        deleteAll(userId);
+        upsertAll(transactions);
+        putSyncState(state);
+    }
+}
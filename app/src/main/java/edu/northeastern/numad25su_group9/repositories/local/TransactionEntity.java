@@ -0,0 +1,78 @@
+package edu.northeastern.numad25su_group9.repositories.local;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+import edu.northeastern.numad25su_group9.models.Transaction;
+
+/**
+ * Local copy of a {@code transactions/{uid}/{id}} node.
+ * <p>
+ * Every index is prefixed with {@code userId} because all queries are scoped to one user.
+ * </p>
+ */
+@Entity(
+        tableName = "transactions",
+        primaryKeys = {"userId", "transactionId"},
+        indices = {
+                @Index({"userId", "transactionDate"}),
+                @Index({"userId", "categoryName"}),
+                @Index({"userId", "vendorId"}),
+                @Index({"userId", "amount"})
+        })
+public class TransactionEntity {
+    @NonNull public String userId = "";
+    @NonNull public String transactionId = "";
+    // Category ids are lower-cased names, so compare case-insensitively.
+    @ColumnInfo(collate = ColumnInfo.NOCASE)
+    public String categoryName;
+    public String description;
+    public double amount;
+    public boolean ignore;
+    @Nullable public String vendorId;
+    @Nullable public String vendorName;
+    @Nullable public String locationId;
+    @Nullable public Double latitude;
+    @Nullable public Double longitude;
+    public long transactionDate;
+    // Server timestamp of the last write, used as the delta sync cursor.
+    public long updatedAt;
+
+    public static TransactionEntity from(@NonNull String userId, @NonNull Transaction txn, long updatedAt) {
+        TransactionEntity e = new TransactionEntity();
+        e.userId = userId;
+        e.transactionId = txn.getTransactionId();
+        e.categoryName = txn.getCategoryName();
+        e.description = txn.getDescription();
+        e.amount = txn.getAmount();
+        e.ignore = txn.isIgnore();
+        e.vendorId = txn.getVendorId();
+        e.vendorName = txn.getVendorName();
+        e.locationId = txn.getLocationId();
+        e.latitude = txn.getLatitude();
+        e.longitude = txn.getLongitude();
+        e.transactionDate = txn.getTransactionDate();
+        e.updatedAt = updatedAt;
+        return e;
+    }
+
+    public Transaction toTransaction() {
+        Transaction txn = Transaction.builder()
+                .setCategoryName(categoryName)
+                .setDescription(description)
+                .setAmount(amount)
+                .setIgnore(ignore)
+                .setVendorId(vendorId)
+                .setVendorName(vendorName)
+                .setLocationId(locationId)
+                .setLatitude(latitude)
+                .setLongitude(longitude)
+                .build();
+        txn.setTransactionDate(transactionDate);
+        txn.setTransactionId(transactionId);
+        return txn;
+    }
+}
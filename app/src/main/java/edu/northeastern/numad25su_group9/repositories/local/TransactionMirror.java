@@ -0,0 +1,287 @@
+package edu.northeastern.numad25su_group9.repositories.local;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.SingleFlight;
+import edu.northeastern.numad25su_group9.repositories.TransactionRepository;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+/**
+ * Offline-first SQLite mirror of {@code transactions/{uid}}.
+ * <p>
+ * Reads are served from the local database. The first read on a device blocks on a full
+ * download; afterwards every read answers from disk immediately and starts a delta sync in
+ * the background that reads the {@code transactionChanges/{uid}} log from the cursor on and
+ * downloads only the transactions it names. Deletes arrive as tombstones in the same log.
+ * Writes made through this client are applied to the mirror directly. Identical concurrent
+ * reads share one query and one decoded, read-only list.
+ * </p>
+ * <p>
+ * The mirror is still fully re-downloaded once every {@link #FULL_SYNC_INTERVAL_MS} to
+ * recover from anything written outside the repository, such as console edits. A client
+ * that has not synced for that long downloads everything anyway, so after a full download
+ * log entries older than {@link #CHANGE_LOG_RETENTION_MS} are pruned.
+ * </p>
+ */
+public class TransactionMirror {
+    private static final String TAG = "TransactionMirror";
+    private static final long FULL_SYNC_INTERVAL_MS = TimeUnit.DAYS.toMillis(1);
+    // One more interval on top, for clocks that are off from the server's.
+    private static final long CHANGE_LOG_RETENTION_MS = 2 * FULL_SYNC_INTERVAL_MS;
+
+    // One thread keeps SQLite access serialized and off the main thread.
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor();
+    // Shared by all mirrors, since every service instance creates its own.
+    private static final SingleFlight<List<Transaction>> READS = new SingleFlight<>();
+    // Bumped on every local write, so reads never join a query that started before it.
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private final String userId;
+    private final TransactionDao dao;
+    private final TransactionRepository repository;
+    @Nullable private Task<Void> syncInFlight;
+
+    private TransactionMirror(String userId, TransactionDao dao, TransactionRepository repository) {
+        this.userId = userId;
+        this.dao = dao;
+        this.repository = repository;
+    }
+
+    /**
+     * @return A mirror for the user, or {@code null} if the local database is not available
+     */
+    @Nullable
+    public static TransactionMirror create(String userId, TransactionRepository repository) {
+        LocalDatabase db = LocalDatabase.getInstance();
+        if (db == null || userId == null) return null;
+        return new TransactionMirror(userId, db.transactionDao(), repository);
+    }
+
+    private interface LocalQuery {
+        List<TransactionEntity> run(TransactionDao dao);
+    }
+
+    // Reads
+
+    public Task<List<Transaction>> getAll() {
+        return read("all", dao -> dao.getAll(userId));
+    }
+
+    public Task<List<Transaction>> getByDateRange(long startMillis, long endMillis) {
+        return read("range:" + startMillis + ":" + endMillis, dao -> dao.getByDateRange(userId, startMillis, endMillis));
+    }
+
+    /**
+     * @param beforeDate    The cursor's {@code transactionDate}, or {@code null} for the newest page
+     * @param beforeId      The cursor's transactionId
+     * @return Up to {@code pageSize} transactions before the cursor, newest first
+     */
+    public Task<List<Transaction>> getPage(@Nullable Long beforeDate, @Nullable String beforeId, int pageSize) {
+        // Without a cursor, start past every real row. Without an id, skip the whole date.
+        long date = beforeDate == null ? Long.MAX_VALUE : beforeDate;
+        String id = beforeId == null ? "" : beforeId;
+        return read("page:" + date + ":" + id + ":" + pageSize, dao -> dao.getPage(userId, date, id, pageSize));
+    }
+
+    /**
+     * @return Up to {@code limit} transactions from position {@code offset} of the
+     * {@link #getPage} order
+     */
+    public Task<List<Transaction>> getRange(int offset, int limit) {
+        return read("at:" + offset + ":" + limit, dao -> dao.getRange(userId, offset, limit));
+    }
+
+    /**
+     * @return The number of transactions currently on disk. Unlike the other reads, this does
+     * not wait for the first download.
+     */
+    public Task<Integer> getCount() {
+        return Tasks.call(EXECUTOR, () -> dao.count(userId));
+    }
+
+    public Task<List<Transaction>> getByCategory(String categoryId) {
+        return read("category:" + categoryId, dao -> dao.getByCategory(userId, categoryId));
+    }
+
+    // Write-through
+
+    /**
+     * Records a transaction that was just written to Firebase.
+     * The row is re-downloaded with its server timestamp on the next sync.
+     */
+    public Task<Void> put(@NonNull Transaction txn) {
+        GENERATION.incrementAndGet();
+        return Tasks.call(EXECUTOR, () -> {
+            dao.upsert(TransactionEntity.from(userId, txn, System.currentTimeMillis()));
+            return null;
+        });
+    }
+
+    /**
+     * Removes a transaction that was just deleted from Firebase.
+     */
+    public Task<Void> remove(@NonNull String transactionId) {
+        GENERATION.incrementAndGet();
+        return Tasks.call(EXECUTOR, () -> {
+            dao.delete(userId, transactionId);
+            return null;
+        });
+    }
+
+    /**
+     * Makes the next sync a full download, e.g. after keys were rewritten on the server.
+     * Reads keep answering from the current rows until then.
+     */
+    public Task<Void> requestFullSync() {
+        return Tasks.call(EXECUTOR, () -> {
+            SyncStateEntity state = dao.getSyncState(userId);
+            if (state != null) {
+                state.lastFullSyncAt = 0;
+                dao.putSyncState(state);
+            }
+            return null;
+        });
+    }
+
+    // Sync
+
+    /**
+     * Downloads everything changed since the last sync. Concurrent callers share one sync.
+     */
+    public synchronized Task<Void> sync() {
+        if (syncInFlight != null && !syncInFlight.isComplete()) {
+            return syncInFlight;
+        }
+
+        syncInFlight = Tasks.call(EXECUTOR, () -> dao.getSyncState(userId))
+                .onSuccessTask(EXECUTOR, state -> {
+                    boolean full = state == null
+                            || System.currentTimeMillis() - state.lastFullSyncAt > FULL_SYNC_INTERVAL_MS;
+                    if (full) {
+                        return repository.getAllTransactions().onSuccessTask(EXECUTOR, snapshot -> {
+                            apply(snapshot, state);
+                            repository.pruneChangesBefore(System.currentTimeMillis() - CHANGE_LOG_RETENTION_MS)
+                                    .addOnFailureListener(e -> Log.w(TAG, "Could not prune the change log", e));
+                            return Tasks.forResult(null);
+                        });
+                    }
+                    return repository.getChangesSince(state.lastUpdatedAt)
+                            .onSuccessTask(EXECUTOR, changes -> applyChanges(changes, state));
+                });
+        return syncInFlight;
+    }
+
+    /**
+     * @return A read-only list shared with every concurrent caller of the same query
+     */
+    private Task<List<Transaction>> read(String key, LocalQuery query) {
+        String flightKey = userId + "/" + key + "#" + GENERATION.get();
+        return READS.run(flightKey, () -> load(query));
+    }
+
+    private Task<List<Transaction>> load(LocalQuery query) {
+        return Tasks.call(EXECUTOR, () -> dao.getSyncState(userId))
+                .onSuccessTask(EXECUTOR, state -> {
+                    // Nothing local yet: wait for the first download.
+                    if (state == null) return sync();
+
+                    sync().addOnFailureListener(e -> Log.w(TAG, "Background sync failed", e));
+                    return Tasks.forResult(null);
+                })
+                .onSuccessTask(EXECUTOR, unused -> {
+                    List<TransactionEntity> rows = query.run(dao);
+                    List<Transaction> out = new ArrayList<>(rows.size());
+                    for (TransactionEntity row : rows) {
+                        out.add(row.toTransaction());
+                    }
+                    return Tasks.forResult(Collections.unmodifiableList(out));
+                });
+    }
+
+    /**
+     * Writes a full download to disk, replacing whatever the mirror held.
+     *
+     * @param previous The sync state before this download, or {@code null} on a new device
+     */
+    private void apply(StorageSnapshot snapshot, @Nullable SyncStateEntity previous) {
+        SyncStateEntity next = new SyncStateEntity();
+        next.userId = userId;
+        next.lastUpdatedAt = previous == null ? 0 : previous.lastUpdatedAt;
+        next.lastFullSyncAt = System.currentTimeMillis();
+
+        List<TransactionEntity> rows = new ArrayList<>();
+        for (StorageSnapshot child : snapshot.getChildren()) {
+            TransactionEntity row = toEntity(child);
+            if (row == null) continue;
+            next.lastUpdatedAt = Math.max(next.lastUpdatedAt, row.updatedAt);
+            rows.add(row);
+        }
+
+        GENERATION.incrementAndGet();
+        dao.replaceAll(userId, rows, next);
+        Log.d(TAG, "Synced " + rows.size() + " transactions (full)");
+    }
+
+    /**
+     * Downloads the transactions named in a slice of the change log and writes them to disk,
+     * together with the slice's tombstones.
+     */
+    private Task<Void> applyChanges(StorageSnapshot changes, SyncStateEntity previous) {
+        SyncStateEntity next = new SyncStateEntity();
+        next.userId = userId;
+        next.lastUpdatedAt = previous.lastUpdatedAt;
+        next.lastFullSyncAt = previous.lastFullSyncAt;
+
+        List<String> deletedIds = new ArrayList<>();
+        List<Task<StorageSnapshot>> downloads = new ArrayList<>();
+        for (StorageSnapshot change : changes.getChildren()) {
+            next.lastUpdatedAt = Math.max(next.lastUpdatedAt, longValue(change.child("updatedAt").getValue()));
+            if (Boolean.TRUE.equals(change.child("deleted").getValue())) {
+                deletedIds.add(change.getKey());
+            } else {
+                downloads.add(repository.getTransactionById(change.getKey()));
+            }
+        }
+
+        return Tasks.<StorageSnapshot>whenAllSuccess(downloads).onSuccessTask(EXECUTOR, snapshots -> {
+            List<TransactionEntity> rows = new ArrayList<>(snapshots.size());
+            for (StorageSnapshot snapshot : snapshots) {
+                TransactionEntity row = toEntity(snapshot);
+                if (row != null) rows.add(row);
+            }
+
+            GENERATION.incrementAndGet();
+            dao.applyDelta(rows, deletedIds, next);
+            Log.d(TAG, "Synced " + rows.size() + " transactions, " + deletedIds.size() + " deletes");
+            return Tasks.forResult(null);
+        });
+    }
+
+    @Nullable
+    private TransactionEntity toEntity(StorageSnapshot snapshot) {
+        if (!snapshot.exists()) return null;
+        Transaction txn = snapshot.getValue(Transaction.class);
+        if (txn == null) return null;
+        txn.setTransactionId(snapshot.getKey());
+        return TransactionEntity.from(userId, txn, longValue(snapshot.child("updatedAt").getValue()));
+    }
+
+    private static long longValue(@Nullable Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,105 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import com.google.firebase.database.Exclude;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Setter based mapper from raw node values onto model classes.
+ * <p>
+ * Used by {@link InMemorySnapshot} in place of Firebase's {@code CustomClassMapper}.
+ * Unknown properties are ignored, numbers are widened or narrowed to the setter type.
+ * </p>
+ */
+final class BeanMapper {
+    private static final Map<Class<?>, Map<String, Method>> SETTERS = new ConcurrentHashMap<>();
+
+    private BeanMapper() {
+        // Prevent instantiation
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T convert(Object value, Class<T> type) {
+        if (value == null) return null;
+
+        Object converted = coerce(value, type);
+        if (converted != null) return (T) converted;
+
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Failed to convert value of type "
+                    + value.getClass().getName() + " to " + type.getName());
+        }
+
+        T bean;
+        try {
+            bean = type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Class " + type.getName()
+                    + " does not define a no-argument constructor", e);
+        }
+
+        Map<String, Method> setters = SETTERS.computeIfAbsent(type, BeanMapper::findSetters);
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            Method setter = setters.get(String.valueOf(entry.getKey()));
+            if (setter == null || entry.getValue() == null) continue;
+
+            Class<?> paramType = setter.getParameterTypes()[0];
+            try {
+                setter.invoke(bean, convert(entry.getValue(), box(paramType)));
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalArgumentException("Failed to set property " + entry.getKey()
+                        + " on " + type.getName(), e);
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Converts leaf values; returns {@code null} when {@code type} is a bean.
+     */
+    private static Object coerce(Object value, Class<?> type) {
+        if (type.isInstance(value)) {
+            return value;
+        }
+        if (value instanceof Number) {
+            Number n = (Number) value;
+            if (type == Double.class) return n.doubleValue();
+            if (type == Long.class) return n.longValue();
+            if (type == Integer.class) return n.intValue();
+            if (type == Float.class) return n.floatValue();
+        }
+        if (type == String.class || type == Boolean.class || Number.class.isAssignableFrom(type)) {
+            throw new IllegalArgumentException("Failed to convert value of type "
+                    + value.getClass().getName() + " to " + type.getName());
+        }
+        return null;
+    }
+
+    private static Map<String, Method> findSetters(Class<?> type) {
+        Map<String, Method> setters = new HashMap<>();
+        for (Method m : type.getMethods()) {
+            String name = m.getName();
+            if (!name.startsWith("set") || name.length() <= 3) continue;
+            if (m.getParameterTypes().length != 1 || Modifier.isStatic(m.getModifiers())) continue;
+            if (m.isAnnotationPresent(Exclude.class)) continue;
+
+            String property = Character.toLowerCase(name.charAt(3)) + name.substring(4);
+            setters.put(property, m);
+        }
+        return setters;
+    }
+
+    private static Class<?> box(Class<?> type) {
+        if (!type.isPrimitive()) return type;
+        if (type == double.class) return Double.class;
+        if (type == long.class) return Long.class;
+        if (type == int.class) return Integer.class;
+        if (type == float.class) return Float.class;
+        if (type == boolean.class) return Boolean.class;
+        return type;
+    }
+}
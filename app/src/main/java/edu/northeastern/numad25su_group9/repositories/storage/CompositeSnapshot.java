@@ -0,0 +1,70 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link StorageSnapshot} over children gathered from several reads, e.g. the month buckets
+ * of one listing. Behaves like a node whose direct children are exactly those snapshots.
+ */
+public class CompositeSnapshot implements StorageSnapshot {
+    @Nullable private final String key;
+    private final List<StorageSnapshot> children;
+
+    public CompositeSnapshot(@Nullable String key, @NonNull List<StorageSnapshot> children) {
+        this.key = key;
+        this.children = Collections.unmodifiableList(new ArrayList<>(children));
+    }
+
+    @Nullable
+    @Override
+    public String getKey() { return key; }
+
+    @Override
+    public boolean exists() { return !children.isEmpty(); }
+
+    @Override
+    public boolean hasChildren() { return !children.isEmpty(); }
+
+    @Override
+    public long getChildrenCount() { return children.size(); }
+
+    @NonNull
+    @Override
+    public Iterable<StorageSnapshot> getChildren() { return children; }
+
+    @NonNull
+    @Override
+    public StorageSnapshot child(@NonNull String path) {
+        String[] parts = path.split("/", 2);
+        for (StorageSnapshot child : children) {
+            if (parts[0].equals(child.getKey())) {
+                return parts.length == 1 ? child : child.child(parts[1]);
+            }
+        }
+        return new InMemorySnapshot(parts[parts.length - 1], null);
+    }
+
+    @Nullable
+    @Override
+    public Object getValue() {
+        if (children.isEmpty()) return null;
+        Map<String, Object> value = new LinkedHashMap<>();
+        for (StorageSnapshot child : children) {
+            value.put(child.getKey(), child.getValue());
+        }
+        return value;
+    }
+
+    @Nullable
+    @Override
+    public <T> T getValue(@NonNull Class<T> valueType) {
+        return BeanMapper.convert(getValue(), valueType);
+    }
+}
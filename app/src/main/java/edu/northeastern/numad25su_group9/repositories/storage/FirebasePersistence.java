@@ -0,0 +1,167 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.database.FirebaseDatabase;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import edu.northeastern.numad25su_group9.utils.DateUtil;
+
+/**
+ * Sets up Firebase's on-disk cache and keeps the signed-in user's hot subtrees synced.
+ * <p>
+ * Must be initialized from {@code Application.onCreate}, before anything else touches
+ * {@link FirebaseDatabase}. Kept-synced nodes are held up to date in the background, so reads
+ * of them are answered locally, including right after a cold start. Everything else is still
+ * cached on disk but fetched from the server when online.
+ * </p>
+ * <p>
+ * Reads through {@link FirebaseStorageEngine} are counted as hits when they fall inside a
+ * kept-synced node or match a kept-synced query, and as misses otherwise.
+ * </p>
+ */
+public final class FirebasePersistence {
+    private static final String TAG = "FirebasePersistence";
+
+    /** One kept-synced node or query. */
+    private static final class Target {
+        final String path;
+        @Nullable final StorageQuery query;
+
+        Target(String path, @Nullable StorageQuery query) {
+            this.path = path;
+            this.query = query;
+        }
+
+        boolean covers(String readPath, @Nullable StorageQuery readQuery) {
+            if (query != null) {
+                return path.equals(readPath) && readQuery != null && query.toString().equals(readQuery.toString());
+            }
+            return path.equals(readPath) || readPath.startsWith(path + "/");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Target)) return false;
+            Target other = (Target) o;
+            return path.equals(other.path) && Objects.equals(String.valueOf(query), String.valueOf(other.query));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, String.valueOf(query));
+        }
+    }
+
+    @Nullable private static PersistencePolicy policy;
+    @Nullable private static FirebaseStorageEngine engine;
+    private static final List<Target> synced = new ArrayList<>();
+
+    private static long hits;
+    private static long misses;
+
+    private FirebasePersistence() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Enables the disk cache per {@code persistencePolicy} and starts following sign-in state.
+     * Only the first call has an effect.
+     */
+    public static synchronized void init(@NonNull PersistencePolicy persistencePolicy) {
+        if (policy != null) return;
+        policy = persistencePolicy;
+
+        FirebaseDatabase db = FirebaseDatabase.getInstance();
+        if (policy.isPersistenceEnabled()) {
+            db.setPersistenceCacheSizeBytes(policy.getCacheSizeBytes());
+            db.setPersistenceEnabled(true);
+        }
+        engine = new FirebaseStorageEngine(db.getReference());
+
+        FirebaseAuth.getInstance().addAuthStateListener(auth -> refresh());
+    }
+
+    /**
+     * Re-applies the policy for the current user. Called on sign-in changes, and by the app
+     * when the date may have changed, so the synced spending months follow a month boundary.
+     * Cheap when nothing changed. Signed-out users have nothing kept synced.
+     */
+    public static synchronized void refresh() {
+        if (policy == null || engine == null) return;
+
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        List<Target> wanted = user == null ? new ArrayList<>() : targetsFor(user.getUid());
+        if (wanted.equals(synced)) return;
+
+        for (Target target : synced) {
+            if (!wanted.contains(target)) engine.keepSynced(target.path, target.query, false);
+        }
+        for (Target target : wanted) {
+            if (!synced.contains(target)) engine.keepSynced(target.path, target.query, true);
+        }
+        synced.clear();
+        synced.addAll(wanted);
+        Log.d(TAG, "Keeping " + synced.size() + " subtrees synced");
+    }
+
+    private static List<Target> targetsFor(String userId) {
+        List<Target> targets = new ArrayList<>();
+
+        // Spending buckets are keyed by UTC month.
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i < policy.getSpendingMonthsSynced(); i++) {
+            YearMonth m = month.minusMonths(i);
+            targets.add(new Target("spendings/" + userId + "/" + DateUtil.toDateKey(m.getYear(), m.getMonthValue()), null));
+        }
+        if (policy.isLatestBudgetSynced()) {
+            // Must match BudgetRepository.getLatestBudget for reads to be answered locally.
+            targets.add(new Target("budgets/" + userId,
+                    StorageQuery.orderByChild("monthUtcTs").limitToLast(1)));
+        }
+        if (policy.isCategoriesSynced()) {
+            targets.add(new Target("userCategories/" + userId, null));
+        }
+        if (policy.isTransactionMonthsSynced()) {
+            // Read uncached by TransactionMonthsRepository, which relies on this to stay local.
+            targets.add(new Target("transactionMonths/" + userId, null));
+        }
+        return targets;
+    }
+
+    static synchronized void recordRead(String path, @Nullable StorageQuery query) {
+        for (Target target : synced) {
+            if (target.covers(path, query)) {
+                hits++;
+                return;
+            }
+        }
+        misses++;
+    }
+
+    public static synchronized long getHitCount() { return hits; }
+    public static synchronized long getMissCount() { return misses; }
+
+    /**
+     * @return A one-line summary of the policy and read metrics, for logging
+     */
+    @NonNull
+    public static synchronized String describe() {
+        long reads = hits + misses;
+        return String.format(Locale.US, "FirebasePersistence{enabled=%b, cacheSizeBytes=%d, synced=%d, hits=%d, misses=%d, hitRate=%.2f}",
+                policy != null && policy.isPersistenceEnabled(),
+                policy == null ? 0 : policy.getCacheSizeBytes(),
+                synced.size(), hits, misses, reads == 0 ? 0.0 : (double) hits / reads);
+    }
+}
@@ -0,0 +1,68 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.firebase.database.DataSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import edu.northeastern.numad25su_group9.models.ModelCodecs;
+
+/**
+ * {@link StorageSnapshot} adapter over a Firebase {@link DataSnapshot}.
+ */
+class FirebaseSnapshot implements StorageSnapshot {
+    private final DataSnapshot snapshot;
+
+    FirebaseSnapshot(DataSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Nullable
+    @Override
+    public String getKey() { return snapshot.getKey(); }
+
+    @Override
+    public boolean exists() { return snapshot.exists(); }
+
+    @Override
+    public boolean hasChildren() { return snapshot.hasChildren(); }
+
+    @Override
+    public long getChildrenCount() { return snapshot.getChildrenCount(); }
+
+    @NonNull
+    @Override
+    public Iterable<StorageSnapshot> getChildren() {
+        List<StorageSnapshot> children = new ArrayList<>((int) snapshot.getChildrenCount());
+        for (DataSnapshot child : snapshot.getChildren()) {
+            children.add(new FirebaseSnapshot(child));
+        }
+        return children;
+    }
+
+    @NonNull
+    @Override
+    public StorageSnapshot child(@NonNull String path) {
+        return new FirebaseSnapshot(snapshot.child(path));
+    }
+
+    @Nullable
+    @Override
+    public Object getValue() { return snapshot.getValue(); }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(@NonNull Class<T> valueType) {
+        // Models decode from the raw map; anything else goes through Firebase's bean mapper.
+        ModelCodecs.Decoder<T> decoder = ModelCodecs.decoderFor(valueType);
+        if (decoder == null) return snapshot.getValue(valueType);
+
+        Object value = snapshot.getValue();
+        return value instanceof Map ? decoder.decode((Map<String, Object>) value) : null;
+    }
+}
@@ -0,0 +1,187 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.database.DataSnapshot;
+import com.google.firebase.database.DatabaseError;
+import com.google.firebase.database.ChildEventListener;
+import com.google.firebase.database.DatabaseReference;
+import com.google.firebase.database.MutableData;
+import com.google.firebase.database.Query;
+import com.google.firebase.database.Transaction;
+import com.google.firebase.database.ValueEventListener;
+
+import java.util.Map;
+
+/**
+ * {@link StorageEngine} backed by the Firebase Realtime Database.
+ */
+public class FirebaseStorageEngine implements StorageEngine {
+    private final DatabaseReference root;
+
+    public FirebaseStorageEngine(DatabaseReference root) {
+        this.root = root;
+    }
+
+    @Override
+    public Task<Void> set(@NonNull String path, Object value) {
+        return ref(path).setValue(value);
+    }
+
+    @Override
+    public Task<Void> update(@NonNull String path, @NonNull Map<String, Object> updates) {
+        return ref(path).updateChildren(updates);
+    }
+
+    @Override
+    public Task<Void> delete(@NonNull String path) {
+        return ref(path).removeValue();
+    }
+
+    @Override
+    public Task<StorageSnapshot> get(@NonNull String path) {
+        FirebasePersistence.recordRead(path, null);
+        return ref(path).get().continueWith(task -> new FirebaseSnapshot(task.getResult()));
+    }
+
+    @Override
+    public Task<StorageSnapshot> query(@NonNull String path, @NonNull StorageQuery query) {
+        FirebasePersistence.recordRead(path, query);
+        return toFirebaseQuery(ref(path), query).get()
+                .continueWith(task -> new FirebaseSnapshot(task.getResult()));
+    }
+
+    @Override
+    public Task<Void> runTransaction(@NonNull String path, @NonNull Mutation mutation) {
+        final TaskCompletionSource<Void> tcs = new TaskCompletionSource<>();
+
+        ref(path).runTransaction(new Transaction.Handler() {
+            @NonNull
+            @Override
+            public Transaction.Result doTransaction(@NonNull MutableData currentData) {
+                currentData.setValue(mutation.apply(currentData.getValue()));
+                return Transaction.success(currentData);
+            }
+
+            @Override
+            public void onComplete(DatabaseError error, boolean committed, DataSnapshot snapshot) {
+                if (error != null) {
+                    tcs.setException(error.toException());
+                } else if (!committed) {
+                    tcs.setException(new IllegalStateException("Transaction not committed"));
+                } else {
+                    tcs.setResult(null);
+                }
+            }
+        });
+
+        return tcs.getTask();
+    }
+
+    @Override
+    public Registration observeChildren(@NonNull String path, @Nullable StorageQuery query, @NonNull ChildListener listener) {
+        Query target = query == null ? ref(path) : toFirebaseQuery(ref(path), query);
+        ChildEventListener firebaseListener = target.addChildEventListener(new ChildEventListener() {
+            @Override
+            public void onChildAdded(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                listener.onChildAdded(new FirebaseSnapshot(snapshot));
+            }
+
+            @Override
+            public void onChildChanged(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                listener.onChildChanged(new FirebaseSnapshot(snapshot));
+            }
+
+            @Override
+            public void onChildRemoved(@NonNull DataSnapshot snapshot) {
+                listener.onChildRemoved(new FirebaseSnapshot(snapshot));
+            }
+
+            @Override
+            public void onChildMoved(@NonNull DataSnapshot snapshot, @Nullable String previousChildName) {
+                // Order only; the value change, if any, arrives through onChildChanged.
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        });
+        return () -> target.removeEventListener(firebaseListener);
+    }
+
+    @Override
+    public Registration observeValue(@NonNull String path, @Nullable StorageQuery query, @NonNull ValueListener listener) {
+        Query target = query == null ? ref(path) : toFirebaseQuery(ref(path), query);
+        ValueEventListener firebaseListener = target.addValueEventListener(new ValueEventListener() {
+            @Override
+            public void onDataChange(@NonNull DataSnapshot snapshot) {
+                listener.onValue(new FirebaseSnapshot(snapshot));
+            }
+
+            @Override
+            public void onCancelled(@NonNull DatabaseError error) {
+                listener.onError(error.toException());
+            }
+        });
+        return () -> target.removeEventListener(firebaseListener);
+    }
+
+    /**
+     * Resolves a slash separated path against the database root.
+     */
+    public DatabaseReference ref(@NonNull String path) {
+        return path.isEmpty() ? root : root.child(path);
+    }
+
+    /**
+     * Keeps the node, or the query over it, synced to the local cache in the background.
+     */
+    public void keepSynced(@NonNull String path, @Nullable StorageQuery query, boolean synced) {
+        Query target = query == null ? ref(path) : toFirebaseQuery(ref(path), query);
+        target.keepSynced(synced);
+    }
+
+    private static Query toFirebaseQuery(DatabaseReference ref, StorageQuery q) {
+        Query query = q.order == StorageQuery.Order.KEY ? ref.orderByKey() : ref.orderByChild(q.orderChild);
+
+        if (q.start != null) {
+            query = q.start.inclusive ? startAt(query, q.start) : startAfter(query, q.start);
+        }
+        if (q.end != null) {
+            query = q.end.inclusive ? endAt(query, q.end) : endBefore(query, q.end);
+        }
+        if (q.limitToFirst > 0) query = query.limitToFirst(q.limitToFirst);
+        if (q.limitToLast > 0) query = query.limitToLast(q.limitToLast);
+        return query;
+    }
+
+    // Firebase only exposes typed overloads, so dispatch on the bound's runtime type.
+
+    private static Query startAt(Query query, StorageQuery.Bound b) {
+        if (b.value instanceof Number) return query.startAt(((Number) b.value).doubleValue(), b.key);
+        if (b.value instanceof Boolean) return query.startAt((Boolean) b.value, b.key);
+        return query.startAt(String.valueOf(b.value), b.key);
+    }
+
+    private static Query startAfter(Query query, StorageQuery.Bound b) {
+        if (b.value instanceof Number) return query.startAfter(((Number) b.value).doubleValue(), b.key);
+        if (b.value instanceof Boolean) return query.startAfter((Boolean) b.value, b.key);
+        return query.startAfter(String.valueOf(b.value), b.key);
+    }
+
+    private static Query endAt(Query query, StorageQuery.Bound b) {
+        if (b.value instanceof Number) return query.endAt(((Number) b.value).doubleValue(), b.key);
+        if (b.value instanceof Boolean) return query.endAt((Boolean) b.value, b.key);
+        return query.endAt(String.valueOf(b.value), b.key);
+    }
+
+    private static Query endBefore(Query query, StorageQuery.Bound b) {
+        if (b.value instanceof Number) return query.endBefore(((Number) b.value).doubleValue(), b.key);
+        if (b.value instanceof Boolean) return query.endBefore((Boolean) b.value, b.key);
+        return query.endBefore(String.valueOf(b.value), b.key);
+    }
+}
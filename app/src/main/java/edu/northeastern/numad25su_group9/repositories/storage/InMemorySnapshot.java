@@ -0,0 +1,74 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import edu.northeastern.numad25su_group9.models.ModelCodecs;
+
+/**
+ * {@link StorageSnapshot} over a detached copy of an {@link InMemoryStorageEngine} node.
+ */
+class InMemorySnapshot implements StorageSnapshot {
+    @Nullable private final String key;
+    @Nullable private final Object value;
+
+    InMemorySnapshot(@Nullable String key, @Nullable Object value) {
+        this.key = key;
+        this.value = value;
+    }
+
+    @Nullable
+    @Override
+    public String getKey() { return key; }
+
+    @Override
+    public boolean exists() { return value != null; }
+
+    @Override
+    public boolean hasChildren() { return value instanceof Map && !((Map<?, ?>) value).isEmpty(); }
+
+    @Override
+    public long getChildrenCount() { return value instanceof Map ? ((Map<?, ?>) value).size() : 0; }
+
+    @NonNull
+    @Override
+    public Iterable<StorageSnapshot> getChildren() {
+        if (!(value instanceof Map)) return new ArrayList<>();
+
+        Map<?, ?> map = (Map<?, ?>) value;
+        List<StorageSnapshot> children = new ArrayList<>(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            children.add(new InMemorySnapshot(String.valueOf(entry.getKey()), entry.getValue()));
+        }
+        return children;
+    }
+
+    @NonNull
+    @Override
+    public StorageSnapshot child(@NonNull String path) {
+        String childKey = key;
+        Object node = value;
+        for (String segment : InMemoryStorageEngine.segments(path)) {
+            node = node instanceof Map ? ((Map<?, ?>) node).get(segment) : null;
+            childKey = segment;
+        }
+        return new InMemorySnapshot(childKey, node);
+    }
+
+    @Nullable
+    @Override
+    public Object getValue() { return value; }
+
+    @Nullable
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(@NonNull Class<T> valueType) {
+        ModelCodecs.Decoder<T> decoder = ModelCodecs.decoderFor(valueType);
+        if (decoder == null) return BeanMapper.convert(value, valueType);
+        return value instanceof Map ? decoder.decode((Map<String, Object>) value) : null;
+    }
+}
@@ -0,0 +1,432 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * In-process {@link StorageEngine} that keeps the whole tree in sorted maps.
+ * <p>
+ * Intended for JVM benchmarks and tests of the services layer. Every operation completes
+ * synchronously and returns an already completed {@link Task}, so listeners attached by the
+ * services fire exactly as they would for a Firebase result. Server values
+ * ({@code ServerValue.TIMESTAMP} and {@code ServerValue.increment}) are resolved locally.
+ * Observers are notified on the writing thread, after the write. Like Firebase,
+ * {@link #update} rejects overlapping paths and applies either all of its entries or none.
+ * </p>
+ */
+public class InMemoryStorageEngine implements StorageEngine {
+    private static final String SERVER_VALUE = ".sv";
+
+    private TreeMap<String, Object> root = newNode();
+    private final List<Observer> observers = new ArrayList<>();
+
+    @Override
+    public Task<Void> set(@NonNull String path, @Nullable Object value) {
+        try {
+            synchronized (this) {
+                write(segments(path), value, System.currentTimeMillis());
+            }
+            publish();
+            return Tasks.forResult(null);
+        } catch (RuntimeException e) {
+            return Tasks.forException(e);
+        }
+    }
+
+    @Override
+    public Task<Void> update(@NonNull String path, @NonNull Map<String, Object> updates) {
+        try {
+            synchronized (this) {
+                // Normalize every value before writing any, so a rejected one leaves no partial write.
+                long now = System.currentTimeMillis();
+                List<String[]> paths = new ArrayList<>();
+                List<Object> values = new ArrayList<>();
+                for (Map.Entry<String, Object> entry : updates.entrySet()) {
+                    String[] segments = segments(join(path, entry.getKey()));
+                    for (String[] other : paths) {
+                        if (isPrefix(other, segments) || isPrefix(segments, other)) {
+                            throw new IllegalArgumentException("Update paths overlap: " + entry.getKey());
+                        }
+                    }
+                    paths.add(segments);
+                    values.add(normalize(entry.getValue(), read(segments), now));
+                }
+                for (int i = 0; i < paths.size(); i++) {
+                    replace(paths.get(i), values.get(i));
+                }
+            }
+            publish();
+            return Tasks.forResult(null);
+        } catch (RuntimeException e) {
+            return Tasks.forException(e);
+        }
+    }
+
+    @Override
+    public Task<Void> delete(@NonNull String path) {
+        return set(path, null);
+    }
+
+    @Override
+    public Task<StorageSnapshot> get(@NonNull String path) {
+        String[] segments = segments(path);
+        Object copy;
+        synchronized (this) {
+            copy = copy(read(segments));
+        }
+        return Tasks.forResult(new InMemorySnapshot(lastSegment(segments), copy));
+    }
+
+    @Override
+    public Task<StorageSnapshot> query(@NonNull String path, @NonNull StorageQuery query) {
+        String[] segments = segments(path);
+        Map<String, Object> result = new LinkedHashMap<>();
+
+        synchronized (this) {
+            Object node = read(segments);
+            if (node instanceof Map) {
+                for (Map.Entry<String, Object> entry : select(asNode(node), query)) {
+                    result.put(entry.getKey(), copy(entry.getValue()));
+                }
+            }
+        }
+        return Tasks.forResult(new InMemorySnapshot(lastSegment(segments), result.isEmpty() ? null : result));
+    }
+
+    @Override
+    public Task<Void> runTransaction(@NonNull String path, @NonNull Mutation mutation) {
+        try {
+            synchronized (this) {
+                String[] segments = segments(path);
+                Object updated = mutation.apply(copy(read(segments)));
+                write(segments, updated, System.currentTimeMillis());
+            }
+            publish();
+            return Tasks.forResult(null);
+        } catch (RuntimeException e) {
+            return Tasks.forException(e);
+        }
+    }
+
+    @Override
+    public Registration observeChildren(@NonNull String path, @Nullable StorageQuery query, @NonNull ChildListener listener) {
+        return attach(new Observer(segments(path), query, listener, null));
+    }
+
+    @Override
+    public Registration observeValue(@NonNull String path, @Nullable StorageQuery query, @NonNull ValueListener listener) {
+        return attach(new Observer(segments(path), query, null, listener));
+    }
+
+    /**
+     * Removes all data.
+     */
+    public void clear() {
+        synchronized (this) {
+            root = newNode();
+        }
+        publish();
+    }
+
+    private Registration attach(Observer observer) {
+        List<Runnable> events = new ArrayList<>();
+        synchronized (this) {
+            observers.add(observer);
+            observer.diff(events);
+        }
+        for (Runnable event : events) event.run();
+        return observer;
+    }
+
+    /**
+     * Delivers whatever the last write changed to every observer.
+     */
+    private void publish() {
+        List<Runnable> events = new ArrayList<>();
+        synchronized (this) {
+            for (Observer observer : observers) observer.diff(events);
+        }
+        for (Runnable event : events) event.run();
+    }
+
+    /**
+     * An attached listener and the state it was last told about.
+     */
+    private final class Observer implements Registration {
+        private final String[] segments;
+        @Nullable private final StorageQuery query;
+        @Nullable private final ChildListener childListener;
+        @Nullable private final ValueListener valueListener;
+        // Guarded by the engine lock.
+        private Map<String, Object> lastChildren = Collections.emptyMap();
+        private Object lastValue;
+        private boolean delivered;
+        private volatile boolean removed;
+
+        Observer(String[] segments, @Nullable StorageQuery query,
+                 @Nullable ChildListener childListener, @Nullable ValueListener valueListener) {
+            this.segments = segments;
+            this.query = query;
+            this.childListener = childListener;
+            this.valueListener = valueListener;
+        }
+
+        @Override
+        public void remove() {
+            removed = true;
+            synchronized (InMemoryStorageEngine.this) {
+                observers.remove(this);
+            }
+        }
+
+        /**
+         * Appends the events since the last call to {@code events}. Holds the engine lock.
+         */
+        void diff(List<Runnable> events) {
+            Object node = read(segments);
+            Map<String, Object> children = new LinkedHashMap<>();
+            if (node instanceof Map) {
+                Iterable<Map.Entry<String, Object>> entries = query == null ? asNode(node).entrySet() : select(asNode(node), query);
+                for (Map.Entry<String, Object> entry : entries) {
+                    children.put(entry.getKey(), copy(entry.getValue()));
+                }
+            }
+
+            if (valueListener != null) {
+                Object value = query == null ? copy(node) : (children.isEmpty() ? null : children);
+                if (delivered && Objects.equals(value, lastValue)) return;
+                delivered = true;
+                lastValue = value;
+                StorageSnapshot snapshot = new InMemorySnapshot(lastSegment(segments), copy(value));
+                events.add(() -> {
+                    if (!removed) valueListener.onValue(snapshot);
+                });
+                return;
+            }
+
+            ChildListener listener = childListener;
+            for (Map.Entry<String, Object> entry : lastChildren.entrySet()) {
+                if (children.containsKey(entry.getKey())) continue;
+                StorageSnapshot child = new InMemorySnapshot(entry.getKey(), entry.getValue());
+                events.add(() -> {
+                    if (!removed) listener.onChildRemoved(child);
+                });
+            }
+            for (Map.Entry<String, Object> entry : children.entrySet()) {
+                boolean added = !lastChildren.containsKey(entry.getKey());
+                if (!added && Objects.equals(entry.getValue(), lastChildren.get(entry.getKey()))) continue;
+                StorageSnapshot child = new InMemorySnapshot(entry.getKey(), copy(entry.getValue()));
+                events.add(() -> {
+                    if (removed) return;
+                    if (added) {
+                        listener.onChildAdded(child);
+                    } else {
+                        listener.onChildChanged(child);
+                    }
+                });
+            }
+            lastChildren = children;
+        }
+    }
+
+    // Tree access. Callers must hold the engine lock.
+
+    private Object read(String[] segments) {
+        Object node = root;
+        for (String segment : segments) {
+            if (!(node instanceof Map)) return null;
+            node = ((Map<?, ?>) node).get(segment);
+        }
+        return node;
+    }
+
+    private void write(String[] segments, Object value, long now) {
+        replace(segments, normalize(value, read(segments), now));
+    }
+
+    /**
+     * Stores an already normalized value. Cannot fail.
+     */
+    private void replace(String[] segments, Object normalized) {
+        Object updated = writeAt(root, segments, 0, normalized);
+        root = updated instanceof Map ? asNode(updated) : newNode();
+    }
+
+    /**
+     * Writes {@code value} below {@code node} and returns the new node, pruning empty parents.
+     */
+    private static Object writeAt(Object node, String[] segments, int index, Object value) {
+        if (index == segments.length) return value;
+
+        TreeMap<String, Object> map = node instanceof Map ? asNode(node) : newNode();
+        Object child = writeAt(map.get(segments[index]), segments, index + 1, value);
+        if (child == null) {
+            map.remove(segments[index]);
+        } else {
+            map.put(segments[index], child);
+        }
+        return map.isEmpty() ? null : map;
+    }
+
+    /**
+     * Converts a written value to the stored representation: nested sorted maps with
+     * {@link Long}, {@link Double}, {@link String} and {@link Boolean} leaves.
+     */
+    private static Object normalize(Object value, Object existing, long now) {
+        if (value == null) return null;
+
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map.containsKey(SERVER_VALUE)) {
+                return resolveServerValue(map.get(SERVER_VALUE), existing, now);
+            }
+            TreeMap<String, Object> node = newNode();
+            Map<?, ?> existingMap = existing instanceof Map ? (Map<?, ?>) existing : Collections.emptyMap();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                Object child = normalize(entry.getValue(), existingMap.get(key), now);
+                if (child != null) node.put(key, child);
+            }
+            return node.isEmpty() ? null : node;
+        }
+
+        if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            Map<String, Object> indexed = new LinkedHashMap<>();
+            for (int i = 0; i < list.size(); i++) {
+                indexed.put(String.valueOf(i), list.get(i));
+            }
+            return normalize(indexed, existing, now);
+        }
+
+        if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            // Firebase returns whole doubles as longs.
+            if (d == Math.rint(d) && !Double.isInfinite(d) && Math.abs(d) < Long.MAX_VALUE) return (long) d;
+            return d;
+        }
+        if (value instanceof Number) return ((Number) value).longValue();
+        if (value instanceof String || value instanceof Boolean) return value;
+
+        throw new IllegalArgumentException("Unsupported value type " + value.getClass().getName());
+    }
+
+    private static Object resolveServerValue(Object op, Object existing, long now) {
+        if ("timestamp".equals(op)) return now;
+
+        if (op instanceof Map && ((Map<?, ?>) op).get("increment") instanceof Number) {
+            Number delta = (Number) ((Map<?, ?>) op).get("increment");
+            if (existing instanceof Long && (delta instanceof Long || delta instanceof Integer)) {
+                return (Long) existing + delta.longValue();
+            }
+            double base = existing instanceof Number ? ((Number) existing).doubleValue() : 0;
+            return normalize(base + delta.doubleValue(), null, now);
+        }
+
+        throw new IllegalArgumentException("Unsupported server value " + op);
+    }
+
+    private static List<Map.Entry<String, Object>> select(TreeMap<String, Object> node, StorageQuery query) {
+        List<Map.Entry<String, Object>> matches = new ArrayList<>();
+        for (Map.Entry<String, Object> entry : node.entrySet()) {
+            if (inRange(entry, query)) matches.add(entry);
+        }
+
+        if (query.order == StorageQuery.Order.CHILD) {
+            // Stable sort keeps key order for equal values.
+            matches.sort((a, b) -> StorageOrder.compareValues(
+                    orderValue(a, query), orderValue(b, query)));
+        }
+
+        if (query.limitToFirst > 0 && matches.size() > query.limitToFirst) {
+            matches = matches.subList(0, query.limitToFirst);
+        }
+        if (query.limitToLast > 0 && matches.size() > query.limitToLast) {
+            matches = matches.subList(matches.size() - query.limitToLast, matches.size());
+        }
+        return matches;
+    }
+
+    private static boolean inRange(Map.Entry<String, Object> entry, StorageQuery query) {
+        if (query.start != null && compareToBound(entry, query, query.start) < (query.start.inclusive ? 0 : 1)) {
+            return false;
+        }
+        return query.end == null || compareToBound(entry, query, query.end) <= (query.end.inclusive ? 0 : -1);
+    }
+
+    private static int compareToBound(Map.Entry<String, Object> entry, StorageQuery query, StorageQuery.Bound bound) {
+        if (query.order == StorageQuery.Order.KEY) {
+            return StorageOrder.compareKeys(entry.getKey(), String.valueOf(bound.value));
+        }
+        int c = StorageOrder.compareValues(orderValue(entry, query), bound.value);
+        if (c == 0 && bound.key != null) {
+            c = StorageOrder.compareKeys(entry.getKey(), bound.key);
+        }
+        return c;
+    }
+
+    private static Object orderValue(Map.Entry<String, Object> entry, StorageQuery query) {
+        Object node = entry.getValue();
+        for (String segment : segments(query.orderChild)) {
+            node = node instanceof Map ? ((Map<?, ?>) node).get(segment) : null;
+        }
+        return node;
+    }
+
+    /**
+     * Deep copies a node so snapshots stay detached from later writes.
+     */
+    private static Object copy(Object node) {
+        if (!(node instanceof Map)) return node;
+
+        TreeMap<String, Object> copy = newNode();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+            copy.put(String.valueOf(entry.getKey()), copy(entry.getValue()));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TreeMap<String, Object> asNode(Object node) {
+        return (TreeMap<String, Object>) node;
+    }
+
+    private static TreeMap<String, Object> newNode() {
+        return new TreeMap<>(StorageOrder.KEY_ORDER);
+    }
+
+    static String[] segments(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) segments.add(segment);
+        }
+        return segments.toArray(new String[0]);
+    }
+
+    private static boolean isPrefix(String[] prefix, String[] segments) {
+        if (prefix.length > segments.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (!prefix[i].equals(segments[i])) return false;
+        }
+        return true;
+    }
+
+    private static String join(String path, String child) {
+        return path.isEmpty() ? child : path + "/" + child;
+    }
+
+    private static String lastSegment(String[] segments) {
+        return segments.length == 0 ? null : segments[segments.length - 1];
+    }
+}
@@ -0,0 +1,107 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+/**
+ * Configuration for {@link FirebasePersistence}: whether the on-disk cache is enabled, how
+ * large it may grow, and which per-user subtrees are kept synced.
+ */
+public class PersistencePolicy {
+    /** Firebase rejects cache sizes outside this range. */
+    public static final long MIN_CACHE_SIZE_BYTES = 1024L * 1024;
+    public static final long MAX_CACHE_SIZE_BYTES = 100L * 1024 * 1024;
+
+    private final boolean persistenceEnabled;
+    private final long cacheSizeBytes;
+    private final int spendingMonthsSynced;
+    private final boolean latestBudgetSynced;
+    private final boolean categoriesSynced;
+    private final boolean transactionMonthsSynced;
+
+    private PersistencePolicy(Builder builder) {
+        this.persistenceEnabled = builder.persistenceEnabled;
+        this.cacheSizeBytes = builder.cacheSizeBytes;
+        this.spendingMonthsSynced = builder.spendingMonthsSynced;
+        this.latestBudgetSynced = builder.latestBudgetSynced;
+        this.categoriesSynced = builder.categoriesSynced;
+        this.transactionMonthsSynced = builder.transactionMonthsSynced;
+    }
+
+    public static PersistencePolicy defaults() {
+        return new Builder().build();
+    }
+
+    public boolean isPersistenceEnabled() {
+        return persistenceEnabled;
+    }
+
+    public long getCacheSizeBytes() {
+        return cacheSizeBytes;
+    }
+
+    /**
+     * @return How many months of spendings, counting back from the current one, stay synced
+     */
+    public int getSpendingMonthsSynced() {
+        return spendingMonthsSynced;
+    }
+
+    public boolean isLatestBudgetSynced() {
+        return latestBudgetSynced;
+    }
+
+    public boolean isCategoriesSynced() {
+        return categoriesSynced;
+    }
+
+    /**
+     * @return Whether the manifest of transaction month buckets stays synced
+     */
+    public boolean isTransactionMonthsSynced() {
+        return transactionMonthsSynced;
+    }
+
+    public static class Builder {
+        private boolean persistenceEnabled = true;
+        private long cacheSizeBytes = 10L * 1024 * 1024;
+        private int spendingMonthsSynced = 2;
+        private boolean latestBudgetSynced = true;
+        private boolean categoriesSynced = true;
+        private boolean transactionMonthsSynced = true;
+
+        public Builder setPersistenceEnabled(boolean persistenceEnabled) {
+            this.persistenceEnabled = persistenceEnabled;
+            return this;
+        }
+
+        /**
+         * Clamped to the range Firebase accepts.
+         */
+        public Builder setCacheSizeBytes(long cacheSizeBytes) {
+            this.cacheSizeBytes = Math.max(MIN_CACHE_SIZE_BYTES, Math.min(MAX_CACHE_SIZE_BYTES, cacheSizeBytes));
+            return this;
+        }
+
+        public Builder setSpendingMonthsSynced(int spendingMonthsSynced) {
+            this.spendingMonthsSynced = Math.max(0, spendingMonthsSynced);
+            return this;
+        }
+
+        public Builder setLatestBudgetSynced(boolean latestBudgetSynced) {
+            this.latestBudgetSynced = latestBudgetSynced;
+            return this;
+        }
+
+        public Builder setCategoriesSynced(boolean categoriesSynced) {
+            this.categoriesSynced = categoriesSynced;
+            return this;
+        }
+
+        public Builder setTransactionMonthsSynced(boolean transactionMonthsSynced) {
+            this.transactionMonthsSynced = transactionMonthsSynced;
+            return this;
+        }
+
+        public PersistencePolicy build() {
+            return new PersistencePolicy(this);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.Map;
+
+/**
+ * Storage backend used by every repository.
+ * <p>
+ * Paths are slash separated and relative to the root of the database
+ * (e.g. {@code transactions/{uid}/{id}}). Values follow the Firebase Realtime Database
+ * data model: nested {@link Map}s of {@link String}, {@link Long}, {@link Double} and
+ * {@link Boolean} leaves, where writing {@code null} removes the node.
+ * </p>
+ */
+public interface StorageEngine {
+
+    /**
+     * Atomically computes a new value for a node from its current value.
+     */
+    interface Mutation {
+        /**
+         * @param current The current value of the node or {@code null} if it does not exist
+         * @return The new value of the node, or {@code null} to remove it
+         */
+        @Nullable
+        Object apply(@Nullable Object current);
+    }
+
+    /**
+     * Receives the changes to the children of an observed node or query.
+     * Children present when the listener is attached are delivered as added.
+     */
+    interface ChildListener {
+        void onChildAdded(@NonNull StorageSnapshot child);
+
+        void onChildChanged(@NonNull StorageSnapshot child);
+
+        void onChildRemoved(@NonNull StorageSnapshot child);
+
+        void onError(@NonNull Exception e);
+    }
+
+    /**
+     * Receives the value of an observed node or query once attached and after every change.
+     */
+    interface ValueListener {
+        void onValue(@NonNull StorageSnapshot snapshot);
+
+        void onError(@NonNull Exception e);
+    }
+
+    /**
+     * An attached listener.
+     */
+    interface Registration {
+        /**
+         * Detaches the listener. No events are delivered afterwards.
+         */
+        void remove();
+    }
+
+    /**
+     * Replaces the value at the given path.
+     */
+    Task<Void> set(@NonNull String path, @Nullable Object value);
+
+    /**
+     * Updates the children of the given path. Keys may themselves be slash separated
+     * paths, in which case all of them are written atomically.
+     */
+    Task<Void> update(@NonNull String path, @NonNull Map<String, Object> updates);
+
+    /**
+     * Removes the node at the given path.
+     */
+    Task<Void> delete(@NonNull String path);
+
+    /**
+     * Reads the node at the given path.
+     */
+    Task<StorageSnapshot> get(@NonNull String path);
+
+    /**
+     * Reads the children of the given path that match the query, in query order.
+     */
+    Task<StorageSnapshot> query(@NonNull String path, @NonNull StorageQuery query);
+
+    /**
+     * Runs a read-modify-write cycle on the node at the given path.
+     */
+    Task<Void> runTransaction(@NonNull String path, @NonNull Mutation mutation);
+
+    /**
+     * Observes the children of the given path, or of the query over it when {@code query} is
+     * not {@code null}.
+     */
+    Registration observeChildren(@NonNull String path, @Nullable StorageQuery query, @NonNull ChildListener listener);
+
+    /**
+     * Observes the value of the given path, or of the query over it when {@code query} is not
+     * {@code null}.
+     */
+    Registration observeValue(@NonNull String path, @Nullable StorageQuery query, @NonNull ValueListener listener);
+}
@@ -0,0 +1,78 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * Firebase Realtime Database ordering rules, used by {@link InMemoryStorageEngine}.
+ */
+final class StorageOrder {
+
+    /**
+     * Keys that parse as 32-bit integers come first in numeric order,
+     * followed by all other keys in lexicographic order.
+     */
+    static final Comparator<String> KEY_ORDER = StorageOrder::compareKeys;
+
+    private StorageOrder() {
+        // Prevent instantiation
+    }
+
+    static int compareKeys(String a, String b) {
+        Integer ia = tryParseInt(a);
+        Integer ib = tryParseInt(b);
+        if (ia != null && ib != null) {
+            int c = Integer.compare(ia, ib);
+            return c != 0 ? c : Integer.compare(a.length(), b.length());
+        }
+        if (ia != null) return -1;
+        if (ib != null) return 1;
+        return a.compareTo(b);
+    }
+
+    /**
+     * Orders values as null, false, true, numbers, strings, then objects.
+     * Objects compare equal to each other so that the key decides.
+     */
+    static int compareValues(Object a, Object b) {
+        int ra = rank(a);
+        int rb = rank(b);
+        if (ra != rb) return Integer.compare(ra, rb);
+
+        switch (ra) {
+            case 1:
+                return Boolean.compare((Boolean) a, (Boolean) b);
+            case 2:
+                return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+            case 3:
+                return ((String) a).compareTo((String) b);
+            default:
+                return 0;
+        }
+    }
+
+    private static int rank(Object value) {
+        if (value == null) return 0;
+        if (value instanceof Boolean) return 1;
+        if (value instanceof Number) return 2;
+        if (value instanceof String) return 3;
+        if (value instanceof Map) return 4;
+        return 4;
+    }
+
+    private static Integer tryParseInt(String key) {
+        if (key.isEmpty() || key.length() > 11) return null;
+        // Firebase treats "007" as a string key, not as 7.
+        if (key.length() > 1 && (key.charAt(0) == '0' || key.startsWith("-0"))) return null;
+        // Most keys are not numbers; rule them out without the cost of an exception.
+        for (int i = key.charAt(0) == '-' ? 1 : 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') return null;
+        }
+        try {
+            return Integer.parseInt(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
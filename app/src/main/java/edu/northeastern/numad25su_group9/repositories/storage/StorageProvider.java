@@ -0,0 +1,34 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import androidx.annotation.NonNull;
+
+import com.google.firebase.database.FirebaseDatabase;
+
+/**
+ * Holds the process-wide {@link StorageEngine} used by repositories.
+ * <p>
+ * Defaults to Firebase. Benchmarks and tests swap in an {@link InMemoryStorageEngine}
+ * through {@link #setEngine(StorageEngine)} before constructing any service.
+ * </p>
+ */
+public final class StorageProvider {
+    private static StorageEngine engine;
+
+    private StorageProvider() {
+        // Prevent instantiation
+    }
+
+    public static synchronized StorageEngine getEngine() {
+        if (engine == null) {
+            engine = new FirebaseStorageEngine(FirebaseDatabase.getInstance().getReference());
+        }
+        return engine;
+    }
+
+    /**
+     * Replaces the engine. Repositories created earlier keep the engine they were built with.
+     */
+    public static synchronized void setEngine(@NonNull StorageEngine storageEngine) {
+        engine = storageEngine;
+    }
+}
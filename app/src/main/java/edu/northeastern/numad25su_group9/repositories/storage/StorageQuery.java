@@ -0,0 +1,126 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Ordered range query over the children of a node.
+ * <p>
+ * Mirrors the Firebase {@code Query} API: pick an ordering with {@link #orderByKey()} or
+ * {@link #orderByChild(String)}, then narrow it with range bounds and a limit.
+ * </p>
+ */
+public final class StorageQuery {
+
+    enum Order { KEY, CHILD }
+
+    /** One end of a range. {@code key} breaks ties between children with equal values. */
+    static final class Bound {
+        final Object value;
+        @Nullable final String key;
+        final boolean inclusive;
+
+        Bound(Object value, @Nullable String key, boolean inclusive) {
+            this.value = value;
+            this.key = key;
+            this.inclusive = inclusive;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return (inclusive ? "=" : "") + value + (key == null ? "" : "," + key);
+        }
+    }
+
+    final Order order;
+    @Nullable final String orderChild;
+    @Nullable Bound start;
+    @Nullable Bound end;
+    int limitToFirst;
+    int limitToLast;
+
+    private StorageQuery(Order order, @Nullable String orderChild) {
+        this.order = order;
+        this.orderChild = orderChild;
+    }
+
+    /** Orders children by their key. */
+    public static StorageQuery orderByKey() {
+        return new StorageQuery(Order.KEY, null);
+    }
+
+    /** Orders children by the value of the given (possibly nested) child path. */
+    public static StorageQuery orderByChild(@NonNull String path) {
+        return new StorageQuery(Order.CHILD, path);
+    }
+
+    public StorageQuery startAt(Object value) { return startAt(value, null); }
+    public StorageQuery startAt(Object value, @Nullable String key) {
+        this.start = new Bound(value, key, true);
+        return this;
+    }
+
+    public StorageQuery startAfter(Object value) { return startAfter(value, null); }
+    public StorageQuery startAfter(Object value, @Nullable String key) {
+        this.start = new Bound(value, key, false);
+        return this;
+    }
+
+    public StorageQuery endAt(Object value) { return endAt(value, null); }
+    public StorageQuery endAt(Object value, @Nullable String key) {
+        this.end = new Bound(value, key, true);
+        return this;
+    }
+
+    public StorageQuery endBefore(Object value) { return endBefore(value, null); }
+    public StorageQuery endBefore(Object value, @Nullable String key) {
+        this.end = new Bound(value, key, false);
+        return this;
+    }
+
+    public StorageQuery equalTo(Object value) {
+        return startAt(value).endAt(value);
+    }
+
+    public StorageQuery limitToFirst(int limit) {
+        this.limitToFirst = limit;
+        return this;
+    }
+
+    public StorageQuery limitToLast(int limit) {
+        this.limitToLast = limit;
+        return this;
+    }
+
+    public boolean isOrderedByKey() {
+        return order == Order.KEY;
+    }
+
+    /**
+     * @return The {@link #limitToFirst(int)} limit, or 0 if there is none
+     */
+    public int getLimitToFirst() {
+        return limitToFirst;
+    }
+
+    /**
+     * @return The {@link #limitToLast(int)} limit, or 0 if there is none
+     */
+    public int getLimitToLast() {
+        return limitToLast;
+    }
+
+    /**
+     * Canonical description of the query, stable across equal queries.
+     */
+    @NonNull
+    @Override
+    public String toString() {
+        return "orderBy=" + (order == Order.KEY ? "$key" : orderChild)
+                + "&start" + start
+                + "&end" + end
+                + "&first=" + limitToFirst
+                + "&last=" + limitToLast;
+    }
+}
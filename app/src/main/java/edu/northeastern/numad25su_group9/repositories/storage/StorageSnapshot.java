@@ -0,0 +1,48 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Immutable view of a node returned by a {@link StorageEngine}.
+ * Mirrors the subset of {@code DataSnapshot} used by the services layer.
+ */
+public interface StorageSnapshot {
+
+    /**
+     * @return The last segment of the node path, or {@code null} for the root
+     */
+    @Nullable
+    String getKey();
+
+    boolean exists();
+
+    boolean hasChildren();
+
+    long getChildrenCount();
+
+    /**
+     * @return The children of this node, in key order or in query order for query results
+     */
+    @NonNull
+    Iterable<StorageSnapshot> getChildren();
+
+    /**
+     * @return Snapshot of the given relative path; never {@code null}, but may not exist
+     */
+    @NonNull
+    StorageSnapshot child(@NonNull String path);
+
+    /**
+     * @return The raw value of this node ({@code Map}, {@code String}, {@code Long},
+     * {@code Double}, {@code Boolean}) or {@code null}
+     */
+    @Nullable
+    Object getValue();
+
+    /**
+     * Maps the value of this node onto the given model class.
+     */
+    @Nullable
+    <T> T getValue(@NonNull Class<T> valueType);
+}
@@ -2,18 +2,23 @@ package edu.northeastern.numad25su_group9.services;
 
 import android.util.Log;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.auth.UserProfileChangeRequest;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import edu.northeastern.numad25su_group9.models.Budget;
 import edu.northeastern.numad25su_group9.models.Category;
 import edu.northeastern.numad25su_group9.models.Types.Theme;
 import edu.northeastern.numad25su_group9.models.User;
+import edu.northeastern.numad25su_group9.repositories.RepositoryCache;
 
 /**
  * Uses Firebase Authentication to authenticate users and maintain server-side sessions.
@@ -26,6 +31,7 @@ import edu.northeastern.numad25su_group9.models.User;
  */
 public class AuthService {
     private static final String TAG = "AuthService";
+    private static final List<Runnable> SIGN_OUT_LISTENERS = new CopyOnWriteArrayList<>();
     private final FirebaseAuth mAuth;
 
     public AuthService() {
@@ -37,102 +43,74 @@ public class AuthService {
         void onFailure(Exception e);
     }
 
-    public void login(String email, String password, AuthCallback callback) {
+    public Task<FirebaseUser> login(String email, String password) {
         Log.d(TAG, "Attempting login for: " + email);
-        mAuth.signInWithEmailAndPassword(email, password)
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        Log.d(TAG, "Login successful.");
-                        callback.onSuccess(mAuth.getCurrentUser());
-                    } else {
-                        Log.e(TAG, "Login failed: ", task.getException());
-                        callback.onFailure(task.getException());
-                    }
-                });
+        return mAuth.signInWithEmailAndPassword(email, password)
+                .onSuccessTask(result -> {
+                    Log.d(TAG, "Login successful.");
+                    return Tasks.forResult(mAuth.getCurrentUser());
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Login failed: ", e));
+    }
+
+    public void login(String email, String password, AuthCallback callback) {
+        deliver(login(email, password), callback);
+    }
+
+    public Task<FirebaseUser> signInAnonymously() {
+        return mAuth.signInAnonymously()
+                .onSuccessTask(result -> Tasks.forResult(mAuth.getCurrentUser()));
     }
 
     public void signInAnonymously(AuthCallback callback) {
-        mAuth.signInAnonymously()
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        callback.onSuccess(mAuth.getCurrentUser());
-                    } else {
-                        callback.onFailure(task.getException());
-                    }
-                });
+        deliver(signInAnonymously(), callback);
     }
 
-    public void signup(String email, String displayName, String password, AuthCallback callback) {
+    /**
+     * Creates the account, then writes the user profile and seeds the default categories and
+     * budget. Succeeds only once ALL database writes have succeeded.
+     */
+    public Task<FirebaseUser> signup(String email, String displayName, String password) {
         Log.d(TAG, "Attempting signup for: " + email);
-        mAuth.createUserWithEmailAndPassword(email, password)
-                .addOnCompleteListener(task -> {
-                    if (task.isSuccessful()) {
-                        Log.d(TAG, "Signup successful.");
-                        // Push data to Users table.
-                        FirebaseUser firebaseUser = mAuth.getCurrentUser();
-                        if (firebaseUser == null) {
-                            callback.onFailure(new IllegalStateException("Firebase user is null after signup"));
-                            return;
-                        }
-
-                        // Build domain user
-                        firebaseUser.updateProfile(new UserProfileChangeRequest.Builder()
-                            .setDisplayName(displayName).build());
-                        User user = new User();
-                        user.setEmail(firebaseUser.getEmail());
-                        user.setDisplayName(displayName);
-                        user.setTheme(String.valueOf(Theme.LIGHT));
-                        // False for new user
-                        user.setLocationAlerts(false);
-                        user.setAnonymous(false);
-
-                        UserService userService = new UserService(firebaseUser.getUid());
-                        userService.upsertUser(user, new UserService.OperationCallback() {
-                            @Override public void onSuccess() {
-                                // 2. Seed default categories
-                                seedDefaultCategories(firebaseUser.getUid(), new UserService.OperationCallback() {
-                                    @Override public void onSuccess() {
-                                        Log.d(TAG, "Default categories seeded successfully. Seeding default budget.");
-                                        // 3. Seed default budget
-                                        seedDefaultBudget(firebaseUser.getUid(), new UserService.OperationCallback() {
-                                            @Override public void onSuccess() {
-                                                Log.d(TAG, "Default budget seeded successfully. Signup complete.");
-                                                // Only report auth success once ALL DB writes have succeeded
-                                                callback.onSuccess(firebaseUser);
-                                            }
-
-                                            @Override public void onError(Exception e) {
-                                                Log.e(TAG, "Seeding default budget failed", e);
-                                                callback.onFailure(e);
-                                            }
-                                        });
-                                    }
-
-                                    @Override public void onError(Exception e) {
-                                        Log.e(TAG, "Seeding default categories failed", e);
-                                        callback.onFailure(e);
-                                    }
-                                });
-                            }
-
-                            @Override public void onError(Exception e) {
-                                Log.e(TAG, "Upsert user failed", e);
-                                callback.onFailure(e);
-                            }
-                        });
-                    } else {
-                        Log.e(TAG, "Signup failed: ", task.getException());
-                        callback.onFailure(task.getException());
+        return mAuth.createUserWithEmailAndPassword(email, password)
+                .onSuccessTask(result -> {
+                    Log.d(TAG, "Signup successful.");
+                    // Push data to Users table.
+                    FirebaseUser firebaseUser = mAuth.getCurrentUser();
+                    if (firebaseUser == null) {
+                        return Tasks.forException(new IllegalStateException("Firebase user is null after signup"));
                     }
-                });
+
+                    // Build domain user
+                    firebaseUser.updateProfile(new UserProfileChangeRequest.Builder()
+                        .setDisplayName(displayName).build());
+                    User user = new User();
+                    user.setEmail(firebaseUser.getEmail());
+                    user.setDisplayName(displayName);
+                    user.setTheme(String.valueOf(Theme.LIGHT));
+                    // False for new user
+                    user.setLocationAlerts(false);
+                    user.setAnonymous(false);
+
+                    return new UserService(firebaseUser.getUid()).upsertUser(user)
+                            // Categories and budget are independent, so seed them in parallel.
+                            .onSuccessTask(unused -> Tasks.whenAll(seedDefaultCategories(), seedDefaultBudget()))
+                            .onSuccessTask(unused -> {
+                                Log.d(TAG, "Default categories and budget seeded successfully. Signup complete.");
+                                return Tasks.forResult(firebaseUser);
+                            });
+                })
+                .addOnFailureListener(e -> Log.e(TAG, "Signup failed: ", e));
+    }
+
+    public void signup(String email, String displayName, String password, AuthCallback callback) {
+        deliver(signup(email, displayName, password), callback);
     }
 
     /**
-     * Seeds default categories for a new user.
-     * @param userId The UID of the new user.
-     * @param callback Callback for operation success/failure.
+     * Seeds default categories for the new, now current, user.
      */
-    private void seedDefaultCategories(String userId, UserService.OperationCallback callback) {
+    private Task<Void> seedDefaultCategories() {
         CategoryService categoryService = new CategoryService();
 
         // Define common default categories
@@ -140,42 +118,21 @@ public class AuthService {
                 "Food", "Transportation", "Shopping", "Entertainment", "Utilities", "Rent"
         );
 
-        // Chain additions or use a counter for multiple async ops if needed.
-        // For simplicity, we'll iterate and use a simple callback for each.
-        // A more robust solution might track completion of all additions.
-        final int[] categoriesAdded = {0};
-        final int totalCategories = defaultCategoryNames.size();
-
+        List<Task<Void>> additions = new ArrayList<>();
         for (String name : defaultCategoryNames) {
             Category category = new Category();
             category.setName(name);
-            // Assuming CategoryService supports adding for a specific user ID
-            categoryService.addCategory(category, new CategoryService.OperationCallback() {
-                @Override
-                public void onSuccess() {
-                    categoriesAdded[0]++;
-                    if (categoriesAdded[0] == totalCategories) {
-                        callback.onSuccess();
-                    }
-                }
-
-                @Override
-                public void onError(Exception e) {
-                    Log.e(TAG, "Failed to add default category " + name + ": " + e.getMessage(), e);
-                    // Decide how to handle individual category failures: fail whole operation or continue
-                    callback.onError(e); // Propagate first error
-                }
-            });
+            additions.add(categoryService.addCategory(category)
+                    .addOnFailureListener(e -> Log.e(TAG, "Failed to add default category " + name + ": " + e.getMessage(), e)));
         }
+        // Fails with the first error.
+        return Tasks.whenAll(additions);
     }
 
-
     /**
-     * Seeds a default budget for a new user for the current month.
-     * @param userId The UID of the new user.
-     * @param callback Callback for operation success/failure.
+     * Seeds a default budget for the new, now current, user for the current month.
      */
-    private void seedDefaultBudget(String userId, UserService.OperationCallback callback) {
+    private Task<Void> seedDefaultBudget() {
         BudgetService budgetService = new BudgetService();
 
         double defaultBudgetAmount = 0.00;
@@ -185,18 +142,13 @@ public class AuthService {
                 .setMonthDateLocal(LocalDateTime.now()) // Set the current date/time for local reference
                 .build();
 
-        budgetService.updateBudget(defaultBudget, new BudgetService.OperationCallback() {
-            @Override
-            public void onSuccess() {
-                callback.onSuccess();
-            }
-
-            @Override
-            public void onError(Exception e) {
-                Log.e(TAG, "Failed to seed default budget: " + e.getMessage(), e);
-                callback.onError(e);
-            }
-        });
+        return budgetService.updateBudget(defaultBudget)
+                .addOnFailureListener(e -> Log.e(TAG, "Failed to seed default budget: " + e.getMessage(), e));
+    }
+
+    private static void deliver(Task<FirebaseUser> task, AuthCallback callback) {
+        task.addOnSuccessListener(callback::onSuccess)
+                .addOnFailureListener(callback::onFailure);
     }
 
     /**
@@ -233,8 +185,20 @@ public class AuthService {
         return mAuth.getCurrentUser().getUid();
     }
 
+    /**
+     * Registers {@code listener} to run after every {@link #signOut()}, e.g. to drop state
+     * that belongs to the user.
+     */
+    public static void addSignOutListener(Runnable listener) {
+        SIGN_OUT_LISTENERS.add(listener);
+    }
+
     public void signOut() {
         Log.d(TAG, "Signing out user");
         mAuth.signOut();
+        RepositoryCache.getInstance().clear();
+        for (Runnable listener : SIGN_OUT_LISTENERS) {
+            listener.run();
+        }
     }
 }
@@ -2,7 +2,8 @@ package edu.northeastern.numad25su_group9.services;
 
 import android.util.Log;
 
-import com.google.firebase.database.DataSnapshot;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -11,7 +12,13 @@ import java.util.List;
 
 import edu.northeastern.numad25su_group9.models.Budget;
 import edu.northeastern.numad25su_group9.repositories.BudgetRepository;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
+/**
+ * Every operation returns a {@link Task}; the callback overloads adapt those tasks.
+ * The observe methods call their callback on every change until the registration is removed.
+ */
 public class BudgetService {
 
     public static final String TAG = "BudgetService";
@@ -23,91 +30,164 @@ public class BudgetService {
     private final BudgetRepository repo;
 
     public BudgetService() {
-        String userId = new AuthService().getCurrentUserId();
+        this(new AuthService().getCurrentUserId());
+    }
+
+    public BudgetService(String userId) {
         this.repo = new BudgetRepository(userId);
     }
 
+    public Task<Void> addBudget(Budget b) {
+        return repo.addBudget(b);
+    }
+
     public void addBudget(Budget b, OperationCallback cb) {
-        repo.addBudget(b)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(addBudget(b), cb);
+    }
+
+    public Task<Void> updateBudget(Budget updates) {
+        return repo.updateBudget(updates);
     }
 
     public void updateBudget(Budget updates, OperationCallback cb) {
-        repo.updateBudget(updates)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(updateBudget(updates), cb);
+    }
+
+    public Task<Void> deleteBudget(int year, int month) {
+        return repo.deleteBudget(year, month);
     }
 
     public void deleteBudget(int year, int month, OperationCallback cb) {
-        repo.deleteBudget(year, month)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(deleteBudget(year, month), cb);
     }
 
     /**
      * Get budget for a given month.
      */
-    public void getBudgetForMonth(int year, int month, BudgetCallback cb) {
+    public Task<Budget> getBudgetForMonth(int year, int month) {
         Log.d(TAG, "Getting budget for month " + year + "-" + month);
-        repo.getBudgetForMonth(year, month)
-                .addOnSuccessListener(snap -> {
+        return repo.getBudgetForMonth(year, month)
+                .onSuccessTask(snap -> {
                     if (!snap.exists()) {
-                        cb.onError(new Exception("Budget for given month does not exist"));
-                        return;
+                        return Tasks.forException(new Exception("Budget for given month does not exist"));
                     }
-                    Budget b = snap.getValue(Budget.class);
-                    if (b != null) cb.onSuccess(b); else cb.onError(new Exception("Budget data invalid"));
-                })
-                .addOnFailureListener(cb::onError);
+                    return toBudget(snap);
+                });
+    }
+
+    public void getBudgetForMonth(int year, int month, BudgetCallback cb) {
+        deliver(getBudgetForMonth(year, month), cb);
     }
 
     /**
      * Get all budgets for user for a given year.
      * HINT: This is for plotting budget graph.
      */
+    public Task<List<Budget>> getAllBudgetsForYear(int year) {
+        long[] range = yearRange(year);
+        return repo.getBudgetsByDateRange(range[0], range[1])
+                .onSuccessTask(snap -> Tasks.forResult(toBudgets(snap)));
+    }
+
     public void getAllBudgetsForYear(int year, BudgetsCallback cb) {
-        // First day of the year at 00:00 UTC
-        LocalDateTime start = LocalDateTime.of(year, 1, 1, 0, 0);
-        // Last nanosecond of the year
-        LocalDateTime end = start.plusYears(1).minusNanos(1);
+        getAllBudgetsForYear(year)
+                .addOnSuccessListener(cb::onSuccess)
+                .addOnFailureListener(cb::onError);
+    }
 
-        long startMillis = start.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
-        long endMillis = end.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+    /**
+     * Live version of {@link #getAllBudgetsForYear(int)}.
+     */
+    public StorageEngine.Registration observeAllBudgetsForYear(int year, BudgetsCallback cb) {
+        long[] range = yearRange(year);
+        return repo.observeBudgetsByDateRange(range[0], range[1], new StorageEngine.ValueListener() {
+            @Override
+            public void onValue(StorageSnapshot snapshot) {
+                cb.onSuccess(toBudgets(snapshot));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
 
-        repo.getBudgetsByDateRange(startMillis, endMillis)
-                .addOnSuccessListener(snap -> {
-                    // Return default value
-                    if (!snap.exists() || !snap.hasChildren()) {
-                        cb.onSuccess(new ArrayList<>());
-                        return;
-                    }
-                    List<Budget> out = new ArrayList<>();
-                    for (DataSnapshot child : snap.getChildren()) {
-                        Budget b = child.getValue(Budget.class);
-                        if (b != null) out.add(b);
-                    }
-                    cb.onSuccess(out);
-                })
-                .addOnFailureListener(cb::onError);
+    /**
+     * Live version of {@link #getBudgetForMonth(int, int)}. A month without a budget is
+     * reported through {@link BudgetCallback#onError(Exception)}, as there.
+     */
+    public StorageEngine.Registration observeBudgetForMonth(int year, int month, BudgetCallback cb) {
+        return repo.observeBudgetForMonth(year, month, new StorageEngine.ValueListener() {
+            @Override
+            public void onValue(StorageSnapshot snapshot) {
+                Budget b = snapshot.exists() ? snapshot.getValue(Budget.class) : null;
+                if (b != null) {
+                    cb.onSuccess(b);
+                } else {
+                    cb.onError(new Exception(snapshot.exists()
+                            ? "Budget data invalid" : "Budget for given month does not exist"));
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
     }
 
     /**
      * Get latest budget for user.
-     * Throws an exception if no budget exists for the user.
+     * Fails if no budget exists for the user.
      */
-    public void getLatestBudget(BudgetCallback cb) {
-        repo.getLatestBudget()
-                .addOnSuccessListener(snap -> {
+    public Task<Budget> getLatestBudget() {
+        return repo.getLatestBudget()
+                .onSuccessTask(snap -> {
                     if (!snap.exists() || !snap.hasChildren()) {
-                        cb.onError(new Exception("Budget for given user does not exist"));
-                        return;
+                        return Tasks.forException(new Exception("Budget for given user does not exist"));
                     }
+                    return toBudget(snap.getChildren().iterator().next());
+                });
+    }
+
+    public void getLatestBudget(BudgetCallback cb) {
+        deliver(getLatestBudget(), cb);
+    }
+
+    /** First and last millisecond of the year in UTC. */
+    private static long[] yearRange(int year) {
+        // First day of the year at 00:00 UTC
+        LocalDateTime start = LocalDateTime.of(year, 1, 1, 0, 0);
+        // Last nanosecond of the year
+        LocalDateTime end = start.plusYears(1).minusNanos(1);
+        return new long[]{
+                start.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli(),
+                end.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli()
+        };
+    }
+
+    private static List<Budget> toBudgets(StorageSnapshot snap) {
+        List<Budget> out = new ArrayList<>();
+        for (StorageSnapshot child : snap.getChildren()) {
+            Budget b = child.getValue(Budget.class);
+            if (b != null) out.add(b);
+        }
+        return out;
+    }
+
+    private static Task<Budget> toBudget(StorageSnapshot snap) {
+        Budget b = snap.getValue(Budget.class);
+        return b != null ? Tasks.forResult(b) : Tasks.forException(new Exception("Budget data invalid"));
+    }
+
+    private static void deliver(Task<Void> task, OperationCallback cb) {
+        task.addOnSuccessListener(u -> cb.onSuccess())
+                .addOnFailureListener(cb::onError);
+    }
 
-                    DataSnapshot latestBudgetSnapshot = snap.getChildren().iterator().next();
-                    Budget b = latestBudgetSnapshot.getValue(Budget.class);
-                    if (b != null) cb.onSuccess(b); else cb.onError(new Exception("Budget data invalid"));
-                })
+    private static void deliver(Task<Budget> task, BudgetCallback cb) {
+        task.addOnSuccessListener(cb::onSuccess)
                 .addOnFailureListener(cb::onError);
     }
 }
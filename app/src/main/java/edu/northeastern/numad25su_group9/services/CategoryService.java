@@ -1,18 +1,26 @@
 package edu.northeastern.numad25su_group9.services;
 
-import com.google.firebase.database.DataSnapshot;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import edu.northeastern.numad25su_group9.models.Category;
 import edu.northeastern.numad25su_group9.repositories.CategoryRepository;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
+/**
+ * Every operation returns a {@link Task}; the callback overloads adapt those tasks.
+ */
 public class CategoryService {
     private final CategoryRepository repo;
 
     public CategoryService() {
-        String userId = new AuthService().getCurrentUserId();
+        this(new AuthService().getCurrentUserId());
+    }
+
+    public CategoryService(String userId) {
         this.repo = new CategoryRepository(userId);
     }
 
@@ -21,39 +29,48 @@ public class CategoryService {
     public interface CategoriesCallback { void onSuccess(List<Category> categories); void onError(Exception e); }
 
     // Methods
+    public Task<Void> addCategory(Category c) {
+        return repo.addCategory(c);
+    }
+
     public void addCategory(Category c, OperationCallback cb) {
-        repo.addCategory(c)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(addCategory(c), cb);
+    }
+
+    public Task<Void> deleteCategory(String categoryName) {
+        return repo.deleteCategory(categoryName);
     }
 
     public void deleteCategory(String categoryName, OperationCallback cb) {
-        repo.deleteCategory(categoryName)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(deleteCategory(categoryName), cb);
     }
 
-    public void getAllCategories(CategoriesCallback cb) {
-        repo.getAllCategories()
-                .addOnSuccessListener(snap -> {
-                    // Return default value
-                    if (!snap.exists()) {
-                        cb.onSuccess(new ArrayList<>());
-                        return;
-                    }
+    public Task<List<Category>> getAllCategories() {
+        return repo.getAllCategories()
+                .onSuccessTask(snap -> {
                     List<Category> out = new ArrayList<>();
-                    for (DataSnapshot child : snap.getChildren()) {
+                    for (StorageSnapshot child : snap.getChildren()) {
                         Category c = child.getValue(Category.class);
                         if (c != null) {
                             out.add(c);
                         }
                     }
-                    cb.onSuccess(out);
-                })
+                    return Tasks.forResult(out);
+                });
+    }
+
+    public void getAllCategories(CategoriesCallback cb) {
+        getAllCategories()
+                .addOnSuccessListener(cb::onSuccess)
                 .addOnFailureListener(cb::onError);
     }
 
     public static String getCategoryIdFromName(String categoryName) {
         return categoryName.toLowerCase();
     }
+
+    private static void deliver(Task<Void> task, OperationCallback cb) {
+        task.addOnSuccessListener(u -> cb.onSuccess())
+                .addOnFailureListener(cb::onError);
+    }
 }
@@ -0,0 +1,221 @@
+package edu.northeastern.numad25su_group9.services;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.List;
+
+import edu.northeastern.numad25su_group9.models.Budget;
+import edu.northeastern.numad25su_group9.models.MonthlySpendingSummary;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+
+/**
+ * Loads everything a chart screen needs in one call.
+ * All reads of a screen are issued at once, and the results are aligned into arrays indexed
+ * by month or day, ready to plot.
+ * Every operation returns a {@link Task}; the callback overloads adapt those tasks.
+ * The observe methods send a new summary whenever any of its parts changes, until the
+ * registration is removed.
+ */
+public class DashboardService {
+    public interface YearSummaryCallback { void onSuccess(YearSummary summary); void onError(Exception e); }
+    public interface MonthSummaryCallback { void onSuccess(MonthSummary summary); void onError(Exception e); }
+
+    private final BudgetService budgetService;
+    private final SpendingService spendingService;
+
+    public DashboardService() {
+        this(new BudgetService(), new SpendingService());
+    }
+
+    public DashboardService(BudgetService budgetService, SpendingService spendingService) {
+        this.budgetService = budgetService;
+        this.spendingService = spendingService;
+    }
+
+    /**
+     * Budgets and spending of each month of a year. Index 0 is January; months without a
+     * budget or spending are 0.
+     */
+    public static final class YearSummary {
+        private final double[] budgets;
+        private final double[] spendings;
+
+        YearSummary(double[] budgets, double[] spendings) {
+            this.budgets = budgets;
+            this.spendings = spendings;
+        }
+
+        public double[] getBudgets() { return budgets; }
+        public double[] getSpendings() { return spendings; }
+    }
+
+    /**
+     * Budget and daily spending of a month. Index 0 of the daily spending is the 1st.
+     */
+    public static final class MonthSummary {
+        private final boolean hasBudget;
+        private final double budget;
+        private final double[] dailySpendings;
+
+        MonthSummary(boolean hasBudget, double budget, double[] dailySpendings) {
+            this.hasBudget = hasBudget;
+            this.budget = budget;
+            this.dailySpendings = dailySpendings;
+        }
+
+        public boolean hasBudget() { return hasBudget; }
+        /** The month's budget, or 0 if {@link #hasBudget()} is false. */
+        public double getBudget() { return budget; }
+        public double[] getDailySpendings() { return dailySpendings; }
+    }
+
+    /**
+     * Get the budgets and spending of every month of a year.
+     */
+    public Task<YearSummary> getYearSummary(int year) {
+        Task<List<Budget>> budgetsTask = budgetService.getAllBudgetsForYear(year);
+        Task<List<MonthlySpendingSummary>> spendingsTask = spendingService.getSpendingByMonth(year);
+        return Tasks.whenAllSuccess(budgetsTask, spendingsTask)
+                .onSuccessTask(unused -> Tasks.forResult(toYearSummary(budgetsTask.getResult(), spendingsTask.getResult())));
+    }
+
+    public void getYearSummary(int year, YearSummaryCallback cb) {
+        getYearSummary(year)
+                .addOnSuccessListener(cb::onSuccess)
+                .addOnFailureListener(cb::onError);
+    }
+
+    /**
+     * Live version of {@link #getYearSummary(int)}.
+     */
+    public StorageEngine.Registration observeYearSummary(int year, YearSummaryCallback cb) {
+        YearState state = new YearState();
+        StorageEngine.Registration budgets = budgetService.observeAllBudgetsForYear(year, new BudgetService.BudgetsCallback() {
+            @Override
+            public void onSuccess(List<Budget> list) {
+                state.budgets = list;
+                state.emit(cb);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+        StorageEngine.Registration spendings = spendingService.observeSpendingByMonth(year, new SpendingService.MonthlySpendingsCallback() {
+            @Override
+            public void onSuccess(List<MonthlySpendingSummary> list) {
+                state.spendings = list;
+                state.emit(cb);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+        return () -> {
+            budgets.remove();
+            spendings.remove();
+        };
+    }
+
+    /**
+     * Get the budget and daily spending of a month. A month without a budget, or whose budget
+     * cannot be read, is returned without one.
+     */
+    public Task<MonthSummary> getMonthSummary(int year, int month) {
+        Task<Budget> budgetTask = budgetService.getBudgetForMonth(year, month);
+        Task<double[]> dailyTask = spendingService.getDailySpendingForMonth(year, month);
+        return Tasks.whenAllComplete(budgetTask, dailyTask)
+                .onSuccessTask(unused -> {
+                    if (!dailyTask.isSuccessful()) {
+                        return Tasks.forException(dailyTask.getException());
+                    }
+                    boolean hasBudget = budgetTask.isSuccessful();
+                    double budget = hasBudget ? budgetTask.getResult().getAmount() : 0;
+                    return Tasks.forResult(new MonthSummary(hasBudget, budget, dailyTask.getResult()));
+                });
+    }
+
+    public void getMonthSummary(int year, int month, MonthSummaryCallback cb) {
+        getMonthSummary(year, month)
+                .addOnSuccessListener(cb::onSuccess)
+                .addOnFailureListener(cb::onError);
+    }
+
+    /**
+     * Live version of {@link #getMonthSummary(int, int)}.
+     */
+    public StorageEngine.Registration observeMonthSummary(int year, int month, MonthSummaryCallback cb) {
+        MonthState state = new MonthState();
+        StorageEngine.Registration budget = budgetService.observeBudgetForMonth(year, month, new BudgetService.BudgetCallback() {
+            @Override
+            public void onSuccess(Budget b) {
+                state.budget = b;
+                state.budgetKnown = true;
+                state.emit(cb);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                state.budget = null;
+                state.budgetKnown = true;
+                state.emit(cb);
+            }
+        });
+        StorageEngine.Registration daily = spendingService.observeDailySpendingForMonth(year, month, new SpendingService.DailySpendingsCallback() {
+            @Override
+            public void onSuccess(double[] totals) {
+                state.dailySpendings = totals;
+                state.emit(cb);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+        return () -> {
+            budget.remove();
+            daily.remove();
+        };
+    }
+
+    private static YearSummary toYearSummary(List<Budget> budgetList, List<MonthlySpendingSummary> spendingList) {
+        double[] budgets = new double[12];
+        for (Budget b : budgetList) {
+            budgets[b.getMonthValueLocal() - 1] = b.getAmount();
+        }
+        double[] spendings = new double[12];
+        for (MonthlySpendingSummary s : spendingList) {
+            spendings[s.getMonth() - 1] = s.getAmount();
+        }
+        return new YearSummary(budgets, spendings);
+    }
+
+    /** Latest parts of an observed year; a summary is sent once both have arrived. */
+    private static final class YearState {
+        List<Budget> budgets;
+        List<MonthlySpendingSummary> spendings;
+
+        synchronized void emit(YearSummaryCallback cb) {
+            if (budgets == null || spendings == null) return;
+            cb.onSuccess(toYearSummary(budgets, spendings));
+        }
+    }
+
+    /** Latest parts of an observed month; a summary is sent once both have arrived. */
+    private static final class MonthState {
+        Budget budget;
+        boolean budgetKnown;
+        double[] dailySpendings;
+
+        synchronized void emit(MonthSummaryCallback cb) {
+            if (!budgetKnown || dailySpendings == null) return;
+            boolean hasBudget = budget != null;
+            cb.onSuccess(new MonthSummary(hasBudget, hasBudget ? budget.getAmount() : 0, dailySpendings));
+        }
+    }
+}
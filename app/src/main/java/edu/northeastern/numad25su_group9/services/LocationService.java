@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import edu.northeastern.numad25su_group9.App;
 import edu.northeastern.numad25su_group9.R;
 import edu.northeastern.numad25su_group9.models.Transaction;
 import edu.northeastern.numad25su_group9.utils.LocationUtil;
@@ -43,13 +44,11 @@ public class LocationService {
     public static final int LOCATION_REQUEST_CODE = 1000;
     private final Context applicationContext;
     private final FusedLocationProviderClient fusedLocationClient;
-    private final TransactionService transactionService;
     private final Set<String> notifiedLocations;
 
     private LocationService(Context context) {
         this.applicationContext = context.getApplicationContext();
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this.applicationContext);
-        transactionService = new TransactionService();
         notifiedLocations = new HashSet<>();
         createNotificationChannel();
     }
@@ -186,7 +185,8 @@ public class LocationService {
 
     /** Async loader to dedupe previous transaction coordinates into Location objects. */
     private void fetchFrequentLocations(LocationsCallback cb) {
-        transactionService.getAllTransactions(new TransactionService.TransactionsCallback() {
+        // Looked up per call: this singleton outlives the signed-in user.
+        App.getServices().getTransactionService().getAllTransactions(new TransactionService.TransactionsCallback() {
             @Override public void onSuccess(List<Transaction> transactions) {
                 Map<String, Location> unique = new HashMap<>();
                 for (Transaction t : transactions) {
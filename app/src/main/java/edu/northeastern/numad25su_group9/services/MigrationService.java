@@ -0,0 +1,123 @@
+package edu.northeastern.numad25su_group9.services;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import edu.northeastern.numad25su_group9.repositories.MigrationRepository;
+import edu.northeastern.numad25su_group9.repositories.TransactionRepository;
+import edu.northeastern.numad25su_group9.repositories.local.TransactionMirror;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+/**
+ * Brings the current user's data up to the latest layout.
+ * <p>
+ * Migrations run in declaration order, each at most once per user; completed ones are
+ * recorded in the database so other devices skip them. Every migration must be idempotent,
+ * since a crash between running it and recording it will run it again.
+ * </p>
+ */
+public class MigrationService {
+    private static final String TAG = "MigrationService";
+
+    // One run per user per process; later callers share it.
+    private static final Map<String, Task<Void>> RUNS = new LinkedHashMap<>();
+
+    @Nullable private final String userId;
+    private final MigrationRepository repository;
+    private final TransactionRepository transactionRepository;
+    private final Map<String, Supplier<Task<Void>>> migrations = new LinkedHashMap<>();
+    // Earlier migrations that a newer one redoes entirely; they are recorded with it.
+    private final Map<String, List<String>> supersedes = new HashMap<>();
+
+    public MigrationService() {
+        this.userId = new AuthService().getCurrentUserId();
+        this.repository = new MigrationRepository(userId);
+        this.transactionRepository = new TransactionRepository(userId);
+
+        migrations.put("transactionPushIds", this::migrateTransactionIds);
+        migrations.put("transactionsByCategory", transactionRepository::rebuildCategoryIndex);
+        // One history scan repairs the spendings and fills in the daily and yearly rollups, so it
+        // replaces the earlier repair steps. Users who ran those still run it once for the rollups.
+        migrations.put("spendingYearlyBackfill", this::repairSpendings);
+        supersedes.put("spendingYearlyBackfill", Arrays.asList("spendingsRepair", "dailySpendingsBackfill"));
+        // Left pending until the layout is switched on, so it runs on the first start after that.
+        if (TransactionRepository.getDefaultLayout() == TransactionRepository.Layout.MONTHLY) {
+            migrations.put("transactionMonthBuckets", this::migrateTransactionsToMonthBuckets);
+        }
+    }
+
+    /**
+     * Runs every migration the current user has not completed yet.
+     *
+     * @return {@link Task} that completes once all pending migrations have run
+     */
+    public Task<Void> runPendingMigrations() {
+        if (userId == null) return Tasks.forResult(null);
+
+        synchronized (RUNS) {
+            Task<Void> run = RUNS.get(userId);
+            if (run == null || (run.isComplete() && !run.isSuccessful())) {
+                run = repository.getCompleted().onSuccessTask(completed -> {
+                    Task<Void> chain = Tasks.forResult(null);
+                    for (Map.Entry<String, Supplier<Task<Void>>> migration : migrations.entrySet()) {
+                        String name = migration.getKey();
+                        if (completed.child(name).exists()) continue;
+
+                        chain = chain
+                                .onSuccessTask(unused -> {
+                                    Log.d(TAG, "Running migration " + name);
+                                    return migration.getValue().get();
+                                })
+                                .onSuccessTask(unused -> markCompleted(name, completed));
+                    }
+                    return chain;
+                });
+                run.addOnFailureListener(e -> Log.e(TAG, "Migration failed", e));
+                RUNS.put(userId, run);
+            }
+            return run;
+        }
+    }
+
+    private Task<Void> markCompleted(String name, StorageSnapshot completed) {
+        Task<Void> chain = repository.markCompleted(name);
+        for (String older : supersedes.getOrDefault(name, Collections.emptyList())) {
+            if (completed.child(older).exists()) continue;
+            chain = chain.onSuccessTask(unused -> repository.markCompleted(older));
+        }
+        return chain;
+    }
+
+    private Task<Void> migrateTransactionIds() {
+        return transactionRepository.migrateLegacyIds().onSuccessTask(moved -> {
+            Log.d(TAG, "Moved " + moved + " transactions to push IDs");
+            // Deletes of the old keys are invisible to a delta sync.
+            TransactionMirror mirror = TransactionMirror.create(userId, transactionRepository);
+            if (moved == 0 || mirror == null) return Tasks.forResult(null);
+            return mirror.requestFullSync();
+        });
+    }
+
+    private Task<Void> repairSpendings() {
+        return new SpendingRepairService().repairAll().onSuccessTask(report -> Tasks.forResult(null));
+    }
+
+    private Task<Void> migrateTransactionsToMonthBuckets() {
+        return transactionRepository.migrateToMonthBuckets().onSuccessTask(moved -> {
+            Log.d(TAG, "Moved " + moved + " transactions to month buckets");
+            return Tasks.forResult(null);
+        });
+    }
+}
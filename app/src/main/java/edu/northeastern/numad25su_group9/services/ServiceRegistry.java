@@ -0,0 +1,103 @@
+package edu.northeastern.numad25su_group9.services;
+
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+
+/**
+ * Application-scoped holder of the services, owned by {@code App}.
+ * <p>
+ * Each service is built on first use and then shared by every screen, so their repositories,
+ * caches and listeners are too. All of them belong to the signed-in user: they are dropped on
+ * {@link AuthService#signOut()}, and rebuilt when another user is signed in.
+ * </p>
+ */
+public final class ServiceRegistry {
+    private static final String TAG = "ServiceRegistry";
+
+    private final AuthService authService = new AuthService();
+    @Nullable private String userId;
+    @Nullable private UserService userService;
+    @Nullable private CategoryService categoryService;
+    @Nullable private BudgetService budgetService;
+    @Nullable private SpendingService spendingService;
+    @Nullable private TransactionService transactionService;
+    @Nullable private VendorService vendorService;
+    @Nullable private DashboardService dashboardService;
+
+    public ServiceRegistry() {
+        AuthService.addSignOutListener(this::clear);
+    }
+
+    public AuthService getAuthService() {
+        return authService;
+    }
+
+    public synchronized UserService getUserService() {
+        checkUser();
+        if (userService == null) userService = new UserService(userId);
+        return userService;
+    }
+
+    public synchronized CategoryService getCategoryService() {
+        checkUser();
+        if (categoryService == null) categoryService = new CategoryService(userId);
+        return categoryService;
+    }
+
+    public synchronized BudgetService getBudgetService() {
+        checkUser();
+        if (budgetService == null) budgetService = new BudgetService(userId);
+        return budgetService;
+    }
+
+    public synchronized SpendingService getSpendingService() {
+        checkUser();
+        if (spendingService == null) spendingService = new SpendingService(userId);
+        return spendingService;
+    }
+
+    public synchronized TransactionService getTransactionService() {
+        checkUser();
+        if (transactionService == null) transactionService = new TransactionService(userId, getSpendingService());
+        return transactionService;
+    }
+
+    public synchronized VendorService getVendorService() {
+        checkUser();
+        if (vendorService == null) vendorService = new VendorService(userId);
+        return vendorService;
+    }
+
+    public synchronized DashboardService getDashboardService() {
+        checkUser();
+        if (dashboardService == null) dashboardService = new DashboardService(getBudgetService(), getSpendingService());
+        return dashboardService;
+    }
+
+    /**
+     * Drops every service, so the next access builds them for the then signed-in user.
+     */
+    public synchronized void clear() {
+        Log.d(TAG, "Clearing services of user " + userId);
+        userId = null;
+        userService = null;
+        categoryService = null;
+        budgetService = null;
+        spendingService = null;
+        transactionService = null;
+        vendorService = null;
+        dashboardService = null;
+    }
+
+    // Covers a user switch that did not go through signOut, e.g. an expired session.
+    private void checkUser() {
+        String current = authService.getCurrentUserId();
+        if (!Objects.equals(current, userId)) {
+            clear();
+            userId = current;
+        }
+    }
+}
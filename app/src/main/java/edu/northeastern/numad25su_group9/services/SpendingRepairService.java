@@ -0,0 +1,245 @@
+package edu.northeastern.numad25su_group9.services;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+import edu.northeastern.numad25su_group9.models.Spending;
+import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.DailySpendingRepository;
+import edu.northeastern.numad25su_group9.repositories.SpendingRepository;
+import edu.northeastern.numad25su_group9.repositories.TransactionRepository;
+import edu.northeastern.numad25su_group9.repositories.WriteBatch;
+import edu.northeastern.numad25su_group9.repositories.YearlySpendingRepository;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+import edu.northeastern.numad25su_group9.utils.DateUtil;
+
+/**
+ * Recomputes {@code spendings/{uid}/{yyyyMM}/{categoryId}} and
+ * {@code dailySpendings/{uid}/{yyyyMM}/{dd}} from the stored transactions and repairs the
+ * buckets that drifted or are missing, e.g. after a failed write on an older app version.
+ * The month totals in {@code spendingYearly/{uid}/{yyyy}/{MM}} are brought in line with the
+ * repaired spendings.
+ * <p>
+ * Months are processed one at a time, so memory is bounded by the largest month. Each month
+ * reads its totals, then its transactions, then its totals again; if the two total reads
+ * differ, a transaction write landed in between and the month is retried. Corrections
+ * are applied as increments, so they compose with writes made while the repair runs.
+ * </p>
+ */
+public class SpendingRepairService {
+    private static final String TAG = "SpendingRepairService";
+    // Amounts are summed as doubles; smaller differences are rounding, not drift.
+    private static final double TOLERANCE = 0.005;
+    private static final int MAX_ATTEMPTS_PER_MONTH = 3;
+
+    private final SpendingRepository spendingRepository;
+    private final DailySpendingRepository dailySpendingRepository;
+    private final YearlySpendingRepository yearlySpendingRepository;
+    private final TransactionRepository transactionRepository;
+
+    public SpendingRepairService() {
+        this(new AuthService().getCurrentUserId());
+    }
+
+    public SpendingRepairService(String userId) {
+        this.spendingRepository = new SpendingRepository(userId);
+        this.dailySpendingRepository = new DailySpendingRepository(userId);
+        this.yearlySpendingRepository = new YearlySpendingRepository(userId);
+        this.transactionRepository = new TransactionRepository(userId);
+    }
+
+    /**
+     * Outcome and throughput of one run.
+     */
+    public static class Report {
+        private int monthsScanned;
+        private int monthsSkipped;
+        private int transactionsScanned;
+        private int bucketsChecked;
+        private int bucketsRepaired;
+        private int daysChecked;
+        private int daysRepaired;
+        private int monthTotalsRepaired;
+        private long elapsedMillis;
+
+        public int getMonthsScanned() { return monthsScanned; }
+        /** Months given up on because transactions kept changing while they were read. */
+        public int getMonthsSkipped() { return monthsSkipped; }
+        public int getTransactionsScanned() { return transactionsScanned; }
+        public int getBucketsChecked() { return bucketsChecked; }
+        public int getBucketsRepaired() { return bucketsRepaired; }
+        public int getDaysChecked() { return daysChecked; }
+        public int getDaysRepaired() { return daysRepaired; }
+        public int getMonthTotalsRepaired() { return monthTotalsRepaired; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getTransactionsPerSecond() {
+            return elapsedMillis == 0 ? 0 : transactionsScanned * 1000.0 / elapsedMillis;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%d months (%d skipped), %d transactions, %d/%d buckets, %d/%d days and %d month totals repaired in %d ms (%.0f txn/s)",
+                    monthsScanned, monthsSkipped, transactionsScanned, bucketsRepaired, bucketsChecked,
+                    daysRepaired, daysChecked, monthTotalsRepaired, elapsedMillis, getTransactionsPerSecond());
+        }
+    }
+
+    /**
+     * Checks every month that has transactions or spendings.
+     *
+     * @return {@link Task} containing the {@link Report}
+     */
+    public Task<Report> repairAll() {
+        Report report = new Report();
+        long start = SystemClock.elapsedRealtime();
+
+        Task<List<String>> transactionMonths = transactionRepository.getTransactionMonths();
+        Task<List<String>> spendingMonths = spendingRepository.fetchMonthKeys();
+        return Tasks.whenAllSuccess(transactionMonths, spendingMonths)
+                .onSuccessTask(unused -> {
+                    TreeSet<String> monthKeys = new TreeSet<>(transactionMonths.getResult());
+                    monthKeys.addAll(spendingMonths.getResult());
+                    return repairMonths(new ArrayList<>(monthKeys), 0, report);
+                })
+                .onSuccessTask(unused -> {
+                    report.elapsedMillis = SystemClock.elapsedRealtime() - start;
+                    Log.d(TAG, "Spending repair: " + report);
+                    return Tasks.forResult(report);
+                });
+    }
+
+    private Task<Void> repairMonths(List<String> monthKeys, int index, Report report) {
+        if (index >= monthKeys.size()) return Tasks.forResult(null);
+        return repairMonth(monthKeys.get(index), 1, report)
+                .onSuccessTask(unused -> repairMonths(monthKeys, index + 1, report));
+    }
+
+    private Task<Void> repairMonth(String monthKey, int attempt, Report report) {
+        long monthStart = DateUtil.fromDateKey(monthKey);
+        long monthEnd = Instant.ofEpochMilli(monthStart).atZone(ZoneOffset.UTC)
+                .plusMonths(1).toInstant().toEpochMilli() - 1;
+
+        return fetchTotals(monthKey).onSuccessTask(before ->
+                transactionRepository.getTransactionsByDateRange(monthStart, monthEnd).onSuccessTask(transactions ->
+                        fetchTotals(monthKey).onSuccessTask(after -> {
+                            if (!sameValues(before, after)) {
+                                if (attempt < MAX_ATTEMPTS_PER_MONTH) {
+                                    return repairMonth(monthKey, attempt + 1, report);
+                                }
+                                Log.w(TAG, "Skipping " + monthKey + ": spendings kept changing");
+                                report.monthsSkipped++;
+                                return Tasks.forResult(null);
+                            }
+                            return applyRepairs(monthKey, monthStart, transactions, after, report);
+                        })));
+    }
+
+    /** The month's spendings, daily totals and yearly rollup entry, uncached. */
+    private Task<List<StorageSnapshot>> fetchTotals(String monthKey) {
+        return Tasks.whenAllSuccess(
+                spendingRepository.fetchSpendingsForMonth(monthKey),
+                dailySpendingRepository.fetchDailySpendingsForMonth(monthKey),
+                yearlySpendingRepository.fetchMonth(monthKey));
+    }
+
+    private static boolean sameValues(List<StorageSnapshot> a, List<StorageSnapshot> b) {
+        for (int i = 0; i < a.size(); i++) {
+            if (!Objects.equals(a.get(i).getValue(), b.get(i).getValue())) return false;
+        }
+        return true;
+    }
+
+    private Task<Void> applyRepairs(String monthKey, long monthStart, StorageSnapshot transactions,
+                                    List<StorageSnapshot> totals, Report report) {
+        StorageSnapshot stored = totals.get(0);
+        StorageSnapshot storedDaily = totals.get(1);
+        Object storedMonthTotal = totals.get(2).getValue();
+
+        // Expected totals, keyed by categoryId, with the name to create missing nodes with.
+        Map<String, Double> expected = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        Map<Integer, Double> expectedDaily = new HashMap<>();
+        for (StorageSnapshot child : transactions.getChildren()) {
+            report.transactionsScanned++;
+            Transaction txn = child.getValue(Transaction.class);
+            if (txn == null || txn.isIgnore()) continue;
+            expectedDaily.merge(txn.getTransactionDayOfMonthUtc(), txn.getAmount(), Double::sum);
+            if (txn.getCategoryName() == null) continue;
+            String categoryId = CategoryService.getCategoryIdFromName(txn.getCategoryName());
+            expected.merge(categoryId, txn.getAmount(), Double::sum);
+            names.putIfAbsent(categoryId, txn.getCategoryName());
+        }
+
+        Map<String, Double> actual = new HashMap<>();
+        for (StorageSnapshot child : stored.getChildren()) {
+            Spending spending = child.getValue(Spending.class);
+            if (spending == null) continue;
+            actual.put(child.getKey(), spending.getAmount());
+            if (spending.getCategoryName() != null) names.putIfAbsent(child.getKey(), spending.getCategoryName());
+        }
+
+        // Spending corrections below carry their drift into the yearly rollup, so it only has
+        // to match the spendings as stored.
+        double storedSum = 0;
+        for (double amount : actual.values()) storedSum += amount;
+        double monthTotalDrift = storedSum
+                - (storedMonthTotal instanceof Number ? ((Number) storedMonthTotal).doubleValue() : 0.0);
+
+        TreeSet<String> categoryIds = new TreeSet<>(expected.keySet());
+        categoryIds.addAll(actual.keySet());
+        WriteBatch batch = new WriteBatch();
+        if (Math.abs(monthTotalDrift) >= TOLERANCE) {
+            report.monthTotalsRepaired++;
+            yearlySpendingRepository.incrementMonthlyAmount(monthKey, monthTotalDrift, batch);
+        }
+        for (String categoryId : categoryIds) {
+            report.bucketsChecked++;
+            double drift = expected.getOrDefault(categoryId, 0.0) - actual.getOrDefault(categoryId, 0.0);
+            if (Math.abs(drift) < TOLERANCE || names.get(categoryId) == null) continue;
+
+            report.bucketsRepaired++;
+            Spending bucket = Spending.builder()
+                    .setCategoryName(names.get(categoryId))
+                    .setMonthDateUtcTs(monthStart)
+                    .build();
+            spendingRepository.incrementSpendingAmount(bucket, drift, batch);
+        }
+
+        Map<Integer, Double> actualDaily = new HashMap<>();
+        for (StorageSnapshot child : storedDaily.getChildren()) {
+            Object value = child.getValue();
+            if (child.getKey() == null || !(value instanceof Number)) continue;
+            actualDaily.put(Integer.parseInt(child.getKey()), ((Number) value).doubleValue());
+        }
+        TreeSet<Integer> days = new TreeSet<>(expectedDaily.keySet());
+        days.addAll(actualDaily.keySet());
+        for (int day : days) {
+            report.daysChecked++;
+            double drift = expectedDaily.getOrDefault(day, 0.0) - actualDaily.getOrDefault(day, 0.0);
+            if (Math.abs(drift) < TOLERANCE) continue;
+
+            report.daysRepaired++;
+            dailySpendingRepository.incrementDailyAmount(monthKey, day, drift, batch);
+        }
+        report.monthsScanned++;
+        return batch.isEmpty() ? Tasks.forResult(null) : batch.commit();
+    }
+}
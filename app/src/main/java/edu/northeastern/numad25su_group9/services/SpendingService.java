@@ -2,20 +2,33 @@ package edu.northeastern.numad25su_group9.services;
 
 import android.util.Log;
 
-import com.google.firebase.database.DataSnapshot;
+import androidx.annotation.Nullable;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import edu.northeastern.numad25su_group9.models.MonthlySpendingSummary;
 import edu.northeastern.numad25su_group9.models.Spending;
 import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.DailySpendingRepository;
 import edu.northeastern.numad25su_group9.repositories.SpendingRepository;
+import edu.northeastern.numad25su_group9.repositories.WriteBatch;
+import edu.northeastern.numad25su_group9.repositories.YearlySpendingRepository;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
+/**
+ * Every operation returns a {@link Task}; the callback overloads adapt those tasks.
+ * The observe methods call their callback on every change until the registration is removed.
+ */
 public class SpendingService {
     private static final String TAG = "SpendingService";
 
@@ -23,30 +36,44 @@ public class SpendingService {
     public interface TotalSpendingCallback { void onSuccess(double total); void onError(Exception e); }
     public interface SpendingsCallback { void onSuccess(List<Spending> list); void onError(Exception e); }
     public interface MonthlySpendingsCallback { void onSuccess(List<MonthlySpendingSummary> list); void onError(Exception e); }
+    public interface DailySpendingsCallback { void onSuccess(double[] totals); void onError(Exception e); }
 
     private final SpendingRepository repo;
+    private final DailySpendingRepository dailyRepo;
+    private final YearlySpendingRepository yearlyRepo;
 
     public SpendingService() {
-        String userId = new AuthService().getCurrentUserId();
+        this(new AuthService().getCurrentUserId());
+    }
+
+    public SpendingService(String userId) {
         this.repo = new SpendingRepository(userId);
+        this.dailyRepo = new DailySpendingRepository(userId);
+        this.yearlyRepo = new YearlySpendingRepository(userId);
+    }
+
+    public Task<Void> addSpending(Spending b) {
+        return repo.addSpending(b);
     }
 
     public void addSpending(Spending b, OperationCallback cb) {
-        repo.addSpending(b)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(addSpending(b), cb);
+    }
+
+    public Task<Void> updateSpending(Spending updates) {
+        return repo.updateSpending(updates);
     }
 
     public void updateSpending(Spending updates, OperationCallback cb) {
-        repo.updateSpending(updates)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(updateSpending(updates), cb);
+    }
+
+    public Task<Void> deleteSpending(int year, int month, String categoryId) {
+        return repo.deleteSpending(year, month, categoryId);
     }
 
     public void deleteSpending(int year, int month, String categoryId, OperationCallback cb) {
-        repo.deleteSpending(year, month, categoryId)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(deleteSpending(year, month, categoryId), cb);
     }
 
     /**
@@ -54,111 +81,237 @@ public class SpendingService {
      *
      * @param year  int for year
      * @param month int for month
-     * @param cb    callback for success or failure
      */
-    public void getSpendingsForMonthByCategory(int year, int month, SpendingsCallback cb) {
+    public Task<List<Spending>> getSpendingsForMonthByCategory(int year, int month) {
         Log.d(TAG, String.format("Getting spendings for month %d-%d", year, month));
-        repo.getSpendingsForMonth(year, month)
-                .addOnSuccessListener(snap -> {
-                    // Return default value
-                    if (!snap.exists()) {
-                        cb.onSuccess(new ArrayList<>());
-                        return;
-                    }
-                    List<Spending> out = new ArrayList<>();
-                    for (DataSnapshot child : snap.getChildren()) {
-                        Spending b = child.getValue(Spending.class);
-                        if (b != null) out.add(b);
-                    }
-                    cb.onSuccess(out);
-                })
+        return repo.getSpendingsForMonth(year, month)
+                .onSuccessTask(snap -> Tasks.forResult(toSpendings(snap)));
+    }
+
+    public void getSpendingsForMonthByCategory(int year, int month, SpendingsCallback cb) {
+        getSpendingsForMonthByCategory(year, month)
+                .addOnSuccessListener(cb::onSuccess)
                 .addOnFailureListener(cb::onError);
     }
 
+    /**
+     * Live version of {@link #getSpendingsForMonthByCategory(int, int)}.
+     */
+    public StorageEngine.Registration observeSpendingsForMonthByCategory(int year, int month, SpendingsCallback cb) {
+        return repo.observeSpendingsForMonth(year, month, new StorageEngine.ValueListener() {
+            @Override
+            public void onValue(StorageSnapshot snapshot) {
+                cb.onSuccess(toSpendings(snapshot));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
+
     /**
      * Get total spending for a given month.
      */
-    public void getTotalSpendingForMonth(int year, int month, TotalSpendingCallback cb) {
-        repo.getSpendingsForMonth(year, month)
-                .addOnSuccessListener(snap -> {
-                    // Return default value
-                    if (!snap.exists()) {
-                        cb.onSuccess(0);
-                        return;
-                    }
+    public Task<Double> getTotalSpendingForMonth(int year, int month) {
+        return repo.getSpendingsForMonth(year, month)
+                .onSuccessTask(snap -> {
                     double total = 0;
-                    for (DataSnapshot child : snap.getChildren()) {
+                    for (StorageSnapshot child : snap.getChildren()) {
                         Spending b = child.getValue(Spending.class);
                         if (b != null) total += b.getAmount();
                     }
-                    cb.onSuccess(total);
-                })
+                    return Tasks.forResult(total);
+                });
+    }
+
+    public void getTotalSpendingForMonth(int year, int month, TotalSpendingCallback cb) {
+        getTotalSpendingForMonth(year, month)
+                .addOnSuccessListener(cb::onSuccess)
                 .addOnFailureListener(cb::onError);
     }
 
     /**
-     * Fetches a list of {@link MonthlySpendingSummary} for a given year.
-     * Aggregates data for all categories for a given month into a {@link MonthlySpendingSummary}
-     * object.
+     * Get the total spending of each UTC day of a given month, from the daily rollups.
+     *
+     * @return {@link Task} containing one total per day of the month, index 0 being the 1st
      */
-    public void getSpendingByMonth(int year, MonthlySpendingsCallback cb) {
-        repo.getSpendingsForYear(year)
-                .addOnSuccessListener(snap -> {
-                    // Return default value
-                    if (!snap.exists() || !snap.hasChildren()) {
-                        cb.onSuccess(new ArrayList<>());
-                        return;
-                    }
+    public Task<double[]> getDailySpendingForMonth(int year, int month) {
+        return dailyRepo.getDailySpendingsForMonth(year, month)
+                .onSuccessTask(snap -> Tasks.forResult(toDailyTotals(year, month, snap)));
+    }
 
-                    // Map to store total spending for each month (1-12)
-                    Map<Integer, Double> monthlyTotals = new HashMap<>();
-                    // Iterate over the month keys.
-                    for (DataSnapshot monthSnap : snap.getChildren()) {
-                        String monthKey = monthSnap.getKey();
-                        if (monthKey == null) continue;
-
-                        int month = Integer.parseInt(
-                                monthKey.substring(monthKey.length() - 2));
-                        double totalForMonth = 0;
-
-                        // Iterate over the categories within that month.
-                        for (DataSnapshot categorySnap : monthSnap.getChildren()) {
-                            if (!categorySnap.exists()) continue;
-                            Spending spending = categorySnap.getValue(Spending.class);
-                            if (spending != null) {
-                                totalForMonth += spending.getAmount();
-                            }
-                        }
-                        // Add to aggregate map
-                        monthlyTotals.put(month, totalForMonth);
-                    }
+    public void getDailySpendingForMonth(int year, int month, DailySpendingsCallback cb) {
+        getDailySpendingForMonth(year, month)
+                .addOnSuccessListener(cb::onSuccess)
+                .addOnFailureListener(cb::onError);
+    }
 
-                    // Convert map to list
-                    List<MonthlySpendingSummary> out = new ArrayList<>();
-                    for (int i = 1; i <= 12; i++) {
-                        Double total = monthlyTotals.getOrDefault(i, 0.0);
-                        if (total == null) continue;
-                        out.add(new MonthlySpendingSummary(i, year, total));
-                    }
+    /**
+     * Live version of {@link #getDailySpendingForMonth(int, int)}.
+     */
+    public StorageEngine.Registration observeDailySpendingForMonth(int year, int month, DailySpendingsCallback cb) {
+        return dailyRepo.observeDailySpendingsForMonth(year, month, new StorageEngine.ValueListener() {
+            @Override
+            public void onValue(StorageSnapshot snapshot) {
+                cb.onSuccess(toDailyTotals(year, month, snapshot));
+            }
 
-                    cb.onSuccess(out);
-                })
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
+
+    /**
+     * Fetches a list of {@link MonthlySpendingSummary} for a given year, one per month, from
+     * the yearly rollup maintained alongside the spendings.
+     */
+    public Task<List<MonthlySpendingSummary>> getSpendingByMonth(int year) {
+        return yearlyRepo.getYear(year)
+                .onSuccessTask(snap -> Tasks.forResult(toMonthlySummaries(year, snap)));
+    }
+
+    public void getSpendingByMonth(int year, MonthlySpendingsCallback cb) {
+        getSpendingByMonth(year)
+                .addOnSuccessListener(cb::onSuccess)
                 .addOnFailureListener(cb::onError);
     }
 
-    /** Atomically add delta to the spending amount of a given category for the given month. */
+    /**
+     * Live version of {@link #getSpendingByMonth(int)}.
+     */
+    public StorageEngine.Registration observeSpendingByMonth(int year, MonthlySpendingsCallback cb) {
+        return yearlyRepo.observeYear(year, new StorageEngine.ValueListener() {
+            @Override
+            public void onValue(StorageSnapshot snapshot) {
+                cb.onSuccess(toMonthlySummaries(year, snapshot));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                cb.onError(e);
+            }
+        });
+    }
+
+    private static List<Spending> toSpendings(StorageSnapshot snap) {
+        List<Spending> out = new ArrayList<>();
+        for (StorageSnapshot child : snap.getChildren()) {
+            Spending b = child.getValue(Spending.class);
+            if (b != null) out.add(b);
+        }
+        return out;
+    }
+
+    private static List<MonthlySpendingSummary> toMonthlySummaries(int year, StorageSnapshot snap) {
+        // Return default value
+        if (!snap.exists() || !snap.hasChildren()) {
+            return new ArrayList<>();
+        }
+
+        double[] monthlyTotals = new double[12];
+        for (StorageSnapshot monthSnap : snap.getChildren()) {
+            Object value = monthSnap.getValue();
+            if (monthSnap.getKey() == null || !(value instanceof Number)) continue;
+            int month = Integer.parseInt(monthSnap.getKey());
+            if (month >= 1 && month <= 12) monthlyTotals[month - 1] = ((Number) value).doubleValue();
+        }
+
+        List<MonthlySpendingSummary> out = new ArrayList<>();
+        for (int i = 1; i <= 12; i++) {
+            out.add(new MonthlySpendingSummary(i, year, monthlyTotals[i - 1]));
+        }
+        return out;
+    }
+
+    private static double[] toDailyTotals(int year, int month, StorageSnapshot snap) {
+        double[] totals = new double[YearMonth.of(year, month).lengthOfMonth()];
+        for (StorageSnapshot child : snap.getChildren()) {
+            Object value = child.getValue();
+            if (child.getKey() == null || !(value instanceof Number)) continue;
+            int day = Integer.parseInt(child.getKey());
+            if (day >= 1 && day <= totals.length) totals[day - 1] = ((Number) value).doubleValue();
+        }
+        return totals;
+    }
+
+    /**
+     * Adds delta to the spending amount of the transaction's category and month, and to its
+     * day and yearly month totals, in a one-off {@link WriteBatch}.
+     */
+    public Task<Void> incrementSpend(Transaction txn, double delta) {
+        WriteBatch batch = new WriteBatch();
+        incrementSpend(txn, delta, batch);
+        return batch.commit();
+    }
+
     public void incrementSpend(Transaction txn, double delta, OperationCallback cb) {
-        LocalDateTime utc = txn.getTransactionDateUtc();
-        long monthStartUtcTs = LocalDateTime.of(utc.getYear(), utc.getMonthValue(), 1, 0, 0)
-                .atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+        deliver(incrementSpend(txn, delta), cb);
+    }
 
-        Spending s = Spending.builder()
+    /**
+     * Stages adding delta to the spending amount of the transaction's category and month in
+     * {@code batch}, so it commits together with the transaction write.
+     */
+    public void incrementSpend(Transaction txn, double delta, WriteBatch batch) {
+        repo.incrementSpendingAmount(toSpendingBucket(txn), delta, batch);
+        dailyRepo.incrementDailyAmount(txn.getTransactionEpochDayUtc(), delta, batch);
+    }
+
+    /**
+     * Stages the spending change of replacing {@code before} with {@code after} in
+     * {@code batch}: one net increment per (month, category) bucket and per day, skipping those
+     * whose net change is zero, e.g. when only the description was edited. Pass {@code null} for
+     * {@code before} on an add and for {@code after} on a delete. Ignored transactions count
+     * as absent.
+     */
+    public void adjustSpend(@Nullable Transaction before, @Nullable Transaction after, WriteBatch batch) {
+        Map<String, Spending> buckets = new LinkedHashMap<>();
+        Map<String, Double> deltas = new HashMap<>();
+        // Keyed by the UTC epoch day.
+        Map<Long, Double> dailyDeltas = new LinkedHashMap<>();
+        accumulate(before, -1, buckets, deltas, dailyDeltas);
+        accumulate(after, +1, buckets, deltas, dailyDeltas);
+
+        for (Map.Entry<String, Spending> bucket : buckets.entrySet()) {
+            double delta = deltas.get(bucket.getKey());
+            if (delta == 0) continue;
+            repo.incrementSpendingAmount(bucket.getValue(), delta, batch);
+        }
+        for (Map.Entry<Long, Double> day : dailyDeltas.entrySet()) {
+            if (day.getValue() == 0) continue;
+            dailyRepo.incrementDailyAmount(day.getKey(), day.getValue(), batch);
+        }
+    }
+
+    private static void accumulate(@Nullable Transaction txn, int sign, Map<String, Spending> buckets,
+                                   Map<String, Double> deltas, Map<Long, Double> dailyDeltas) {
+        if (txn == null || txn.isIgnore()) return;
+        Spending bucket = toSpendingBucket(txn);
+        String categoryName = bucket.getCategoryName();
+        String key = bucket.getMonthUtcTs() + "/"
+                + (categoryName == null ? null : CategoryService.getCategoryIdFromName(categoryName));
+        buckets.putIfAbsent(key, bucket);
+        deltas.merge(key, sign * txn.getAmount(), Double::sum);
+
+        dailyDeltas.merge(txn.getTransactionEpochDayUtc(), sign * txn.getAmount(), Double::sum);
+    }
+
+    /** The spending node a transaction counts towards: its category in its UTC month. */
+    private static Spending toSpendingBucket(Transaction txn) {
+        long monthStartUtcTs = TimeUnit.DAYS.toMillis(txn.getTransactionMonthStartEpochDayUtc());
+
+        return Spending.builder()
                 .setCategoryName(txn.getCategoryName())
                 .setMonthDateUtcTs(monthStartUtcTs)
                 .build();
+    }
 
-        repo.incrementSpendingAmount(s, delta)
-                .addOnSuccessListener(u -> cb.onSuccess())
+    private static void deliver(Task<Void> task, OperationCallback cb) {
+        task.addOnSuccessListener(u -> cb.onSuccess())
                 .addOnFailureListener(cb::onError);
     }
 }
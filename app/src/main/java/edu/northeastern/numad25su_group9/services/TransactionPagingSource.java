@@ -0,0 +1,128 @@
+package edu.northeastern.numad25su_group9.services;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.paging.ListenableFuturePagingSource;
+import androidx.paging.PagingState;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.local.TransactionMirror;
+import edu.northeastern.numad25su_group9.utils.TaskUtil;
+
+/**
+ * Pages the transactions, newest first, for Jetpack Paging. Keys are positions in the list.
+ * <p>
+ * With the local mirror any position can be read and the total is known, so the list gets
+ * placeholders and a refresh reloads around the visible rows. Without it, pages follow the
+ * cursor of {@link TransactionService#getTransactionsPage(Transaction, int)}. The cursor of
+ * every loaded page is kept so dropped pages can be loaded again, and a refresh starts over
+ * from the newest page.
+ * </p>
+ * <p>
+ * Append and refresh keys are the first position to load; prepend keys are the position
+ * after the last one.
+ * </p>
+ */
+public class TransactionPagingSource extends ListenableFuturePagingSource<Integer, Transaction> {
+
+    // Continuations only build results, so they run on whichever thread finished the read.
+    private static final Executor DIRECT = Runnable::run;
+    // Firebase reads wait for a connection indefinitely; fail instead so the list reports it.
+    private static final long PAGE_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(15);
+
+    private final TransactionService service;
+    @Nullable private final TransactionMirror mirror;
+    // Without the mirror: first position of each loaded page -> the transaction before it.
+    private final TreeMap<Integer, Transaction> cursors = new TreeMap<>();
+
+    TransactionPagingSource(TransactionService service, @Nullable TransactionMirror mirror) {
+        this.service = service;
+        this.mirror = mirror;
+        cursors.put(0, null);
+    }
+
+    @Nullable
+    @Override
+    public Integer getRefreshKey(@NonNull PagingState<Integer, Transaction> state) {
+        Integer anchor = state.getAnchorPosition();
+        if (mirror == null || anchor == null) return null;
+        return Math.max(0, anchor - state.getConfig().initialLoadSize / 2);
+    }
+
+    @NonNull
+    @Override
+    public ListenableFuture<LoadResult<Integer, Transaction>> loadFuture(@NonNull LoadParams<Integer> params) {
+        int key = params.getKey() == null ? 0 : params.getKey();
+        boolean prepend = params instanceof LoadParams.Prepend;
+
+        Task<LoadResult<Integer, Transaction>> result;
+        if (mirror != null) {
+            int limit = prepend ? Math.min(params.getLoadSize(), key) : params.getLoadSize();
+            result = loadFromMirror(mirror, prepend ? key - limit : key, limit, params instanceof LoadParams.Refresh);
+        } else {
+            result = loadFromCursor(key, params.getLoadSize(), prepend);
+        }
+
+        SettableFuture<LoadResult<Integer, Transaction>> future = SettableFuture.create();
+        result.addOnSuccessListener(DIRECT, future::set)
+                .addOnFailureListener(DIRECT, e -> future.set(new LoadResult.Error<>(e)));
+        return future;
+    }
+
+    private Task<LoadResult<Integer, Transaction>> loadFromMirror(TransactionMirror mirror, int offset, int limit, boolean refresh) {
+        return mirror.getRange(offset, limit).onSuccessTask(DIRECT, transactions -> {
+            if (refresh && transactions.isEmpty() && offset > 0) {
+                // The list shrank below the refresh position: reload its last rows instead.
+                return mirror.getCount().onSuccessTask(DIRECT, count ->
+                        loadFromMirror(mirror, Math.max(0, count - limit), limit, false));
+            }
+            return mirror.getCount().onSuccessTask(DIRECT, count -> {
+                int itemsAfter = Math.max(0, count - offset - transactions.size());
+                return Tasks.forResult(page(transactions, offset, limit, offset, itemsAfter));
+            });
+        });
+    }
+
+    private Task<LoadResult<Integer, Transaction>> loadFromCursor(int key, int loadSize, boolean prepend) {
+        int offset;
+        Transaction cursor;
+        synchronized (cursors) {
+            // A prepend reloads the page that ended at the key, whatever its size.
+            Map.Entry<Integer, Transaction> start = prepend ? cursors.lowerEntry(key) : null;
+            offset = prepend ? (start == null ? -1 : start.getKey()) : key;
+            if (offset < 0 || !cursors.containsKey(offset)) {
+                return Tasks.forResult(new LoadResult.Invalid<>());
+            }
+            cursor = cursors.get(offset);
+        }
+        int limit = prepend ? key - offset : loadSize;
+
+        Task<List<Transaction>> read = TaskUtil.withTimeout(service.getTransactionsPage(cursor, limit), PAGE_TIMEOUT_MS);
+        return read.onSuccessTask(DIRECT, transactions -> {
+            if (!transactions.isEmpty()) {
+                synchronized (cursors) {
+                    cursors.put(offset + transactions.size(), transactions.get(transactions.size() - 1));
+                }
+            }
+            return Tasks.forResult(page(transactions, offset, limit,
+                    LoadResult.Page.COUNT_UNDEFINED, LoadResult.Page.COUNT_UNDEFINED));
+        });
+    }
+
+    private static LoadResult<Integer, Transaction> page(List<Transaction> transactions, int offset, int limit, int itemsBefore, int itemsAfter) {
+        Integer prevKey = offset > 0 ? offset : null;
+        Integer nextKey = transactions.size() < limit ? null : offset + transactions.size();
+        return new LoadResult.Page<>(transactions, prevKey, nextKey, itemsBefore, itemsAfter);
+    }
+}
@@ -2,31 +2,69 @@ package edu.northeastern.numad25su_group9.services;
 
 import android.util.Log;
 
-import com.google.firebase.database.DataSnapshot;
+import androidx.annotation.Nullable;
+import androidx.paging.PagingSource;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import edu.northeastern.numad25su_group9.models.Transaction;
 import edu.northeastern.numad25su_group9.repositories.TransactionRepository;
+import edu.northeastern.numad25su_group9.repositories.WriteBatch;
+import edu.northeastern.numad25su_group9.repositories.local.TransactionMirror;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
 /**
  * Service layer for interacting with transactions.
+ * <p>
+ * Reads are served from the local {@link TransactionMirror} when the app's database is
+ * available, and from Firebase otherwise.
+ * </p>
+ * <p>
+ * Every operation returns a {@link Task} that can be chained or combined with
+ * {@link Tasks#whenAllSuccess}; see {@link edu.northeastern.numad25su_group9.utils.TaskUtil}
+ * for timeouts and cancellation. The callback overloads are thin adapters over those tasks.
+ * </p>
  */
 public class TransactionService {
     public static final String TRANSACTION_SERVICE = "TransactionService";
+    // How far back an observer starts, to cover skew between the device and server clocks.
+    private static final long OBSERVE_CLOCK_SKEW_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparingLong(Transaction::getTransactionDate)
+            .thenComparing(Transaction::getTransactionId)
+            .reversed();
     private final TransactionRepository repository;
     private final SpendingService spendService;
+    @Nullable private final TransactionMirror mirror;
 
     /**
      * Constructs a TransactionService using the current authenticated user.
      */
     public TransactionService() {
-        String userId = new AuthService().getCurrentUserId();
+        this(new AuthService().getCurrentUserId(), new SpendingService());
+    }
+
+    /**
+     * Constructs a TransactionService for {@code userId} that records spending through
+     * {@code spendService}.
+     */
+    public TransactionService(String userId, SpendingService spendService) {
         this.repository = new TransactionRepository(userId);
-        this.spendService = new SpendingService();
+        this.spendService = spendService;
+        this.mirror = TransactionMirror.create(userId, repository);
     }
 
     // Callbacks
@@ -68,6 +106,32 @@ public class TransactionService {
         void onError(Exception e);
     }
 
+    /**
+     * Receives the transactions that change while observed.
+     */
+    public interface TransactionChangesCallback {
+        /**
+         * Called when a transaction is added or updated.
+         *
+         * @param transaction The current {@link Transaction}
+         */
+        void onTransactionChanged(Transaction transaction);
+
+        /**
+         * Called when a transaction is deleted, or moved to a new ID by a date change.
+         *
+         * @param transactionId The ID of the removed transaction
+         */
+        void onTransactionRemoved(String transactionId);
+
+        /**
+         * Called when observing fails. No further changes are delivered.
+         *
+         * @param e Exception describing the failure
+         */
+        void onError(Exception e);
+    }
+
     /**
      * Callback for operations that only signal success or failure without a return value.
      */
@@ -89,187 +153,298 @@ public class TransactionService {
 
     /**
      * Adds a new transaction to Firebase.
-     * Uses transactionDate to uniquely identify transactions for a user.
-     * NOTE: Uses transactionDate as a transactionId.
+     * Assigns a new time-ordered, collision-free transactionId to {@code transaction}.
+     * <p>
+     * The transaction and its spending increment are committed in one atomic write.
+     * </p>
      *
      * @param transaction   The {@link Transaction} object to store
-     * @param callback      Callback to report success or error
+     * @return {@link Task} that completes once the write is committed
      */
-    public void addTransaction(Transaction transaction, OperationCallback callback) {
+    public Task<Void> addTransaction(Transaction transaction) {
         Log.d(TRANSACTION_SERVICE, "addTransaction: adding transaction: " + transaction.toString() + " to Firebase");
-        repository.addTransaction(transaction)
-                .addOnSuccessListener(unused -> {
-                    if (transaction.isIgnore()) {
-                        callback.onSuccess();
-                        return;
-                    }
+        WriteBatch batch = new WriteBatch();
+        repository.addTransaction(transaction, batch);
+        spendService.adjustSpend(null, transaction, batch);
 
-                    spendService.incrementSpend(transaction, +transaction.getAmount(),
-                            new SpendingService.OperationCallback() {
-                                @Override public void onSuccess() { callback.onSuccess(); }
-                                @Override public void onError(Exception e) { callback.onError(e); }
-                            });
-                })
-                .addOnFailureListener(callback::onError);
+        return batch.commit().onSuccessTask(unused -> {
+            if (mirror != null) mirror.put(transaction);
+            return Tasks.forResult(null);
+        });
+    }
+
+    /**
+     * Callback adapter for {@link #addTransaction(Transaction)}.
+     */
+    public void addTransaction(Transaction transaction, OperationCallback callback) {
+        deliver(addTransaction(transaction), callback);
     }
 
     /**
      * Updates an existing transaction in Firebase.
      * NOTE: Need the tranasctionId field populated for the update to work.
+     * <p>
+     * Reads the stored copy once, then commits the update and the net change to each affected
+     * spending bucket in one atomic write. If the date changed, {@code updated} is moved to a
+     * new transactionId.
+     * </p>
      *
      * @param updated   The updated {@link Transaction} object
-     * @param callback      Callback to report success or error
+     * @return {@link Task} that completes once the write is committed
      */
-    public void updateTransaction(Transaction updated, OperationCallback callback) {
+    public Task<Void> updateTransaction(Transaction updated) {
         Log.d(TRANSACTION_SERVICE, "updateTransaction: updating transaction: " + updated.toString() + " in Firebase");
         String transactionId = updated.getTransactionId();
 
         // Do a read first to get a copy of the Transaction object before update.
-        repository.getTransactionById(transactionId)
-                .addOnSuccessListener(oldSnap -> {
+        return repository.getTransactionById(transactionId)
+                .onSuccessTask(oldSnap -> {
                     if (!oldSnap.exists()) {
-                      callback.onError(new Exception("The transaction to be updated does not exist."));
-                      return;
+                        return Tasks.forException(new Exception("The transaction to be updated does not exist."));
                     }
 
                     Transaction oldTxn = oldSnap.getValue(Transaction.class);
 
-                    // Push the required update.
-                    repository.updateTransaction(updated)
-                            .addOnSuccessListener(u -> {
-                                // If no previous txn, just apply new delta if needed
-                                if (oldTxn == null) {
-                                    if (updated.isIgnore()) { callback.onSuccess(); return; }
-                                    spendService.incrementSpend(updated, +updated.getAmount(),
-                                            new SpendingService.OperationCallback() {
-                                                @Override public void onSuccess() { callback.onSuccess(); }
-                                                @Override public void onError(Exception e) { callback.onError(e); }
-                                            });
-                                    return;
-                                }
-
-                                // Chain: reverse old (if not ignored) + apply new (if not ignored)
-                                if (!oldTxn.isIgnore()) {
-                                    spendService.incrementSpend(oldTxn, -oldTxn.getAmount(),
-                                            new SpendingService.OperationCallback() {
-                                                @Override public void onSuccess() {
-                                                    if (updated.isIgnore()) { callback.onSuccess(); return; }
-                                                    spendService.incrementSpend(updated, +updated.getAmount(),
-                                                            new SpendingService.OperationCallback() {
-                                                                @Override public void onSuccess() { callback.onSuccess(); }
-                                                                @Override public void onError(Exception e) { callback.onError(e); }
-                                                            });
-                                                }
-                                                @Override public void onError(Exception e) { callback.onError(e); }
-                                            });
-                                } else {
-                                    // Old was ignored; only add new if needed
-                                    if (updated.isIgnore()) { callback.onSuccess(); return; }
-                                    spendService.incrementSpend(updated, +updated.getAmount(),
-                                            new SpendingService.OperationCallback() {
-                                                @Override public void onSuccess() { callback.onSuccess(); }
-                                                @Override public void onError(Exception e) { callback.onError(e); }
-                                            });
-                                }
-                            })
-                            .addOnFailureListener(callback::onError);
+                    WriteBatch batch = new WriteBatch();
+                    repository.updateTransaction(updated, oldSnap, batch);
+                    // Net change per (month, category) bucket; untouched buckets are not written.
+                    spendService.adjustSpend(oldTxn, updated, batch);
+                    return batch.commit();
                 })
-                .addOnFailureListener(callback::onError);
+                .onSuccessTask(unused -> {
+                    if (mirror != null) {
+                        // A date change moves the transaction to a new key.
+                        if (!transactionId.equals(updated.getTransactionId())) {
+                            mirror.remove(transactionId);
+                        }
+                        mirror.put(updated);
+                    }
+                    return Tasks.forResult(null);
+                });
+    }
+
+    /**
+     * Callback adapter for {@link #updateTransaction(Transaction)}.
+     */
+    public void updateTransaction(Transaction updated, OperationCallback callback) {
+        deliver(updateTransaction(updated), callback);
     }
 
     /**
      * Deletes a transaction from Firebase.
+     * The delete and the reversal of its spending are committed in one atomic write.
      *
      * @param transactionId The ID of the transaction to delete
-     * @param callback      Callback to report success or error
+     * @return {@link Task} that completes once the write is committed
      */
-    public void deleteTransaction(String transactionId, OperationCallback callback) {
+    public Task<Void> deleteTransaction(String transactionId) {
         // Do a read first to get a copy of the Transaction object before update.
-        repository.getTransactionById(transactionId)
-                .addOnSuccessListener(snap -> {
+        return repository.getTransactionById(transactionId)
+                .onSuccessTask(snap -> {
                     if (!snap.exists()) {
-                        callback.onError(new Exception("The transaction to be deleted does not exist."));
-                        return;
+                        return Tasks.forException(new Exception("The transaction to be deleted does not exist."));
                     }
                     Transaction existing = snap.getValue(Transaction.class);
 
-                    // Push the required update.
-                    repository.deleteTransaction(transactionId)
-                            .addOnSuccessListener(u -> {
-                                if (existing == null || existing.isIgnore()) {
-                                    callback.onSuccess();
-                                    return;
-                                }
-                                spendService.incrementSpend(existing, -existing.getAmount(),
-                                        new SpendingService.OperationCallback() {
-                                            @Override public void onSuccess() { callback.onSuccess(); }
-                                            @Override public void onError(Exception e) { callback.onError(e); }
-                                        });
-                            })
-                            .addOnFailureListener(callback::onError);
+                    WriteBatch batch = new WriteBatch();
+                    repository.deleteTransaction(transactionId, existing, batch);
+                    spendService.adjustSpend(existing, null, batch);
+                    return batch.commit();
                 })
-                .addOnFailureListener(callback::onError);
+                .onSuccessTask(unused -> {
+                    if (mirror != null) mirror.remove(transactionId);
+                    return Tasks.forResult(null);
+                });
+    }
+
+    /**
+     * Callback adapter for {@link #deleteTransaction(String)}.
+     */
+    public void deleteTransaction(String transactionId, OperationCallback callback) {
+        deliver(deleteTransaction(transactionId), callback);
+    }
+
+    /**
+     * Rebuilds the category index from the stored transactions, for accounts whose
+     * transactions predate it.
+     *
+     * @return {@link Task} that completes once the index is written
+     */
+    public Task<Void> rebuildCategoryIndex() {
+        return repository.rebuildCategoryIndex();
+    }
+
+    /**
+     * Callback adapter for {@link #rebuildCategoryIndex()}.
+     */
+    public void rebuildCategoryIndex(OperationCallback callback) {
+        deliver(rebuildCategoryIndex(), callback);
     }
 
     /**
      * Retrieves a transaction by its ID.
      *
      * @param transactionId The ID of the transaction to retrieve
-     * @param callback      Callback returning the {@link Transaction} or an error
+     * @return {@link Task} containing the {@link Transaction}
      */
-    public void getTransactionById(String transactionId, TransactionCallback callback) {
-        repository.getTransactionById(transactionId)
-                .addOnSuccessListener(snapshot -> {
+    public Task<Transaction> getTransactionById(String transactionId) {
+        return repository.getTransactionById(transactionId)
+                .onSuccessTask(snapshot -> {
                     if (!snapshot.exists()) {
-                        callback.onError(new Exception("Transaction not found"));
-                        return;
+                        return Tasks.forException(new Exception("Transaction not found"));
                     }
                     Transaction txn = snapshot.getValue(Transaction.class);
-
-                    if (txn != null) {
-                        txn.setTransactionId(snapshot.getKey());
-                        callback.onSuccess(txn);
-                    } else {
-                        callback.onError(new Exception("Transaction data invalid"));
+                    if (txn == null) {
+                        return Tasks.forException(new Exception("Transaction data invalid"));
                     }
-                })
+                    txn.setTransactionId(snapshot.getKey());
+                    return Tasks.forResult(txn);
+                });
+    }
+
+    /**
+     * Callback adapter for {@link #getTransactionById(String)}.
+     */
+    public void getTransactionById(String transactionId, TransactionCallback callback) {
+        getTransactionById(transactionId)
+                .addOnSuccessListener(callback::onSuccess)
                 .addOnFailureListener(callback::onError);
     }
 
     /**
-     * Retrieves all transactions for the current user.
+     * Retrieves all transactions for the current user, newest first.
      *
-     * @param callback Callback returning the list of {@link Transaction} objects or an error
+     * @return {@link Task} containing the list of {@link Transaction} objects
+     */
+    public Task<List<Transaction>> getAllTransactions() {
+        if (mirror != null) return mirror.getAll();
+        return repository.getAllTransactions().onSuccessTask(snapshot -> Tasks.forResult(newestFirst(snapshot)));
+    }
+
+    /**
+     * Callback adapter for {@link #getAllTransactions()}.
      */
     public void getAllTransactions(TransactionsCallback callback) {
-        repository.getAllTransactions()
-                .addOnSuccessListener(snapshot -> {
-                    // Return default value
-                    if (!snapshot.exists()) {
-                        callback.onSuccess(new ArrayList<>());
-                        return;
+        deliver(getAllTransactions(), callback);
+    }
+
+    /**
+     * Retrieves one page of transactions, newest first.
+     * Pass {@code null} for the first page, then the last transaction of the previous page.
+     * A page shorter than {@code pageSize} is the last one.
+     *
+     * @param before    The oldest transaction already loaded, or {@code null}
+     * @param pageSize  Maximum number of transactions to return
+     * @return {@link Task} containing the page
+     */
+    public Task<List<Transaction>> getTransactionsPage(@Nullable Transaction before, int pageSize) {
+        Long beforeDate = before == null ? null : before.getTransactionDate();
+        String beforeId = before == null ? null : before.getTransactionId();
+
+        if (mirror != null) return mirror.getPage(beforeDate, beforeId, pageSize);
+
+        return repository.getTransactionsPage(beforeId, pageSize).onSuccessTask(snapshot -> {
+            List<Transaction> list = toTransactions(snapshot);
+            // Firebase returns the page oldest first.
+            Collections.reverse(list);
+            return Tasks.forResult(list);
+        });
+    }
+
+    /**
+     * Callback adapter for {@link #getTransactionsPage(Transaction, int)}.
+     */
+    public void getTransactionsPage(@Nullable Transaction before, int pageSize, TransactionsCallback callback) {
+        deliver(getTransactionsPage(before, pageSize), callback);
+    }
+
+    /**
+     * Creates a source of the same pages for Jetpack Paging. Each source serves one
+     * generation of the list; create a new one after it is invalidated.
+     */
+    public PagingSource<Integer, Transaction> newPagingSource() {
+        return new TransactionPagingSource(this, mirror);
+    }
+
+    /**
+     * Observes the transactions written from now on, by this or any other device.
+     * <p>
+     * Follows the change log, so each write costs one log entry plus a read of the changed
+     * transaction, whatever the layout. Changes are also applied to the local mirror.
+     * Changes from about a minute before the call may be delivered too.
+     * </p>
+     *
+     * @return The registration to remove once the changes are no longer needed
+     */
+    public StorageEngine.Registration observeTransactionChanges(TransactionChangesCallback callback) {
+        // Latest event per transaction still being read, so a slow read never overwrites a
+        // newer change. Numbers are never reused, and entries are removed once settled.
+        Map<String, Long> generations = new HashMap<>();
+        AtomicLong sequence = new AtomicLong();
+        long since = System.currentTimeMillis() - OBSERVE_CLOCK_SKEW_MS;
+
+        return repository.observeChangesSince(since, new StorageEngine.ChildListener() {
+            @Override
+            public void onChildAdded(StorageSnapshot child) {
+                onChange(child);
+            }
+
+            @Override
+            public void onChildChanged(StorageSnapshot child) {
+                onChange(child);
+            }
+
+            @Override
+            public void onChildRemoved(StorageSnapshot child) {
+                // Only entries far older than the observed range are removed, when the log is pruned.
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callback.onError(e);
+            }
+
+            private void onChange(StorageSnapshot entry) {
+                String transactionId = entry.getKey();
+
+                if (Boolean.TRUE.equals(entry.child("deleted").getValue())) {
+                    // Delivered right away, so any read still in flight is stale.
+                    synchronized (generations) {
+                        generations.remove(transactionId);
                     }
-                    List<Transaction> list = new ArrayList<>();
-                    for (DataSnapshot snap : snapshot.getChildren()) {
-                        Transaction txn = snap.getValue(Transaction.class);
-                        if (txn != null) {
-                            txn.setTransactionId(snap.getKey());
-                            list.add(txn);
-                        }
+                    if (mirror != null) mirror.remove(transactionId);
+                    callback.onTransactionRemoved(transactionId);
+                    return;
+                }
+
+                long generation = sequence.incrementAndGet();
+                synchronized (generations) {
+                    generations.put(transactionId, generation);
+                }
+                getTransactionById(transactionId).addOnSuccessListener(txn -> {
+                    synchronized (generations) {
+                        if (!generations.remove(transactionId, generation)) return;
                     }
-                    callback.onSuccess(list);
-                })
-                .addOnFailureListener(callback::onError);
+                    if (mirror != null) mirror.put(txn);
+                    callback.onTransactionChanged(txn);
+                }).addOnFailureListener(e -> {
+                    synchronized (generations) {
+                        generations.remove(transactionId, generation);
+                    }
+                    Log.w(TRANSACTION_SERVICE, "Could not read changed transaction " + transactionId, e);
+                });
+            }
+        });
     }
 
     /**
-     * Retrieves all transactions that occurred in a specific month and year in UTC time.
+     * Retrieves all transactions that occurred in a specific month and year in UTC time, newest first.
      *
      * @param year     The year to filter by (e.g., 2025)
      * @param month    The month to filter by (1-12)
-     * @param callback Callback returning the filtered transactions or an error
+     * @return {@link Task} containing the filtered transactions
      */
-    public void getTransactionsByMonth(int year, int month, TransactionsCallback callback) {
+    public Task<List<Transaction>> getTransactionsByMonth(int year, int month) {
         // First day of the month at 00:00 UTC
         LocalDateTime start = LocalDateTime.of(year, month, 1, 0, 0);
         // Last nanosecond of the month
@@ -278,50 +453,96 @@ public class TransactionService {
         long startMillis = start.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
         long endMillis = end.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
 
-        repository.getTransactionsByDateRange(startMillis, endMillis)
-                .addOnSuccessListener(snapshot -> {
-                    // Return default value
-                    if (!snapshot.exists()) {
-                        callback.onSuccess(new ArrayList<>());
-                        return;
-                    }
-                    List<Transaction> list = new ArrayList<>();
-                    for (DataSnapshot snap : snapshot.getChildren()) {
-                        Transaction txn = snap.getValue(Transaction.class);
-                        if (txn != null) {
-                            txn.setTransactionId(snap.getKey());
-                            list.add(txn);
-                        }
-                    }
-                    callback.onSuccess(list);
-                })
-                .addOnFailureListener(callback::onError);
+        return getTransactionsBetween(startMillis, endMillis);
+    }
+
+    /**
+     * Callback adapter for {@link #getTransactionsByMonth(int, int)}.
+     */
+    public void getTransactionsByMonth(int year, int month, TransactionsCallback callback) {
+        deliver(getTransactionsByMonth(year, month), callback);
     }
 
     /**
-     * Retrieves all transactions that belong to the specified category.
+     * Retrieves all transactions that occurred in a specific year in UTC time, newest first.
+     *
+     * @param year     The year to filter by (e.g., 2025)
+     * @return {@link Task} containing the filtered transactions
+     */
+    public Task<List<Transaction>> getTransactionsByYear(int year) {
+        LocalDateTime start = LocalDateTime.of(year, 1, 1, 0, 0);
+        LocalDateTime end = start.plusYears(1).minusNanos(1);
+
+        long startMillis = start.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+        long endMillis = end.atZone(ZoneId.of("UTC")).toInstant().toEpochMilli();
+
+        return getTransactionsBetween(startMillis, endMillis);
+    }
+
+    /**
+     * Callback adapter for {@link #getTransactionsByYear(int)}.
+     */
+    public void getTransactionsByYear(int year, TransactionsCallback callback) {
+        deliver(getTransactionsByYear(year), callback);
+    }
+
+    private Task<List<Transaction>> getTransactionsBetween(long startMillis, long endMillis) {
+        if (mirror != null) return mirror.getByDateRange(startMillis, endMillis);
+        return repository.getTransactionsByDateRange(startMillis, endMillis)
+                .onSuccessTask(snapshot -> Tasks.forResult(newestFirst(snapshot)));
+    }
+
+    /**
+     * Retrieves all transactions that belong to the specified category, newest first.
+     * Without the local mirror, this reads the category index.
      *
      * @param categoryId The category ID to filter by
-     * @param callback   Callback returning the filtered transactions or an error
+     * @return {@link Task} containing the filtered transactions
+     */
+    public Task<List<Transaction>> getTransactionsByCategory(String categoryId) {
+        if (mirror != null) return mirror.getByCategory(categoryId);
+        return repository.getTransactionsByCategory(categoryId)
+                .onSuccessTask(snapshot -> Tasks.forResult(newestFirst(snapshot)));
+    }
+
+    /**
+     * Callback adapter for {@link #getTransactionsByCategory(String)}.
      */
     public void getTransactionsByCategory(String categoryId, TransactionsCallback callback) {
-        repository.getTransactionsByCategory(categoryId)
-                .addOnSuccessListener(snapshot -> {
-                    // Return default value
-                    if (!snapshot.exists()) {
-                        callback.onSuccess(new ArrayList<>());
-                        return;
-                    }
-                    List<Transaction> list = new ArrayList<>();
-                    for (DataSnapshot snap : snapshot.getChildren()) {
-                        Transaction txn = snap.getValue(Transaction.class);
-                        if (txn != null) {
-                            txn.setTransactionId(snap.getKey());
-                            list.add(txn);
-                        }
-                    }
-                    callback.onSuccess(list);
-                })
+        deliver(getTransactionsByCategory(categoryId), callback);
+    }
+
+    // Helpers
+
+    private static List<Transaction> toTransactions(StorageSnapshot snapshot) {
+        List<Transaction> list = new ArrayList<>();
+        for (StorageSnapshot snap : snapshot.getChildren()) {
+            Transaction txn = snap.getValue(Transaction.class);
+            if (txn != null) {
+                txn.setTransactionId(snap.getKey());
+                list.add(txn);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Decodes a snapshot in the order of the local mirror's queries: by transaction date,
+     * newest first, then by transactionId.
+     */
+    private static List<Transaction> newestFirst(StorageSnapshot snapshot) {
+        List<Transaction> list = toTransactions(snapshot);
+        list.sort(NEWEST_FIRST);
+        return list;
+    }
+
+    private static void deliver(Task<Void> task, OperationCallback callback) {
+        task.addOnSuccessListener(unused -> callback.onSuccess())
+                .addOnFailureListener(callback::onError);
+    }
+
+    private static void deliver(Task<List<Transaction>> task, TransactionsCallback callback) {
+        task.addOnSuccessListener(callback::onSuccess)
                 .addOnFailureListener(callback::onError);
     }
 }
@@ -1,8 +1,14 @@
 package edu.northeastern.numad25su_group9.services;
 
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
 import edu.northeastern.numad25su_group9.models.User;
 import edu.northeastern.numad25su_group9.repositories.UserRepository;
 
+/**
+ * Every operation returns a {@link Task}; the callback overloads adapt those tasks.
+ */
 public class UserService {
     public interface OperationCallback { void onSuccess(); void onError(Exception e); }
     public interface UserCallback { void onSuccess(User user); void onError(Exception e); }
@@ -20,22 +26,30 @@ public class UserService {
         this.repo = new UserRepository(userId);
     }
 
+    public Task<Void> upsertUser(User user) {
+        return repo.upsertUser(user);
+    }
+
     public void upsertUser(User user, OperationCallback cb) {
-        repo.upsertUser(user)
+        upsertUser(user)
                 .addOnSuccessListener(v -> cb.onSuccess())
                 .addOnFailureListener(cb::onError);
     }
 
-    public void getUser(UserCallback cb) {
-        repo.getUser()
-                .addOnSuccessListener(snap -> {
+    public Task<User> getUser() {
+        return repo.getUser()
+                .onSuccessTask(snap -> {
                     if (!snap.exists()) {
-                        cb.onError(new Exception("User does not exist"));
-                        return;
+                        return Tasks.forException(new Exception("User does not exist"));
                     }
                     User u = snap.getValue(User.class);
-                    if (u != null) cb.onSuccess(u); else cb.onError(new Exception("User data invalid"));
-                })
+                    return u != null ? Tasks.forResult(u) : Tasks.forException(new Exception("User data invalid"));
+                });
+    }
+
+    public void getUser(UserCallback cb) {
+        getUser()
+                .addOnSuccessListener(cb::onSuccess)
                 .addOnFailureListener(cb::onError);
     }
 }
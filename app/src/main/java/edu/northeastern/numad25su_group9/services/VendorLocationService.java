@@ -1,13 +1,19 @@
 package edu.northeastern.numad25su_group9.services;
 
-import com.google.firebase.database.DataSnapshot;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
 import java.util.ArrayList;
 import java.util.List;
 
 import edu.northeastern.numad25su_group9.models.VendorLocation;
 import edu.northeastern.numad25su_group9.repositories.VendorLocationRepository;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
-/** Service to interact with VendorLocation collection */
+/**
+ * Service to interact with VendorLocation collection.
+ * Every operation returns a {@link Task}; the callback overloads adapt those tasks.
+ */
 public class VendorLocationService {
     public interface OperationCallback { void onSuccess(); void onError(Exception e); }
     public interface LocationCallback { void onSuccess(VendorLocation loc); void onError(Exception e); }
@@ -20,45 +26,59 @@ public class VendorLocationService {
         this.repo = new VendorLocationRepository(userId, vendorId);
     }
 
+    public Task<Void> addOrUpdateLocation(String locationId, VendorLocation loc) {
+        return repo.addOrUpdateLocation(locationId, loc);
+    }
+
     public void addOrUpdateLocation(String locationId, VendorLocation loc, OperationCallback cb) {
-        repo.addOrUpdateLocation(locationId, loc)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(addOrUpdateLocation(locationId, loc), cb);
+    }
+
+    public Task<Void> deleteLocation(String locationId) {
+        return repo.deleteLocation(locationId);
     }
 
     public void deleteLocation(String locationId, OperationCallback cb) {
-        repo.deleteLocation(locationId)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(deleteLocation(locationId), cb);
     }
 
-    public void getLocationById(String locationId, LocationCallback cb) {
-        repo.getLocationById(locationId)
-                .addOnSuccessListener(snap -> {
+    public Task<VendorLocation> getLocationById(String locationId) {
+        return repo.getLocationById(locationId)
+                .onSuccessTask(snap -> {
                     if (!snap.exists()) {
-                        cb.onError(new Exception("Location data does not exist"));
-                        return;
+                        return Tasks.forException(new Exception("Location data does not exist"));
                     }
                     VendorLocation v = snap.getValue(VendorLocation.class);
-                    if (v != null) cb.onSuccess(v); else cb.onError(new Exception("Location data invalid"));
-                })
+                    return v != null ? Tasks.forResult(v) : Tasks.forException(new Exception("Location data invalid"));
+                });
+    }
+
+    public void getLocationById(String locationId, LocationCallback cb) {
+        getLocationById(locationId)
+                .addOnSuccessListener(cb::onSuccess)
                 .addOnFailureListener(cb::onError);
     }
 
-    public void getAllLocationsForVendor(LocationsCallback cb) {
-        repo.getAllLocationsForVendor()
-                .addOnSuccessListener(snap -> {
-                    if (!snap.exists()) {
-                        cb.onSuccess(new ArrayList<>());
-                        return;
-                    }
+    public Task<List<VendorLocation>> getAllLocationsForVendor() {
+        return repo.getAllLocationsForVendor()
+                .onSuccessTask(snap -> {
                     List<VendorLocation> out = new ArrayList<>();
-                    for (DataSnapshot child : snap.getChildren()) {
+                    for (StorageSnapshot child : snap.getChildren()) {
                         VendorLocation v = child.getValue(VendorLocation.class);
                         if (v != null) out.add(v);
                     }
-                    cb.onSuccess(out);
-                })
+                    return Tasks.forResult(out);
+                });
+    }
+
+    public void getAllLocationsForVendor(LocationsCallback cb) {
+        getAllLocationsForVendor()
+                .addOnSuccessListener(cb::onSuccess)
+                .addOnFailureListener(cb::onError);
+    }
+
+    private static void deliver(Task<Void> task, OperationCallback cb) {
+        task.addOnSuccessListener(u -> cb.onSuccess())
                 .addOnFailureListener(cb::onError);
     }
 }
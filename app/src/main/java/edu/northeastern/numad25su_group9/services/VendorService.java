@@ -1,12 +1,18 @@
 package edu.northeastern.numad25su_group9.services;
 
-import com.google.firebase.database.DataSnapshot;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
 import java.util.ArrayList;
 import java.util.List;
 
 import edu.northeastern.numad25su_group9.models.Vendor;
 import edu.northeastern.numad25su_group9.repositories.VendorRepository;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
 
+/**
+ * Every operation returns a {@link Task}; the callback overloads adapt those tasks.
+ */
 public class VendorService {
     public interface OperationCallback { void onSuccess(); void onError(Exception e); }
     public interface VendorCallback { void onSuccess(Vendor v); void onError(Exception e); }
@@ -15,66 +21,78 @@ public class VendorService {
     private final VendorRepository repo;
 
     public VendorService() {
-        String userId = new AuthService().getCurrentUserId();
+        this(new AuthService().getCurrentUserId());
+    }
+
+    public VendorService(String userId) {
         this.repo = new VendorRepository(userId);
     }
 
+    public Task<Void> addVendor(String vendorId, Vendor v) {
+        return repo.addVendor(vendorId, v);
+    }
+
     public void addVendor(String vendorId, Vendor v, OperationCallback cb) {
-        repo.addVendor(vendorId, v)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(addVendor(vendorId, v), cb);
+    }
+
+    public Task<Void> deleteVendor(String vendorId) {
+        return repo.deleteVendor(vendorId);
     }
 
     public void deleteVendor(String vendorId, OperationCallback cb) {
-        repo.deleteVendor(vendorId)
-                .addOnSuccessListener(u -> cb.onSuccess())
-                .addOnFailureListener(cb::onError);
+        deliver(deleteVendor(vendorId), cb);
     }
 
-    public void getVendorById(String vendorId, VendorCallback cb) {
-        repo.getVendorById(vendorId)
-                .addOnSuccessListener(snap -> {
+    public Task<Vendor> getVendorById(String vendorId) {
+        return repo.getVendorById(vendorId)
+                .onSuccessTask(snap -> {
                     if (!snap.exists()) {
-                        cb.onError(new Exception("Vendor not found"));
-                        return;
+                        return Tasks.forException(new Exception("Vendor not found"));
                     }
                     Vendor v = snap.getValue(Vendor.class);
-                    if (v != null) cb.onSuccess(v); else cb.onError(new Exception("Vendor data invalid"));
-                })
+                    return v != null ? Tasks.forResult(v) : Tasks.forException(new Exception("Vendor data invalid"));
+                });
+    }
+
+    public void getVendorById(String vendorId, VendorCallback cb) {
+        getVendorById(vendorId)
+                .addOnSuccessListener(cb::onSuccess)
                 .addOnFailureListener(cb::onError);
     }
 
+    public Task<List<Vendor>> getAllVendors() {
+        return repo.getAllVendors().onSuccessTask(snap -> Tasks.forResult(toVendors(snap)));
+    }
+
     public void getAllVendors(VendorsCallback cb) {
-        repo.getAllVendors()
-                .addOnSuccessListener(snap -> {
-                    if (!snap.exists()) {
-                        cb.onSuccess(new ArrayList<>());
-                        return;
-                    }
-                    List<Vendor> out = new ArrayList<>();
-                    for (DataSnapshot child : snap.getChildren()) {
-                        Vendor v = child.getValue(Vendor.class);
-                        if (v != null) out.add(v);
-                    }
-                    cb.onSuccess(out);
-                })
-                .addOnFailureListener(cb::onError);
+        deliver(getAllVendors(), cb);
+    }
+
+    public Task<List<Vendor>> getVendorsByCategoryId(String categoryId) {
+        return repo.getVendorsByCategoryId(categoryId).onSuccessTask(snap -> Tasks.forResult(toVendors(snap)));
     }
 
     public void getVendorsByCategoryId(String categoryId, VendorsCallback cb) {
-        repo.getVendorsByCategoryId(categoryId)
-                .addOnSuccessListener(snap -> {
-                    if (!snap.exists()) {
-                        cb.onSuccess(new ArrayList<>());
-                        return;
-                    }
-                    List<Vendor> out = new ArrayList<>();
-                    for (DataSnapshot child : snap.getChildren()) {
-                        Vendor v = child.getValue(Vendor.class);
-                        if (v != null) out.add(v);
-                    }
-                    cb.onSuccess(out);
-                })
+        deliver(getVendorsByCategoryId(categoryId), cb);
+    }
+
+    private static List<Vendor> toVendors(StorageSnapshot snap) {
+        List<Vendor> out = new ArrayList<>();
+        for (StorageSnapshot child : snap.getChildren()) {
+            Vendor v = child.getValue(Vendor.class);
+            if (v != null) out.add(v);
+        }
+        return out;
+    }
+
+    private static void deliver(Task<Void> task, OperationCallback cb) {
+        task.addOnSuccessListener(u -> cb.onSuccess())
+                .addOnFailureListener(cb::onError);
+    }
+
+    private static void deliver(Task<List<Vendor>> task, VendorsCallback cb) {
+        task.addOnSuccessListener(cb::onSuccess)
                 .addOnFailureListener(cb::onError);
     }
 }
@@ -2,6 +2,7 @@ package edu.northeastern.numad25su_group9.utils;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
@@ -56,4 +57,16 @@ public final class DateUtil {
         LocalDateTime dateTime = LocalDateTime.of(year, month, 1, 0, 0);
         return toDateKey(dateTime);
     }
+
+    /**
+     * Converts a Firebase year_month key back to the start of that month.
+     *
+     * @param dateKey The yyyyMM key string
+     * @return Epoch milliseconds of the first day of the month at 00:00 UTC
+     */
+    public static long fromDateKey(String dateKey) {
+        return YearMonth.parse(dateKey, MONTH_KEY_FORMATTER)
+                .atDay(1).atStartOfDay()
+                .toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
 }
@@ -0,0 +1,43 @@
+package edu.northeastern.numad25su_group9.utils;
+
+import java.time.ZoneId;
+
+/**
+ * The device's time zone, read once instead of on every call.
+ * <p>
+ * {@link ZoneId#systemDefault()} copies the default {@link java.util.TimeZone} each time.
+ * {@code App} calls {@link #refresh()} when the system reports a time zone change; each change
+ * bumps {@link #version()}, so values derived in the old zone know to recompute.
+ * </p>
+ */
+public final class DeviceZone {
+
+    private static volatile ZoneId zone = ZoneId.systemDefault();
+    private static volatile int version;
+
+    private DeviceZone() {
+        // Prevent instantiation
+    }
+
+    public static ZoneId get() {
+        return zone;
+    }
+
+    /**
+     * @return A number that changes whenever {@link #get()} does
+     */
+    public static int version() {
+        return version;
+    }
+
+    /**
+     * Re-reads the default zone, e.g. after {@code ACTION_TIMEZONE_CHANGED}.
+     */
+    public static synchronized void refresh() {
+        ZoneId current = ZoneId.systemDefault();
+        if (!current.equals(zone)) {
+            zone = current;
+            version++;
+        }
+    }
+}
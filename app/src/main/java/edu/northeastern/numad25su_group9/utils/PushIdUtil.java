@@ -0,0 +1,112 @@
+package edu.northeastern.numad25su_group9.utils;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Utility class for time-ordered, collision-free keys in the style of Firebase push IDs.
+ * <p>
+ * An ID is 8 characters of timestamp followed by 12 random characters, drawn from an alphabet
+ * in ASCII order, so IDs sort by timestamp under plain string (and Firebase key) ordering.
+ * IDs generated in the same process for the same millisecond increment the random part
+ * instead of re-rolling it, so they stay strictly increasing.
+ * </p>
+ */
+public final class PushIdUtil {
+
+    private static final String ALPHABET = "-0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ_abcdefghijklmnopqrstuvwxyz";
+    private static final int TIMESTAMP_LENGTH = 8;
+    private static final int RANDOM_LENGTH = 12;
+    public static final int ID_LENGTH = TIMESTAMP_LENGTH + RANDOM_LENGTH;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static long lastTimestamp = Long.MIN_VALUE;
+    private static final int[] lastRandom = new int[RANDOM_LENGTH];
+
+    private PushIdUtil() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Generates a new ID ordered by {@code timestampMillis}.
+     *
+     * @param timestampMillis Epoch milliseconds the ID should sort by (negative values clamp to 0)
+     * @return A 20 character ID
+     */
+    public static synchronized String generate(long timestampMillis) {
+        long timestamp = Math.max(0, timestampMillis);
+
+        if (timestamp == lastTimestamp) {
+            // Same millisecond: increment the random part, carrying from the last character.
+            int i = RANDOM_LENGTH - 1;
+            while (i >= 0 && lastRandom[i] == ALPHABET.length() - 1) {
+                lastRandom[i] = 0;
+                i--;
+            }
+            if (i >= 0) lastRandom[i]++;
+        } else {
+            lastTimestamp = timestamp;
+            for (int i = 0; i < RANDOM_LENGTH; i++) {
+                lastRandom[i] = RANDOM.nextInt(ALPHABET.length());
+            }
+        }
+
+        StringBuilder id = new StringBuilder(ID_LENGTH).append(prefix(timestamp));
+        for (int digit : lastRandom) {
+            id.append(ALPHABET.charAt(digit));
+        }
+        return id.toString();
+    }
+
+    /**
+     * @return The smallest possible ID for {@code timestampMillis}, for inclusive range starts
+     */
+    public static String lowerBound(long timestampMillis) {
+        return prefix(Math.max(0, timestampMillis)) + repeat(ALPHABET.charAt(0));
+    }
+
+    /**
+     * @return The largest possible ID for {@code timestampMillis}, for inclusive range ends
+     */
+    public static String upperBound(long timestampMillis) {
+        return prefix(Math.max(0, timestampMillis)) + repeat(ALPHABET.charAt(ALPHABET.length() - 1));
+    }
+
+    /**
+     * @return Whether {@code key} has the shape of an ID from this class
+     */
+    public static boolean isPushId(String key) {
+        if (key == null || key.length() != ID_LENGTH) return false;
+        for (int i = 0; i < key.length(); i++) {
+            if (ALPHABET.indexOf(key.charAt(i)) < 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The timestamp encoded in {@code id}, or {@code -1} if it is not a push ID
+     */
+    public static long timestampOf(String id) {
+        if (!isPushId(id)) return -1;
+        long timestamp = 0;
+        for (int i = 0; i < TIMESTAMP_LENGTH; i++) {
+            timestamp = timestamp * ALPHABET.length() + ALPHABET.indexOf(id.charAt(i));
+        }
+        return timestamp;
+    }
+
+    private static String prefix(long timestamp) {
+        char[] chars = new char[TIMESTAMP_LENGTH];
+        for (int i = TIMESTAMP_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt((int) (timestamp % ALPHABET.length()));
+            timestamp /= ALPHABET.length();
+        }
+        return new String(chars);
+    }
+
+    private static String repeat(char c) {
+        char[] chars = new char[RANDOM_LENGTH];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
@@ -0,0 +1,66 @@
+package edu.northeastern.numad25su_group9.utils;
+
+import androidx.annotation.NonNull;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Utility class for composing the {@link Task}s returned by the services.
+ * <p>
+ * Firebase reads and writes cannot be aborted once started, so {@link #withTimeout} only
+ * stops the caller from waiting: the returned task settles early, and the result of the
+ * underlying operation is dropped when it arrives.
+ * </p>
+ */
+public final class TaskUtil {
+
+    // Completes the returned task on whichever thread finished the underlying one.
+    private static final Executor DIRECT = Runnable::run;
+
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "TaskUtil-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TaskUtil() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @return A task that mirrors {@code task}, or fails with a {@link TimeoutException} if
+     *         {@code task} has not completed within {@code timeoutMillis}
+     */
+    public static <T> Task<T> withTimeout(@NonNull Task<T> task, long timeoutMillis) {
+        if (task.isComplete()) return task;
+
+        TaskCompletionSource<T> source = new TaskCompletionSource<>();
+        ScheduledFuture<?> timeout = TIMER.schedule(
+                () -> source.trySetException(new TimeoutException("Timed out after " + timeoutMillis + " ms")),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        task.addOnCompleteListener(DIRECT, completed -> {
+            timeout.cancel(false);
+            copy(completed, source);
+        });
+        return source.getTask();
+    }
+
+    private static <T> void copy(Task<T> from, TaskCompletionSource<T> to) {
+        if (from.isSuccessful()) {
+            to.trySetResult(from.getResult());
+        } else if (from.isCanceled()) {
+            to.trySetException(new CancellationException("Task was canceled"));
+        } else {
+            to.trySetException(from.getException());
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package edu.northeastern.numad25su_group9;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.function.BiConsumer;
+
+import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.RepositoryCache;
+import edu.northeastern.numad25su_group9.repositories.storage.InMemoryStorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageProvider;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageQuery;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+/**
+ * Shared fixture for tests that run repositories and services against an in-memory engine.
+ */
+public final class StorageTestUtil {
+
+    // 2025-07-03 and 2025-07-20, 01:00 UTC
+    public static final long JULY_3 = 1751504400000L;
+    public static final long JULY_20 = 1752973200000L;
+    // 2025-08-01, 01:00 UTC
+    public static final long AUGUST_1 = 1754010000000L;
+    public static final long HOUR = 3_600_000L;
+
+    /**
+     * An {@link InMemoryStorageEngine} that runs {@link #beforeQuery} ahead of every query,
+     * so tests can land writes in the middle of a read.
+     */
+    public static class TestEngine extends InMemoryStorageEngine {
+        @Nullable public BiConsumer<String, StorageQuery> beforeQuery;
+
+        @Override
+        public Task<StorageSnapshot> query(@NonNull String path, @NonNull StorageQuery query) {
+            BiConsumer<String, StorageQuery> hook = beforeQuery;
+            if (hook != null) hook.accept(path, query);
+            return super.query(path, query);
+        }
+
+        /**
+         * @return The number stored at {@code path}, or 0 if there is none
+         */
+        public double amount(String path) {
+            Object value = get(path).getResult().getValue();
+            return value instanceof Number ? ((Number) value).doubleValue() : 0;
+        }
+    }
+
+    private StorageTestUtil() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Makes a new, empty engine the one every repository created afterwards uses, and drops
+     * the reads cached by earlier tests.
+     */
+    public static TestEngine installEngine() {
+        TestEngine engine = new TestEngine();
+        StorageProvider.setEngine(engine);
+        RepositoryCache.getInstance().clear();
+        return engine;
+    }
+
+    public static Transaction transaction(String category, double amount, long date) {
+        Transaction txn = new Transaction.Builder().setCategoryName(category).setAmount(amount).build();
+        txn.setTransactionDate(date);
+        return txn;
+    }
+}
@@ -0,0 +1,42 @@
+package edu.northeastern.numad25su_group9;
+
+import android.os.Looper;
+
+import com.google.android.gms.tasks.Task;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeoutException;
+
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Waits for {@link Task}s in Robolectric tests.
+ * <p>
+ * Tests run on the main thread, where continuations attached without an executor are
+ * posted. The main looper is idled until the task completes instead of blocking on it.
+ * </p>
+ */
+public final class TaskTestUtil {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    private TaskTestUtil() {
+        // Prevent instantiation
+    }
+
+    /**
+     * @return The result of {@code task}, once the work queued on the main looper completed it
+     */
+    public static <T> T await(Task<T> task) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!task.isComplete()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new TimeoutException("Task did not complete in " + TIMEOUT_MS + " ms");
+            }
+            shadowOf(Looper.getMainLooper()).idle();
+        }
+        if (task.isCanceled()) throw new CancellationException();
+        if (!task.isSuccessful()) throw task.getException();
+        return task.getResult();
+    }
+}
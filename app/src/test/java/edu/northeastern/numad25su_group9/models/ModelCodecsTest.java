@@ -0,0 +1,166 @@
+package edu.northeastern.numad25su_group9.models;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import edu.northeastern.numad25su_group9.repositories.storage.InMemoryStorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+import static org.junit.Assert.*;
+
+/**
+ * Round trips every model through {@code toMap()} and its {@code fromMap(Map)} decoder.
+ */
+public class ModelCodecsTest {
+
+    private static final long JULY_2025_UTC = 1751328000000L;
+
+    @Test
+    public void everyModelHasADecoder() {
+        for (Class<?> type : new Class<?>[]{Transaction.class, Spending.class, Budget.class,
+                Category.class, User.class, Vendor.class, VendorLocation.class}) {
+            assertNotNull(type.getSimpleName(), ModelCodecs.decoderFor(type));
+        }
+        assertNull(ModelCodecs.decoderFor(MonthlySpendingSummary.class));
+    }
+
+    @Test
+    public void transaction_roundTrips() {
+        Transaction txn = new Transaction.Builder()
+                .setCategoryName("Food")
+                .setDescription("Lunch")
+                .setAmount(12.34)
+                .setIgnore(true)
+                .setVendorId("v1")
+                .setVendorName("Cafe")
+                .setLocationId("l1")
+                .setLatitude(42.34)
+                .setLongitude(-71.09)
+                .build();
+        txn.setTransactionDate(1751504400000L);
+
+        Transaction decoded = Transaction.fromMap(txn.toMap());
+
+        assertEquals(txn.toMap(), decoded.toMap());
+        assertEquals("Food", decoded.getCategoryName());
+        assertEquals(12.34, decoded.getAmount(), 0);
+        assertTrue(decoded.isIgnore());
+        assertEquals(Double.valueOf(-71.09), decoded.getLongitude());
+        assertEquals(1751504400000L, decoded.getTransactionDate());
+    }
+
+    @Test
+    public void transaction_keepsMissingOptionalFieldsNull() {
+        Transaction txn = new Transaction.Builder().setCategoryName("Food").setAmount(1).build();
+
+        Transaction decoded = Transaction.fromMap(txn.toMap());
+
+        assertEquals(txn.toMap(), decoded.toMap());
+        assertNull(decoded.getVendorId());
+        assertNull(decoded.getLatitude());
+        assertNull(decoded.getLongitude());
+    }
+
+    @Test
+    public void spending_roundTrips() {
+        Spending spending = Spending.builder()
+                .setCategoryName("Food")
+                .setAmount(99.5)
+                .setMonthDateUtcTs(JULY_2025_UTC)
+                .build();
+
+        Spending decoded = Spending.fromMap(spending.toMap());
+
+        assertEquals(spending.toMap(), decoded.toMap());
+        assertEquals(JULY_2025_UTC, decoded.getMonthUtcTs());
+    }
+
+    @Test
+    public void spending_readsTheLegacyMonthKey() {
+        Map<String, Object> legacy = new HashMap<>();
+        legacy.put("categoryName", "Food");
+        legacy.put("amount", 10L);
+        legacy.put("effectiveFromDate", JULY_2025_UTC);
+
+        Spending decoded = Spending.fromMap(legacy);
+
+        assertEquals(JULY_2025_UTC, decoded.getMonthUtcTs());
+        assertEquals(10.0, decoded.getAmount(), 0);
+    }
+
+    @Test
+    public void spending_prefersMonthUtcTsOverTheLegacyKey() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("monthUtcTs", JULY_2025_UTC);
+        map.put("effectiveFromDate", 0L);
+
+        assertEquals(JULY_2025_UTC, Spending.fromMap(map).getMonthUtcTs());
+    }
+
+    @Test
+    public void budget_roundTrips() {
+        Budget budget = Budget.builder().setAmount(500.25).setMonthDateUtcTs(JULY_2025_UTC).build();
+
+        Budget decoded = Budget.fromMap(budget.toMap());
+
+        assertEquals(budget.toMap(), decoded.toMap());
+        assertEquals(500.25, decoded.getAmount(), 0);
+    }
+
+    @Test
+    public void category_roundTrips() {
+        Category category = new Category();
+        category.setName("Entertainment");
+
+        assertEquals(category.toMap(), Category.fromMap(category.toMap()).toMap());
+    }
+
+    @Test
+    public void user_roundTrips() {
+        User user = new User();
+        user.setEmail("a@example.com");
+        user.setDisplayName("A");
+        user.setTheme("DARK");
+        user.setAnonymous(true);
+        user.setLocationAlerts(true);
+
+        assertEquals(user.toMap(), User.fromMap(user.toMap()).toMap());
+    }
+
+    @Test
+    public void vendor_roundTrips() {
+        Vendor vendor = new Vendor();
+        vendor.setName("Cafe");
+        vendor.setCategoryId("food");
+        vendor.setCategoryName("Food");
+
+        assertEquals(vendor.toMap(), Vendor.fromMap(vendor.toMap()).toMap());
+    }
+
+    @Test
+    public void vendorLocation_roundTrips() {
+        VendorLocation location = new VendorLocation();
+        location.setLatitude(42.34);
+        location.setLongitude(-71.09);
+
+        assertEquals(location.toMap(), VendorLocation.fromMap(location.toMap()).toMap());
+    }
+
+    @Test
+    public void decodesStoredValues() {
+        // Stored whole doubles come back as longs, as they do from Firebase.
+        InMemoryStorageEngine engine = new InMemoryStorageEngine();
+        Transaction txn = new Transaction.Builder().setCategoryName("Food").setAmount(12).build();
+        txn.setTransactionDate(1751504400000L);
+        engine.set("transactions/u1/t1", txn.toMap());
+
+        StorageSnapshot stored = engine.get("transactions/u1/t1").getResult();
+        assertTrue(stored.child("amount").getValue() instanceof Long);
+
+        Transaction decoded = stored.getValue(Transaction.class);
+        assertNotNull(decoded);
+        assertEquals(txn.toMap(), decoded.toMap());
+    }
+}
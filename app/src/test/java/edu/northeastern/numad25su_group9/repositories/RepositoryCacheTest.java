@@ -0,0 +1,105 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.northeastern.numad25su_group9.repositories.storage.InMemoryStorageEngine;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks invalidation, the generation check on {@code put}, expiry and eviction.
+ */
+public class RepositoryCacheTest {
+
+    private static final long TTL = 60_000;
+
+    private RepositoryCache cache;
+    private StorageSnapshot leaf;
+
+    @Before
+    public void setUp() {
+        cache = new RepositoryCache(100);
+        InMemoryStorageEngine engine = new InMemoryStorageEngine();
+        engine.set("node", 1L);
+        leaf = engine.get("node").getResult();
+    }
+
+    @Test
+    public void invalidate_dropsThePathItsAncestorsAndDescendants() {
+        put("budgets/u1/202507");
+        put("budgets/u1");
+        put("budgets/u1/202507/food");
+        put("budgets/u1/2025070");
+        put("budgets/u2");
+
+        cache.invalidate("budgets/u1/202507");
+
+        assertNull(cache.get("budgets/u1/202507"));
+        assertNull(cache.get("budgets/u1"));
+        assertNull(cache.get("budgets/u1/202507/food"));
+        // Same prefix but a different node, and another user.
+        assertNotNull(cache.get("budgets/u1/2025070"));
+        assertNotNull(cache.get("budgets/u2"));
+    }
+
+    @Test
+    public void invalidate_dropsQueriesOnThePath() {
+        String key = RepositoryCache.key("transactions/u1", "orderByKey");
+        cache.put(key, "transactions/u1", leaf, TTL, cache.generation());
+
+        cache.invalidate("transactions/u1/-P4En");
+
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    public void put_isRejectedAfterAWriteThatRacedTheRead() {
+        long readStarted = cache.generation();
+        cache.invalidate("unrelated/path");
+
+        cache.put("budgets/u1", "budgets/u1", leaf, TTL, readStarted);
+
+        assertNull(cache.get("budgets/u1"));
+    }
+
+    @Test
+    public void clear_dropsEverythingAndRejectsReadsInFlight() {
+        long readStarted = cache.generation();
+        put("budgets/u1");
+
+        cache.clear();
+        cache.put("budgets/u2", "budgets/u2", leaf, TTL, readStarted);
+
+        assertNull(cache.get("budgets/u1"));
+        assertNull(cache.get("budgets/u2"));
+    }
+
+    @Test
+    public void get_expiresEntriesAfterTheirTtl() throws InterruptedException {
+        cache.put("budgets/u1", "budgets/u1", leaf, 0, cache.generation());
+        Thread.sleep(1);
+
+        assertNull(cache.get("budgets/u1"));
+    }
+
+    @Test
+    public void put_evictsTheLeastRecentlyUsedEntriesOverTheWeight() {
+        RepositoryCache small = new RepositoryCache(2);
+        small.put("a", "a", leaf, TTL, small.generation());
+        small.put("b", "b", leaf, TTL, small.generation());
+        small.get("a");
+
+        small.put("c", "c", leaf, TTL, small.generation());
+
+        assertNotNull(small.get("a"));
+        assertNull(small.get("b"));
+        assertNotNull(small.get("c"));
+        assertEquals(1, small.getEvictionCount());
+    }
+
+    private void put(String path) {
+        cache.put(path, path, leaf, TTL, cache.generation());
+    }
+}
@@ -0,0 +1,199 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import edu.northeastern.numad25su_group9.StorageTestUtil;
+import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.storage.StorageSnapshot;
+import edu.northeastern.numad25su_group9.utils.PushIdUtil;
+
+import static edu.northeastern.numad25su_group9.StorageTestUtil.*;
+import static edu.northeastern.numad25su_group9.TaskTestUtil.await;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the {@link TransactionRepository.Layout#MONTHLY} layout reads transactions
+ * still stored flat together with the bucketed ones, as during a migration.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class TransactionRepositoryTest {
+
+    private StorageTestUtil.TestEngine engine;
+    private TransactionRepository repository;
+    // Oldest first: July 3 and August 1 are stored flat, July 20 and August 1 02:00 in buckets.
+    private String july3;
+    private String july20;
+    private String august1;
+    private String august1Later;
+
+    @Before
+    public void setUp() throws Exception {
+        engine = StorageTestUtil.installEngine();
+
+        TransactionRepository.setDefaultLayout(TransactionRepository.Layout.FLAT);
+        TransactionRepository flat = new TransactionRepository("u1");
+        july3 = add(flat, JULY_3);
+        august1 = add(flat, AUGUST_1);
+
+        TransactionRepository.setDefaultLayout(TransactionRepository.Layout.MONTHLY);
+        repository = new TransactionRepository("u1");
+        july20 = add(repository, JULY_20);
+        august1Later = add(repository, AUGUST_1 + HOUR);
+    }
+
+    @After
+    public void tearDown() {
+        TransactionRepository.setDefaultLayout(TransactionRepository.Layout.FLAT);
+    }
+
+    @Test
+    public void layoutUnderTest_mixesFlatAndBucketedTransactions() {
+        assertTrue(engine.get("transactions/u1/" + july3).getResult().exists());
+        assertTrue(engine.get("transactions/u1/202507/" + july20).getResult().exists());
+        assertTrue(engine.get("transactions/u1/202508/" + august1Later).getResult().exists());
+    }
+
+    @Test
+    public void dateRange_mergesFlatAndBucketedInKeyOrder() throws Exception {
+        StorageSnapshot july = await(repository.getTransactionsByDateRange(JULY_3, AUGUST_1 - 1));
+        assertEquals(Arrays.asList(july3, july20), keys(july));
+
+        StorageSnapshot all = await(repository.getTransactionsByDateRange(0, AUGUST_1 + HOUR));
+        assertEquals(Arrays.asList(july3, july20, august1, august1Later), keys(all));
+    }
+
+    @Test
+    public void dateRange_seesMonthsAddedByAnotherDevice() throws Exception {
+        await(repository.getTransactionsByDateRange(0, AUGUST_1 + HOUR));
+
+        // Written straight to the engine, past this device's cache.
+        String june = PushIdUtil.generate(JULY_3 - 31 * 24 * HOUR);
+        engine.set("transactions/u1/202506/" + june + "/amount", 1L);
+        engine.set("transactionMonths/u1/202506", true);
+
+        assertEquals(june, keys(await(repository.getTransactionsByDateRange(0, AUGUST_1 + HOUR))).get(0));
+    }
+
+    @Test
+    public void dateRange_boundsAreInclusiveToTheMillisecond() throws Exception {
+        StorageSnapshot exact = await(repository.getTransactionsByDateRange(AUGUST_1, AUGUST_1));
+        assertEquals(Arrays.asList(august1), keys(exact));
+    }
+
+    @Test
+    public void allTransactions_includeBothLayouts() throws Exception {
+        StorageSnapshot all = await(repository.getAllTransactions());
+        List<String> keys = keys(all);
+        keys.sort(null);
+        assertEquals(Arrays.asList(july3, july20, august1, august1Later), keys);
+    }
+
+    @Test
+    public void pages_walkBackwardsAcrossLayoutsAndMonths() throws Exception {
+        StorageSnapshot newest = await(repository.getTransactionsPage(null, 3));
+        assertEquals(Arrays.asList(july20, august1, august1Later), keys(newest));
+
+        StorageSnapshot older = await(repository.getTransactionsPage(july20, 3));
+        assertEquals(Arrays.asList(july3), keys(older));
+    }
+
+    @Test
+    public void pages_spanMoreMonthsThanOneRoundOfReads() throws Exception {
+        List<String> monthly = new ArrayList<>();
+        for (int month = 1; month <= 6; month++) {
+            monthly.add(add(repository, AUGUST_1 + month * 31 * 24 * HOUR));
+        }
+
+        StorageSnapshot newest = await(repository.getTransactionsPage(null, 2));
+        assertEquals(monthly.subList(4, 6), keys(newest));
+
+        StorageSnapshot older = await(repository.getTransactionsPage(monthly.get(4), 6));
+        List<String> expected = new ArrayList<>(Arrays.asList(july20, august1, august1Later));
+        expected.addAll(monthly.subList(0, 4));
+        assertEquals(expected.subList(1, 7), keys(older));
+    }
+
+    @Test
+    public void byId_findsFlatAndBucketedTransactions() throws Exception {
+        assertTrue(await(repository.getTransactionById(july3)).exists());
+        assertTrue(await(repository.getTransactionById(july20)).exists());
+        assertFalse(await(repository.getTransactionById(PushIdUtil.generate(JULY_3))).exists());
+    }
+
+    @Test
+    public void months_includeTheManifestAndTheFlatRange() throws Exception {
+        assertEquals(Arrays.asList("202507", "202508"), await(repository.getTransactionMonths()));
+    }
+
+    @Test
+    public void update_movesAFlatTransactionWithItsCreatedAt() throws Exception {
+        StorageSnapshot stored = await(repository.getTransactionById(july3));
+        Object createdAt = stored.child("createdAt").getValue();
+        assertNotNull(createdAt);
+
+        Transaction updated = stored.getValue(Transaction.class);
+        updated.setTransactionId(july3);
+        updated.setAmount(42);
+        await(repository.updateTransaction(updated, stored));
+
+        assertFalse(engine.get("transactions/u1/" + july3).getResult().exists());
+        StorageSnapshot moved = engine.get("transactions/u1/202507/" + july3).getResult();
+        assertEquals(createdAt, moved.child("createdAt").getValue());
+        assertEquals(42L, moved.child("amount").getValue());
+    }
+
+    @Test
+    public void categoryIndexRebuild_addsMissingEntriesAndKeepsTheRest() throws Exception {
+        engine.delete("transactionsByCategory/u1/food/" + july3);
+        // Stands in for an edit that landed after the transactions were read.
+        engine.set("transactionsByCategory/u1/food/" + july20 + "/amount", 99L);
+
+        await(repository.rebuildCategoryIndex());
+
+        assertTrue(engine.get("transactionsByCategory/u1/food/" + july3).getResult().exists());
+        assertEquals(99L, engine.get("transactionsByCategory/u1/food/" + july20 + "/amount").getResult().getValue());
+    }
+
+    @Test
+    public void migration_leavesReadsUnchanged() throws Exception {
+        List<String> before = keys(await(repository.getTransactionsByDateRange(0, AUGUST_1 + HOUR)));
+
+        assertEquals(Integer.valueOf(2), await(repository.migrateToMonthBuckets()));
+
+        assertFalse(engine.get("transactions/u1/" + july3).getResult().exists());
+        assertEquals(before, keys(await(repository.getTransactionsByDateRange(0, AUGUST_1 + HOUR))));
+    }
+
+    @Test
+    public void migration_keepsWritesMadeWhileItRuns() throws Exception {
+        // Lands after the migration started, before it reaches August.
+        engine.beforeQuery = (path, query) -> {
+            engine.beforeQuery = null;
+            engine.delete("transactions/u1/" + august1);
+        };
+
+        assertEquals(Integer.valueOf(1), await(repository.migrateToMonthBuckets()));
+        assertFalse(engine.get("transactions/u1/202508/" + august1).getResult().exists());
+        assertTrue(engine.get("transactions/u1/202507/" + july3).getResult().exists());
+    }
+
+    private static String add(TransactionRepository repository, long date) throws Exception {
+        Transaction txn = transaction("Food", 1, date);
+        await(repository.addTransaction(txn));
+        return txn.getTransactionId();
+    }
+
+    private static List<String> keys(StorageSnapshot snapshot) {
+        List<String> keys = new ArrayList<>();
+        for (StorageSnapshot child : snapshot.getChildren()) keys.add(child.getKey());
+        return keys;
+    }
+}
@@ -0,0 +1,76 @@
+package edu.northeastern.numad25su_group9.repositories;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import edu.northeastern.numad25su_group9.repositories.storage.InMemoryStorageEngine;
+
+import static edu.northeastern.numad25su_group9.TaskTestUtil.await;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that sets and increments of the same path apply in the order they were staged.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class WriteBatchTest {
+
+    private InMemoryStorageEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new InMemoryStorageEngine();
+        engine.set("total", 100L);
+    }
+
+    @Test
+    public void increments_areSummed() throws Exception {
+        await(new WriteBatch(engine).increment("total", 2).increment("total", 3).commit());
+
+        assertEquals(105, amount("total"), 0);
+    }
+
+    @Test
+    public void incrementAfterSet_addsToTheSetValue() throws Exception {
+        await(new WriteBatch(engine).set("total", 10L).increment("total", 2.5).commit());
+
+        assertEquals(12.5, amount("total"), 0);
+    }
+
+    @Test
+    public void incrementAfterDelete_startsFromZero() throws Exception {
+        await(new WriteBatch(engine).delete("total").increment("total", 4).commit());
+
+        assertEquals(4, amount("total"), 0);
+    }
+
+    @Test
+    public void setAfterIncrement_replacesIt() throws Exception {
+        await(new WriteBatch(engine).increment("total", 2).set("total", 7L).commit());
+
+        assertEquals(7, amount("total"), 0);
+    }
+
+    @Test
+    public void incrementOfNonNumericSet_failsWithoutWriting() throws Exception {
+        WriteBatch batch = new WriteBatch(engine)
+                .set("name", "Food")
+                .increment("name", 1)
+                .increment("total", 1);
+
+        try {
+            await(batch.commit());
+            fail("Expected the commit to fail");
+        } catch (IllegalArgumentException expected) {
+            // Nothing was written.
+        }
+        assertFalse(engine.get("name").getResult().exists());
+        assertEquals(100, amount("total"), 0);
+    }
+
+    private double amount(String path) {
+        Object value = engine.get(path).getResult().getValue();
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+}
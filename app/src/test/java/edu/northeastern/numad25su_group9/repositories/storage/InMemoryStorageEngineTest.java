@@ -0,0 +1,193 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import com.google.firebase.database.ServerValue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that {@link InMemoryStorageEngine} follows the Firebase rules the repositories rely on.
+ * Every operation completes synchronously, so results are read straight off the tasks.
+ */
+public class InMemoryStorageEngineTest {
+
+    private InMemoryStorageEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new InMemoryStorageEngine();
+    }
+
+    @Test
+    public void keys_integersFirstInNumericOrder_thenStrings() {
+        for (String key : new String[]{"b", "10", "-P4En", "2", "007", "a", "-1"}) {
+            engine.set("root/" + key, true);
+        }
+
+        assertEquals(Arrays.asList("-1", "2", "10", "-P4En", "007", "a", "b"), keys(get("root")));
+    }
+
+    @Test
+    public void orderByKey_startAtAndEndAtAreInclusive() {
+        for (String key : new String[]{"a", "b", "c", "d"}) engine.set("root/" + key, true);
+
+        StorageSnapshot range = query("root", StorageQuery.orderByKey().startAt("b").endAt("c"));
+
+        assertEquals(Arrays.asList("b", "c"), keys(range));
+    }
+
+    @Test
+    public void orderByKey_endBeforeWithLimitToLast() {
+        for (String key : new String[]{"a", "b", "c", "d", "e"}) engine.set("root/" + key, true);
+
+        StorageSnapshot page = query("root", StorageQuery.orderByKey().endBefore("e").limitToLast(2));
+
+        assertEquals(Arrays.asList("c", "d"), keys(page));
+    }
+
+    @Test
+    public void orderByKey_stringBoundSkipsIntegerKeys() {
+        for (String key : new String[]{"202507", "202508", "-P4En", "-Q1xy"}) engine.set("root/" + key, true);
+
+        StorageSnapshot flat = query("root", StorageQuery.orderByKey().startAt("-"));
+
+        assertEquals(Arrays.asList("-P4En", "-Q1xy"), keys(flat));
+    }
+
+    @Test
+    public void orderByChild_rangeAndLimitToLast() {
+        engine.set("root/a/updatedAt", 30L);
+        engine.set("root/b/updatedAt", 10L);
+        engine.set("root/c/updatedAt", 20L);
+        engine.set("root/d/updatedAt", 40L);
+
+        StorageSnapshot range = query("root", StorageQuery.orderByChild("updatedAt").startAt(20L).endAt(40L));
+        assertEquals(Arrays.asList("c", "a", "d"), keys(range));
+
+        StorageSnapshot last = query("root", StorageQuery.orderByChild("updatedAt").limitToLast(2));
+        assertEquals(Arrays.asList("a", "d"), keys(last));
+    }
+
+    @Test
+    public void query_withNoMatchesDoesNotExist() {
+        engine.set("root/a", 1L);
+
+        assertFalse(query("root", StorageQuery.orderByKey().startAt("b")).exists());
+    }
+
+    @Test
+    public void timestamp_resolvesToTheWriteTime() {
+        long before = System.currentTimeMillis();
+        engine.set("root/createdAt", ServerValue.TIMESTAMP);
+        long after = System.currentTimeMillis();
+
+        Object value = get("root/createdAt").getValue();
+        assertTrue(value instanceof Long);
+        assertTrue((Long) value >= before && (Long) value <= after);
+    }
+
+    @Test
+    public void increment_startsFromZeroAndAdds() {
+        engine.set("root/count", ServerValue.increment(2));
+        engine.set("root/count", ServerValue.increment(3));
+
+        assertEquals(5L, get("root/count").getValue());
+    }
+
+    @Test
+    public void increment_mixesLongsAndDoubles() {
+        engine.set("root/amount", 10L);
+        engine.set("root/amount", ServerValue.increment(2.5));
+        assertEquals(12.5, get("root/amount").getValue());
+
+        // Whole results come back as longs, like Firebase.
+        engine.set("root/amount", ServerValue.increment(-0.5));
+        assertEquals(12L, get("root/amount").getValue());
+    }
+
+    @Test
+    public void update_writesEveryPathAndLeavesSiblingsAlone() {
+        engine.set("users/u1/name", "A");
+        engine.set("users/u1/email", "a@example.com");
+        engine.set("users/u2/name", "B");
+
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("users/u1/name", "C");
+        updates.put("users/u2/name", null);
+        updates.put("counts/u1", ServerValue.increment(1));
+        engine.update("", updates);
+
+        assertEquals("C", get("users/u1/name").getValue());
+        assertEquals("a@example.com", get("users/u1/email").getValue());
+        // Deleting the last child removes the parent too.
+        assertFalse(get("users/u2").exists());
+        assertEquals(1L, get("counts/u1").getValue());
+    }
+
+    @Test
+    public void update_resolvesPathsBelowTheGivenOne() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("a", 1L);
+        updates.put("b/c", 2L);
+        engine.update("root", updates);
+
+        assertEquals(1L, get("root/a").getValue());
+        assertEquals(2L, get("root/b/c").getValue());
+    }
+
+    @Test
+    public void update_withAnInvalidValueWritesNothing() {
+        engine.set("root/a", 1L);
+
+        Map<String, Object> updates = new LinkedHashMap<>();
+        updates.put("a", 2L);
+        updates.put("b", new Object());
+
+        assertFalse(engine.update("root", updates).isSuccessful());
+        assertEquals(1L, get("root/a").getValue());
+        assertFalse(get("root/b").exists());
+    }
+
+    @Test
+    public void update_rejectsOverlappingPaths() {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        updates.put("a", 1L);
+        updates.put("a/b", 2L);
+
+        assertFalse(engine.update("root", updates).isSuccessful());
+        assertFalse(get("root").exists());
+    }
+
+    @Test
+    public void snapshots_areDetachedFromLaterWrites() {
+        engine.set("root/a", 1L);
+        StorageSnapshot snapshot = get("root");
+
+        engine.set("root/a", 2L);
+
+        assertEquals(1L, snapshot.child("a").getValue());
+    }
+
+    private StorageSnapshot get(String path) {
+        return engine.get(path).getResult();
+    }
+
+    private StorageSnapshot query(String path, StorageQuery query) {
+        return engine.query(path, query).getResult();
+    }
+
+    private static List<String> keys(StorageSnapshot snapshot) {
+        List<String> keys = new ArrayList<>();
+        for (StorageSnapshot child : snapshot.getChildren()) keys.add(child.getKey());
+        return keys;
+    }
+}
@@ -0,0 +1,107 @@
+package edu.northeastern.numad25su_group9.repositories.storage;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import edu.northeastern.numad25su_group9.models.ModelCodecs;
+import edu.northeastern.numad25su_group9.models.Transaction;
+
+import static org.junit.Assert.*;
+
+/**
+ * Decodes the same transaction nodes with the hand-written codec and with the reflection
+ * based {@link BeanMapper}. The agreement check runs with the unit tests; the timing run is
+ * ignored there and meant to be run by hand, e.g. from the IDE.
+ */
+public class ModelCodecsBenchmarkTest {
+
+    private static final int AGREEMENT_NODES = 200;
+    private static final int BENCHMARK_NODES = 10_000;
+    private static final int WARM_UP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Test
+    public void decodeTransactions_codecAgreesWithReflection() {
+        ModelCodecs.Decoder<Transaction> codec = ModelCodecs.decoderFor(Transaction.class);
+        assertNotNull(codec);
+
+        for (Map<String, Object> node : storedTransactions(AGREEMENT_NODES)) {
+            Transaction byCodec = codec.decode(node);
+            Transaction byReflection = BeanMapper.convert(node, Transaction.class);
+            assertEquals(byReflection.toMap(), byCodec.toMap());
+        }
+    }
+
+    @Ignore("Benchmark; prints timings, run by hand")
+    @Test
+    public void decodeTransactions_codecVsReflection() {
+        List<Map<String, Object>> nodes = storedTransactions(BENCHMARK_NODES);
+        ModelCodecs.Decoder<Transaction> codec = ModelCodecs.decoderFor(Transaction.class);
+        assertNotNull(codec);
+
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            decodeWithCodec(nodes, codec);
+            decodeWithReflection(nodes);
+        }
+        long codecNanos = Long.MAX_VALUE;
+        long reflectionNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            codecNanos = Math.min(codecNanos, decodeWithCodec(nodes, codec));
+            reflectionNanos = Math.min(reflectionNanos, decodeWithReflection(nodes));
+        }
+
+        System.out.println(String.format(Locale.US,
+                "Decoding %d transactions, best of %d: codec %.2f ms, reflection %.2f ms (%.1fx)",
+                BENCHMARK_NODES, MEASURED_ROUNDS, codecNanos / 1e6, reflectionNanos / 1e6,
+                (double) reflectionNanos / codecNanos));
+    }
+
+    private static long decodeWithCodec(List<Map<String, Object>> nodes, ModelCodecs.Decoder<Transaction> codec) {
+        long start = System.nanoTime();
+        double sum = 0;
+        for (Map<String, Object> node : nodes) sum += codec.decode(node).getAmount();
+        long elapsed = System.nanoTime() - start;
+        assertTrue(sum > 0);
+        return elapsed;
+    }
+
+    private static long decodeWithReflection(List<Map<String, Object>> nodes) {
+        long start = System.nanoTime();
+        double sum = 0;
+        for (Map<String, Object> node : nodes) sum += BeanMapper.convert(node, Transaction.class).getAmount();
+        long elapsed = System.nanoTime() - start;
+        assertTrue(sum > 0);
+        return elapsed;
+    }
+
+    /**
+     * Transactions as the engine stores them: whole amounts as longs, optional fields unset.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> storedTransactions(int count) {
+        InMemoryStorageEngine engine = new InMemoryStorageEngine();
+        for (int i = 0; i < count; i++) {
+            Transaction.Builder builder = new Transaction.Builder()
+                    .setCategoryName(i % 2 == 0 ? "Food" : "Shopping")
+                    .setDescription("Transaction " + i)
+                    .setAmount(i % 3 == 0 ? i + 1 : i + 0.25);
+            if (i % 4 == 0) {
+                builder.setVendorId("v" + i).setVendorName("Vendor " + i).setLatitude(42.0).setLongitude(-71.0);
+            }
+            Transaction txn = builder.build();
+            txn.setTransactionDate(1751504400000L + i);
+            engine.set("transactions/u1/t" + i, txn.toMap());
+        }
+
+        List<Map<String, Object>> nodes = new ArrayList<>(count);
+        for (StorageSnapshot child : engine.get("transactions/u1").getResult().getChildren()) {
+            nodes.add((Map<String, Object>) child.getValue());
+        }
+        return nodes;
+    }
+}
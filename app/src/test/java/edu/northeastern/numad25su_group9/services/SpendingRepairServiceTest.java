@@ -0,0 +1,139 @@
+package edu.northeastern.numad25su_group9.services;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import edu.northeastern.numad25su_group9.StorageTestUtil;
+import edu.northeastern.numad25su_group9.repositories.TransactionRepository;
+import edu.northeastern.numad25su_group9.utils.DateUtil;
+
+import static edu.northeastern.numad25su_group9.StorageTestUtil.*;
+import static edu.northeastern.numad25su_group9.TaskTestUtil.await;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that {@link SpendingRepairService} finds and fixes drifted totals, and retries a
+ * month whose totals change while its transactions are read.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SpendingRepairServiceTest {
+
+    private StorageTestUtil.TestEngine engine;
+    private TransactionService transactions;
+    private SpendingRepairService repair;
+
+    @Before
+    public void setUp() throws Exception {
+        engine = StorageTestUtil.installEngine();
+        TransactionRepository.setDefaultLayout(TransactionRepository.Layout.FLAT);
+        transactions = new TransactionService("u1", new SpendingService("u1"));
+        repair = new SpendingRepairService("u1");
+
+        await(transactions.addTransaction(transaction("Food", 10, JULY_3)));
+        await(transactions.addTransaction(transaction("Food", 5.5, JULY_20)));
+        await(transactions.addTransaction(transaction("Shopping", 20, JULY_20)));
+    }
+
+    @Test
+    public void consistentTotals_areLeftAlone() throws Exception {
+        SpendingRepairService.Report report = await(repair.repairAll());
+
+        assertEquals(1, report.getMonthsScanned());
+        assertEquals(3, report.getTransactionsScanned());
+        assertEquals(2, report.getBucketsChecked());
+        assertEquals(0, report.getBucketsRepaired());
+        assertEquals(2, report.getDaysChecked());
+        assertEquals(0, report.getDaysRepaired());
+        assertEquals(0, report.getMonthTotalsRepaired());
+    }
+
+    @Test
+    public void driftedTotals_areRepaired() throws Exception {
+        engine.set("spendings/u1/202507/food/amount", 3L);
+        engine.delete("spendings/u1/202507/shopping");
+        engine.set("dailySpendings/u1/202507/03", 1L);
+        engine.set("dailySpendings/u1/202507/25", 7L);
+        engine.set("spendingYearly/u1/2025/07", 100L);
+
+        SpendingRepairService.Report report = await(repair.repairAll());
+
+        assertEquals(2, report.getBucketsRepaired());
+        assertEquals(2, report.getDaysRepaired());
+        assertEquals(1, report.getMonthTotalsRepaired());
+        assertEquals(15.5, engine.amount("spendings/u1/202507/food/amount"), 1e-9);
+        assertEquals(20, engine.amount("spendings/u1/202507/shopping/amount"), 1e-9);
+        assertEquals("Shopping", engine.get("spendings/u1/202507/shopping/categoryName").getResult().getValue());
+        assertEquals(10, engine.amount("dailySpendings/u1/202507/03"), 1e-9);
+        assertEquals(25.5, engine.amount("dailySpendings/u1/202507/20"), 1e-9);
+        assertEquals(0, engine.amount("dailySpendings/u1/202507/25"), 1e-9);
+        assertEquals(35.5, engine.amount("spendingYearly/u1/2025/07"), 1e-9);
+    }
+
+    @Test
+    public void spendingsWithoutTransactions_areZeroed() throws Exception {
+        // More months than one listing read returns.
+        List<String> months = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) months.add(DateUtil.toDateKey(2024, month));
+        months.add("202501");
+        for (String month : months) {
+            engine.set("spendings/u1/" + month + "/food/amount", 5L);
+            engine.set("spendings/u1/" + month + "/food/categoryName", "Food");
+        }
+
+        SpendingRepairService.Report report = await(repair.repairAll());
+
+        assertEquals(14, report.getMonthsScanned());
+        assertEquals(13, report.getBucketsRepaired());
+        assertEquals(0, engine.amount("spendings/u1/202401/food/amount"), 1e-9);
+        assertEquals(0, engine.amount("spendings/u1/202501/food/amount"), 1e-9);
+    }
+
+    @Test
+    public void writeDuringTheRead_retriesTheMonth() throws Exception {
+        engine.set("spendings/u1/202507/food/amount", 3L);
+        int[] reads = {0};
+        onTransactionRead(() -> {
+            if (reads[0]++ == 0) transactions.addTransaction(transaction("Food", 4, JULY_3));
+        });
+
+        SpendingRepairService.Report report = await(repair.repairAll());
+
+        assertEquals(2, reads[0]);
+        assertEquals(0, report.getMonthsSkipped());
+        assertEquals(1, report.getBucketsRepaired());
+        // The concurrent add is counted once, by its own write.
+        assertEquals(19.5, engine.amount("spendings/u1/202507/food/amount"), 1e-9);
+        assertEquals(39.5, engine.amount("spendingYearly/u1/2025/07"), 1e-9);
+    }
+
+    @Test
+    public void monthThatKeepsChanging_isSkipped() throws Exception {
+        engine.set("spendings/u1/202507/food/amount", 3L);
+        onTransactionRead(() -> transactions.addTransaction(transaction("Food", 1, JULY_3)));
+
+        SpendingRepairService.Report report = await(repair.repairAll());
+
+        assertEquals(1, report.getMonthsSkipped());
+        assertEquals(0, report.getMonthsScanned());
+        assertEquals(0, report.getBucketsRepaired());
+        // Left as found, plus the three adds.
+        assertEquals(6, engine.amount("spendings/u1/202507/food/amount"), 1e-9);
+    }
+
+    /**
+     * Runs {@code hook} before each date range read of the transactions: an unlimited key
+     * range, unlike the one-row reads that find the oldest and newest transaction.
+     */
+    private void onTransactionRead(Runnable hook) {
+        engine.beforeQuery = (path, query) -> {
+            boolean dateRange = path.equals("transactions/u1") && query.isOrderedByKey()
+                    && query.getLimitToFirst() == 0 && query.getLimitToLast() == 0;
+            if (dateRange) hook.run();
+        };
+    }
+}
@@ -0,0 +1,126 @@
+package edu.northeastern.numad25su_group9.services;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import edu.northeastern.numad25su_group9.StorageTestUtil;
+import edu.northeastern.numad25su_group9.models.Transaction;
+import edu.northeastern.numad25su_group9.repositories.WriteBatch;
+
+import static edu.northeastern.numad25su_group9.StorageTestUtil.*;
+import static edu.northeastern.numad25su_group9.TaskTestUtil.await;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that {@link SpendingService#adjustSpend} writes one net increment per
+ * (month, category) bucket and per day, and nothing for buckets that net to zero.
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SpendingServiceTest {
+
+    private StorageTestUtil.TestEngine engine;
+    private SpendingService service;
+
+    @Before
+    public void setUp() {
+        engine = StorageTestUtil.installEngine();
+        service = new SpendingService("u1");
+    }
+
+    @Test
+    public void add_countsTowardsItsBucketDayAndMonth() throws Exception {
+        commit(null, transaction("Food", 12.5, JULY_3));
+
+        assertEquals(12.5, engine.amount("spendings/u1/202507/food/amount"), 0);
+        assertEquals("Food", value("spendings/u1/202507/food/categoryName"));
+        assertEquals(12.5, engine.amount("dailySpendings/u1/202507/03"), 0);
+        assertEquals(12.5, engine.amount("spendingYearly/u1/2025/07"), 0);
+    }
+
+    @Test
+    public void amountEdit_writesTheNetDifference() throws Exception {
+        Transaction before = transaction("Food", 10, JULY_3);
+        commit(null, before);
+
+        commit(before, transaction("Food", 25, JULY_3));
+
+        assertEquals(25, engine.amount("spendings/u1/202507/food/amount"), 0);
+        assertEquals(25, engine.amount("dailySpendings/u1/202507/03"), 0);
+        assertEquals(25, engine.amount("spendingYearly/u1/2025/07"), 0);
+    }
+
+    @Test
+    public void descriptionEdit_writesNothing() {
+        Transaction before = transaction("Food", 10, JULY_3);
+        Transaction after = transaction("Food", 10, JULY_3);
+        after.setDescription("Edited");
+
+        WriteBatch batch = new WriteBatch(engine);
+        service.adjustSpend(before, after, batch);
+
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    public void categoryAndDayChange_movesTheAmountWithinTheMonth() throws Exception {
+        Transaction before = transaction("Food", 10, JULY_3);
+        commit(null, before);
+
+        commit(before, transaction("Shopping", 10, JULY_20));
+
+        assertEquals(0, engine.amount("spendings/u1/202507/food/amount"), 0);
+        assertEquals(10, engine.amount("spendings/u1/202507/shopping/amount"), 0);
+        assertEquals(0, engine.amount("dailySpendings/u1/202507/03"), 0);
+        assertEquals(10, engine.amount("dailySpendings/u1/202507/20"), 0);
+        assertEquals(10, engine.amount("spendingYearly/u1/2025/07"), 0);
+    }
+
+    @Test
+    public void monthChange_movesTheAmountBetweenMonths() throws Exception {
+        Transaction before = transaction("Food", 10, JULY_3);
+        commit(null, before);
+
+        commit(before, transaction("Food", 10, AUGUST_1));
+
+        assertEquals(0, engine.amount("spendings/u1/202507/food/amount"), 0);
+        assertEquals(10, engine.amount("spendings/u1/202508/food/amount"), 0);
+        assertEquals(0, engine.amount("spendingYearly/u1/2025/07"), 0);
+        assertEquals(10, engine.amount("spendingYearly/u1/2025/08"), 0);
+    }
+
+    @Test
+    public void ignoredTransactions_countAsAbsent() throws Exception {
+        Transaction ignored = transaction("Food", 10, JULY_3);
+        ignored.setIgnore(true);
+        commit(null, ignored);
+        assertFalse(engine.get("spendings/u1").getResult().exists());
+
+        commit(ignored, transaction("Food", 10, JULY_3));
+
+        assertEquals(10, engine.amount("spendings/u1/202507/food/amount"), 0);
+    }
+
+    @Test
+    public void delete_reversesTheAdd() throws Exception {
+        Transaction txn = transaction("Food", 10, JULY_3);
+        commit(null, txn);
+
+        commit(txn, null);
+
+        assertEquals(0, engine.amount("spendings/u1/202507/food/amount"), 0);
+        assertEquals(0, engine.amount("dailySpendings/u1/202507/03"), 0);
+        assertEquals(0, engine.amount("spendingYearly/u1/2025/07"), 0);
+    }
+
+    private void commit(Transaction before, Transaction after) throws Exception {
+        WriteBatch batch = new WriteBatch(engine);
+        service.adjustSpend(before, after, batch);
+        await(batch.commit());
+    }
+
+    private Object value(String path) {
+        return engine.get(path).getResult().getValue();
+    }
+}
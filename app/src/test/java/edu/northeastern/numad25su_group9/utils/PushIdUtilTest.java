@@ -0,0 +1,63 @@
+package edu.northeastern.numad25su_group9.utils;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that generated IDs are unique and sort by timestamp, also within one millisecond.
+ */
+public class PushIdUtilTest {
+
+    private static final long JULY_3_2025 = 1751504400000L;
+
+    @Test
+    public void sameMillisecond_idsAreUniqueAndIncreasing() {
+        Set<String> seen = new HashSet<>();
+        String previous = null;
+        for (int i = 0; i < 10_000; i++) {
+            String id = PushIdUtil.generate(JULY_3_2025);
+            assertTrue(seen.add(id));
+            if (previous != null) assertTrue(previous + " < " + id, previous.compareTo(id) < 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    public void idsSortByTimestamp() {
+        String earlier = PushIdUtil.generate(JULY_3_2025);
+        String later = PushIdUtil.generate(JULY_3_2025 + 1);
+        String muchEarlier = PushIdUtil.generate(0);
+
+        assertTrue(earlier.compareTo(later) < 0);
+        assertTrue(muchEarlier.compareTo(earlier) < 0);
+    }
+
+    @Test
+    public void timestampOf_readsBackTheGeneratedTimestamp() {
+        assertEquals(JULY_3_2025, PushIdUtil.timestampOf(PushIdUtil.generate(JULY_3_2025)));
+        assertEquals(0, PushIdUtil.timestampOf(PushIdUtil.generate(-5)));
+        assertEquals(-1, PushIdUtil.timestampOf("1751504400000"));
+    }
+
+    @Test
+    public void bounds_bracketEveryIdOfTheirMillisecond() {
+        String id = PushIdUtil.generate(JULY_3_2025);
+
+        assertTrue(PushIdUtil.lowerBound(JULY_3_2025).compareTo(id) <= 0);
+        assertTrue(PushIdUtil.upperBound(JULY_3_2025).compareTo(id) >= 0);
+        assertTrue(PushIdUtil.upperBound(JULY_3_2025 - 1).compareTo(id) < 0);
+        assertTrue(PushIdUtil.lowerBound(JULY_3_2025 + 1).compareTo(id) > 0);
+    }
+
+    @Test
+    public void isPushId_rejectsLegacyAndMonthKeys() {
+        assertTrue(PushIdUtil.isPushId(PushIdUtil.generate(JULY_3_2025)));
+        assertFalse(PushIdUtil.isPushId("1751504400000"));
+        assertFalse(PushIdUtil.isPushId("202507"));
+        assertFalse(PushIdUtil.isPushId(null));
+    }
+}